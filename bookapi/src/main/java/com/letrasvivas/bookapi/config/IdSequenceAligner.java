@@ -0,0 +1,72 @@
+package com.letrasvivas.bookapi.config;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.dialect.Dialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Migration path from IDENTITY columns to pooled id sequences.
+ *
+ * Databases created before the switch already hold rows whose ids the new
+ * sequences know nothing about. At startup, before the application takes any
+ * writes, each sequence is moved past the highest id of its table so that the
+ * first allocated block cannot collide with existing rows. Sequences that are
+ * already ahead are left alone, so the check is a no-op after the first run.
+ */
+@Component
+public class IdSequenceAligner {
+
+    private static final Logger logger = LoggerFactory.getLogger(IdSequenceAligner.class);
+
+    // Must match the allocationSize of the entities' @SequenceGenerator
+    private static final int ALLOCATION_SIZE = 50;
+
+    private static final Map<String, String> SEQUENCES_BY_TABLE = Map.of(
+            "books", "books_seq",
+            "users", "users_seq",
+            "subscriptions", "subscriptions_seq"
+    );
+
+    private final JdbcTemplate jdbcTemplate;
+    private final EntityManagerFactory entityManagerFactory;
+
+    public IdSequenceAligner(JdbcTemplate jdbcTemplate, EntityManagerFactory entityManagerFactory) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.entityManagerFactory = entityManagerFactory;
+    }
+
+    @PostConstruct
+    void alignSequences() {
+        Dialect dialect = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getJdbcServices()
+                .getDialect();
+        SEQUENCES_BY_TABLE.forEach((table, sequence) -> align(dialect, table, sequence));
+    }
+
+    private void align(Dialect dialect, String table, String sequence) {
+        Long maxId = jdbcTemplate.queryForObject("SELECT MAX(id) FROM " + table, Long.class);
+        if (maxId == null) {
+            return;
+        }
+
+        // Reading the sequence consumes one value, i.e. at most one id block per startup
+        Long next = jdbcTemplate.queryForObject(
+                dialect.getSequenceSupport().getSequenceNextValString(sequence), Long.class);
+        // A block handed out from this value must lie entirely above the existing ids,
+        // whether the optimizer treats the value as the block's low or high end
+        long restartWith = maxId + ALLOCATION_SIZE;
+        if (next != null && next >= restartWith) {
+            return;
+        }
+
+        jdbcTemplate.execute("ALTER SEQUENCE " + sequence + " RESTART WITH " + restartWith);
+        logger.info("Moved sequence {} to {} (highest {} id is {})", sequence, restartWith, table, maxId);
+    }
+}
@@ -0,0 +1,12 @@
+package com.letrasvivas.bookapi.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Enables @Scheduled maintenance jobs (counter reconciliation, index refreshes)
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
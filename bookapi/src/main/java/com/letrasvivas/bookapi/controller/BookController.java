@@ -1,22 +1,46 @@
 package com.letrasvivas.bookapi.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.letrasvivas.bookapi.dto.request.CreateBookRequestDTO;
 import com.letrasvivas.bookapi.dto.request.UpdateBookRequestDTO;
+import com.letrasvivas.bookapi.dto.response.BookBatchResponseDTO;
 import com.letrasvivas.bookapi.dto.response.BookResponseDTO;
+import com.letrasvivas.bookapi.dto.response.BookSuggestionDTO;
+import com.letrasvivas.bookapi.dto.response.CursorPageResponseDTO;
+import com.letrasvivas.bookapi.dto.response.FacetedPageResponseDTO;
+import com.letrasvivas.bookapi.dto.response.ImportReportDTO;
+import com.letrasvivas.bookapi.dto.response.YearRangeStatsDTO;
+import com.letrasvivas.bookapi.service.BookImportService;
 import com.letrasvivas.bookapi.service.BookService;
+import com.letrasvivas.bookapi.service.index.BookFuzzyIndex;
+import com.letrasvivas.bookapi.service.index.BookSearchIndex;
+import com.letrasvivas.bookapi.service.index.BookSuggestIndex;
+import com.letrasvivas.bookapi.util.ImportRecordReader;
+import com.letrasvivas.bookapi.util.NdjsonWriter;
+import com.letrasvivas.bookapi.util.ResourceVersion;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Size;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 import java.util.Map;
 
@@ -27,34 +51,92 @@ import java.util.Map;
 public class BookController {
 
     private final BookService bookService;
+    private final BookImportService bookImportService;
+    private final ObjectMapper objectMapper;
 
     @Autowired
-    public BookController(BookService bookService) {
+    public BookController(BookService bookService, BookImportService bookImportService, ObjectMapper objectMapper) {
         this.bookService = bookService;
+        this.bookImportService = bookImportService;
+        this.objectMapper = objectMapper;
     }
 
     // ========== BASIC CRUD OPERATIONS ==========
 
     /**
-     * Get all books with pagination and sorting
+     * Get all books with pagination and sorting. Like the other list and search
+     * endpoints, descriptions are left out unless includeDescription=true.
+     * Answers 304 Not Modified when no book changed since the client's copy.
      */
     @GetMapping
     public ResponseEntity<Page<BookResponseDTO>> getAllBooks(
-            @PageableDefault(size = 10, sort = "title") Pageable pageable) {
-        Page<BookResponseDTO> books = bookService.getAllBooks(pageable);
+            @PageableDefault(size = 10, sort = "title") Pageable pageable,
+            @RequestParam(defaultValue = "false") boolean includeDescription,
+            WebRequest request) {
+        ResourceVersion version = bookService.getBooksVersion();
+        if (request.checkNotModified(version.getETag(), version.getLastModified())) {
+            return null;
+        }
+        Page<BookResponseDTO> books = bookService.getAllBooks(pageable, includeDescription);
         return ResponseEntity.ok(books);
     }
 
     /**
-     * Get a specific book by ID
+     * Get books with keyset (cursor) pagination, without a total count
+     */
+    @GetMapping("/scroll")
+    public ResponseEntity<CursorPageResponseDTO<BookResponseDTO>> scrollBooks(
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "title") @Pattern(regexp = "title|id", message = "Sort must be title or id") String sort,
+            @RequestParam(defaultValue = "10") @Min(value = 1, message = "Size must be positive")
+            @Max(value = 100, message = "Size cannot exceed 100") int size) {
+        CursorPageResponseDTO<BookResponseDTO> books = bookService.getBooksAfter(after, sort, size);
+        return ResponseEntity.ok(books);
+    }
+
+    /**
+     * Get a specific book by ID. Answers 304 Not Modified, without loading the
+     * book, when the client's copy (If-None-Match / If-Modified-Since) is current.
      */
     @GetMapping("/{id}")
     public ResponseEntity<BookResponseDTO> getBookById(
-            @PathVariable @Min(value = 1, message = "ID must be positive") Long id) {
+            @PathVariable @Min(value = 1, message = "ID must be positive") Long id,
+            WebRequest request) {
+        ResourceVersion version = bookService.getBookVersion(id);
+        if (request.checkNotModified(version.getETag(), version.getLastModified())) {
+            return null;
+        }
         BookResponseDTO book = bookService.getBookById(id);
         return ResponseEntity.ok(book);
     }
 
+    /**
+     * Get several books by id in one call (ids=1,2,3). Books come back in request
+     * order; ids that match no book are listed in missingIds.
+     */
+    @GetMapping("/batch")
+    public ResponseEntity<BookBatchResponseDTO> getBooksByIds(
+            @RequestParam
+            @NotEmpty(message = "ID list cannot be empty")
+            @Size(max = 100, message = "Cannot fetch more than 100 books by query string, use POST /batch")
+            List<@NotNull(message = "ID cannot be null") @Min(value = 1, message = "ID must be positive") Long> ids) {
+        BookBatchResponseDTO books = bookService.getBooksByIds(ids);
+        return ResponseEntity.ok(books);
+    }
+
+    /**
+     * Get several books by id, for id lists too long for a query string
+     */
+    @PostMapping("/batch")
+    public ResponseEntity<BookBatchResponseDTO> getBooksByIdsInBody(
+            @RequestBody
+            @NotEmpty(message = "ID list cannot be empty")
+            @Size(max = 5000, message = "Cannot fetch more than 5000 books at once")
+            List<@NotNull(message = "ID cannot be null") @Min(value = 1, message = "ID must be positive") Long> ids) {
+        BookBatchResponseDTO books = bookService.getBooksByIds(ids);
+        return ResponseEntity.ok(books);
+    }
+
     /**
      * Create a new book
      */
@@ -98,6 +180,28 @@ public class BookController {
         return ResponseEntity.status(HttpStatus.CREATED).body(createdBooks);
     }
 
+    /**
+     * Stream a large feed of books (NDJSON or CSV with a header row) into the catalog.
+     * Rows are committed in chunks and the report lists the rows that were not imported.
+     */
+    @PostMapping(value = "/import", consumes = {MediaType.APPLICATION_NDJSON_VALUE, "text/csv"})
+    public ResponseEntity<ImportReportDTO> importBooks(
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+            InputStream body) throws IOException {
+        ImportReportDTO report = bookImportService.importBooks(body, ImportRecordReader.Format.fromContentType(contentType));
+        return ResponseEntity.ok(report);
+    }
+
+    /**
+     * Export the whole catalog as NDJSON, one book per line, optionally gzip-encoded
+     */
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportBooks(
+            @RequestParam(defaultValue = "false") boolean gzip) {
+        return NdjsonWriter.attachment("books.ndjson", gzip, objectMapper,
+                writer -> bookService.exportBooks(writer::write));
+    }
+
     // ========== AVAILABILITY MANAGEMENT ==========
 
     /**
@@ -124,8 +228,9 @@ public class BookController {
      * Get all available books
      */
     @GetMapping("/available")
-    public ResponseEntity<List<BookResponseDTO>> getAvailableBooks() {
-        List<BookResponseDTO> availableBooks = bookService.getAvailableBooks();
+    public ResponseEntity<List<BookResponseDTO>> getAvailableBooks(
+            @RequestParam(defaultValue = "false") boolean includeDescription) {
+        List<BookResponseDTO> availableBooks = bookService.getAvailableBooks(includeDescription);
         return ResponseEntity.ok(availableBooks);
     }
 
@@ -136,8 +241,9 @@ public class BookController {
      */
     @GetMapping("/search/title")
     public ResponseEntity<List<BookResponseDTO>> searchBooksByTitle(
-            @RequestParam @NotBlank(message = "Title search term cannot be blank") String title) {
-        List<BookResponseDTO> books = bookService.searchBooksByTitle(title);
+            @RequestParam @NotBlank(message = "Title search term cannot be blank") String title,
+            @RequestParam(defaultValue = "false") boolean includeDescription) {
+        List<BookResponseDTO> books = bookService.searchBooksByTitle(title, includeDescription);
         return ResponseEntity.ok(books);
     }
 
@@ -146,8 +252,9 @@ public class BookController {
      */
     @GetMapping("/search/author")
     public ResponseEntity<List<BookResponseDTO>> searchBooksByAuthor(
-            @RequestParam @NotBlank(message = "Author search term cannot be blank") String author) {
-        List<BookResponseDTO> books = bookService.searchBooksByAuthor(author);
+            @RequestParam @NotBlank(message = "Author search term cannot be blank") String author,
+            @RequestParam(defaultValue = "false") boolean includeDescription) {
+        List<BookResponseDTO> books = bookService.searchBooksByAuthor(author, includeDescription);
         return ResponseEntity.ok(books);
     }
 
@@ -156,16 +263,55 @@ public class BookController {
      */
     @GetMapping("/search")
     public ResponseEntity<List<BookResponseDTO>> searchBooks(
-            @RequestParam @NotBlank(message = "Search term cannot be blank") String q) {
-        List<BookResponseDTO> books = bookService.searchBooks(q);
+            @RequestParam @NotBlank(message = "Search term cannot be blank") String q,
+            @RequestParam(defaultValue = "false") boolean includeDescription) {
+        List<BookResponseDTO> books = bookService.searchBooks(q, includeDescription);
+        return ResponseEntity.ok(books);
+    }
+
+    /**
+     * Typo-tolerant search: books whose title and/or author has, for every word of q,
+     * a word within a few edits of it, closest matches first
+     */
+    @GetMapping("/search/fuzzy")
+    public ResponseEntity<List<BookResponseDTO>> fuzzySearchBooks(
+            @RequestParam
+            @NotBlank(message = "Search term cannot be blank")
+            @Size(max = 100, message = "Search term cannot exceed 100 characters") String q,
+            @RequestParam(defaultValue = "ANY") BookSearchIndex.Field field,
+            @RequestParam(defaultValue = "2")
+            @Min(value = 0, message = "Max distance cannot be negative")
+            @Max(value = BookFuzzyIndex.MAX_DISTANCE, message = "Max distance cannot exceed 2") int maxDistance,
+            @RequestParam(defaultValue = "20")
+            @Min(value = 1, message = "Limit must be at least 1")
+            @Max(value = 100, message = "Limit cannot exceed 100") int limit,
+            @RequestParam(defaultValue = "false") boolean includeDescription) {
+        List<BookResponseDTO> books = bookService.fuzzySearchBooks(q, field, maxDistance, limit, includeDescription);
         return ResponseEntity.ok(books);
     }
 
     /**
-     * Advanced search with multiple criteria
+     * Autocomplete for the search box: titles and authors with a word starting with
+     * the prefix (case and accent insensitive), most common first
+     */
+    @GetMapping("/suggest")
+    public ResponseEntity<List<BookSuggestionDTO>> suggest(
+            @RequestParam
+            @NotBlank(message = "Prefix cannot be blank")
+            @Size(max = 100, message = "Prefix cannot exceed 100 characters") String prefix,
+            @RequestParam(defaultValue = "10")
+            @Min(value = 1, message = "Limit must be at least 1")
+            @Max(value = BookSuggestIndex.MAX_SUGGESTIONS, message = "Limit cannot exceed 20") int limit) {
+        List<BookSuggestionDTO> suggestions = bookService.suggest(prefix, limit);
+        return ResponseEntity.ok(suggestions);
+    }
+
+    /**
+     * Advanced search with multiple criteria. The response also carries, for genre,
+     * availability, decade and page-count bucket, the number of matches per value.
      */
     @GetMapping("/search/advanced")
-    public ResponseEntity<Page<BookResponseDTO>> advancedSearch(
+    public ResponseEntity<FacetedPageResponseDTO<BookResponseDTO>> advancedSearch(
             @RequestParam(required = false) String title,
             @RequestParam(required = false) String author,
             @RequestParam(required = false) String genre,
@@ -174,11 +320,12 @@ public class BookController {
             @RequestParam(required = false) Integer minPages,
             @RequestParam(required = false) Integer maxPages,
             @RequestParam(required = false) Boolean isAvailable,
-            @PageableDefault(size = 10, sort = "title") Pageable pageable) {
+            @PageableDefault(size = 10, sort = "title") Pageable pageable,
+            @RequestParam(defaultValue = "false") boolean includeDescription) {
 
-        Page<BookResponseDTO> books = bookService.searchBooks(
+        FacetedPageResponseDTO<BookResponseDTO> books = bookService.searchBooks(
                 title, author, genre, minYear, maxYear,
-                minPages, maxPages, isAvailable, pageable);
+                minPages, maxPages, isAvailable, pageable, includeDescription);
         return ResponseEntity.ok(books);
     }
 
@@ -189,8 +336,9 @@ public class BookController {
      */
     @GetMapping("/genre/{genre}")
     public ResponseEntity<List<BookResponseDTO>> getBooksByGenre(
-            @PathVariable @NotBlank(message = "Genre cannot be blank") String genre) {
-        List<BookResponseDTO> books = bookService.getBooksByGenre(genre);
+            @PathVariable @NotBlank(message = "Genre cannot be blank") String genre,
+            @RequestParam(defaultValue = "false") boolean includeDescription) {
+        List<BookResponseDTO> books = bookService.getBooksByGenre(genre, includeDescription);
         return ResponseEntity.ok(books);
     }
 
@@ -200,8 +348,9 @@ public class BookController {
     @GetMapping("/year-range")
     public ResponseEntity<List<BookResponseDTO>> getBooksByYearRange(
             @RequestParam @Min(value = 1500, message = "Start year must be after 1500") Integer startYear,
-            @RequestParam @Min(value = 1500, message = "End year must be after 1500") Integer endYear) {
-        List<BookResponseDTO> books = bookService.getBooksByYearRange(startYear, endYear);
+            @RequestParam @Min(value = 1500, message = "End year must be after 1500") Integer endYear,
+            @RequestParam(defaultValue = "false") boolean includeDescription) {
+        List<BookResponseDTO> books = bookService.getBooksByYearRange(startYear, endYear, includeDescription);
         return ResponseEntity.ok(books);
     }
 
@@ -209,8 +358,9 @@ public class BookController {
      * Get classic books (before 1950)
      */
     @GetMapping("/classics")
-    public ResponseEntity<List<BookResponseDTO>> getClassicBooks() {
-        List<BookResponseDTO> classicBooks = bookService.getClassicBooks();
+    public ResponseEntity<List<BookResponseDTO>> getClassicBooks(
+            @RequestParam(defaultValue = "false") boolean includeDescription) {
+        List<BookResponseDTO> classicBooks = bookService.getClassicBooks(includeDescription);
         return ResponseEntity.ok(classicBooks);
     }
 
@@ -218,8 +368,9 @@ public class BookController {
      * Get recent books (2020 onwards)
      */
     @GetMapping("/recent")
-    public ResponseEntity<List<BookResponseDTO>> getRecentBooks() {
-        List<BookResponseDTO> recentBooks = bookService.getRecentBooks();
+    public ResponseEntity<List<BookResponseDTO>> getRecentBooks(
+            @RequestParam(defaultValue = "false") boolean includeDescription) {
+        List<BookResponseDTO> recentBooks = bookService.getRecentBooks(includeDescription);
         return ResponseEntity.ok(recentBooks);
     }
 
@@ -251,15 +402,34 @@ public class BookController {
         return ResponseEntity.ok(Map.of("exists", exists));
     }
 
+    /**
+     * Check many ISBNs in one call; returns each ISBN mapped to whether it exists
+     */
+    @PostMapping("/isbn/exists")
+    public ResponseEntity<Map<String, Boolean>> checkIsbnsExist(
+            @RequestBody
+            @NotEmpty(message = "ISBN list cannot be empty")
+            @Size(max = 50000, message = "Cannot check more than 50000 ISBNs at once")
+            List<@Pattern(
+                    regexp = "^(97(8|9))?\\d{9}(\\d|X)$",
+                    message = "Invalid ISBN format"
+            ) String> isbns) {
+        Map<String, Boolean> existence = bookService.isbnsExist(isbns);
+        return ResponseEntity.ok(existence);
+    }
+
     // ========== RECOMMENDATIONS ==========
 
     /**
-     * Get similar books
+     * Get the books most similar to a book, best match first
      */
     @GetMapping("/{id}/similar")
     public ResponseEntity<List<BookResponseDTO>> getSimilarBooks(
-            @PathVariable @Min(value = 1, message = "ID must be positive") Long id) {
-        List<BookResponseDTO> similarBooks = bookService.getSimilarBooks(id);
+            @PathVariable @Min(value = 1, message = "ID must be positive") Long id,
+            @RequestParam(defaultValue = "10")
+            @Min(value = 1, message = "Limit must be at least 1")
+            @Max(value = 50, message = "Limit cannot exceed 50") int limit) {
+        List<BookResponseDTO> similarBooks = bookService.getSimilarBooks(id, limit);
         return ResponseEntity.ok(similarBooks);
     }
 
@@ -275,14 +445,46 @@ public class BookController {
     }
 
     /**
-     * Get most prolific authors
+     * Get the most prolific authors, most books first
      */
     @GetMapping("/analytics/authors/prolific")
-    public ResponseEntity<List<Object[]>> getMostProlificAuthors() {
-        List<Object[]> authors = bookService.getMostProlificAuthors();
+    public ResponseEntity<List<Object[]>> getMostProlificAuthors(
+            @RequestParam(defaultValue = "10")
+            @Min(value = 1, message = "Limit must be at least 1")
+            @Max(value = 100, message = "Limit cannot exceed 100") int limit) {
+        List<Object[]> authors = bookService.getMostProlificAuthors(limit);
         return ResponseEntity.ok(authors);
     }
 
+    /**
+     * Get book count by publication year
+     */
+    @GetMapping("/analytics/years")
+    public ResponseEntity<List<Object[]>> getBooksCountByYear() {
+        List<Object[]> years = bookService.getBooksCountByYear();
+        return ResponseEntity.ok(years);
+    }
+
+    /**
+     * Get average page count by genre
+     */
+    @GetMapping("/analytics/genres/pages")
+    public ResponseEntity<List<Object[]>> getAveragePageCountByGenre() {
+        List<Object[]> genres = bookService.getAveragePageCountByGenre();
+        return ResponseEntity.ok(genres);
+    }
+
+    /**
+     * Get book statistics (counts, authors, average pages, genres) for a publication year range
+     */
+    @GetMapping("/analytics/years/range")
+    public ResponseEntity<YearRangeStatsDTO> getYearRangeStats(
+            @RequestParam @Min(value = 1500, message = "Start year must be after 1500") Integer startYear,
+            @RequestParam @Min(value = 1500, message = "End year must be after 1500") Integer endYear) {
+        YearRangeStatsDTO stats = bookService.getYearRangeStats(startYear, endYear);
+        return ResponseEntity.ok(stats);
+    }
+
     /**
      * Get book count
      */
@@ -1,10 +1,13 @@
 package com.letrasvivas.bookapi.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.letrasvivas.bookapi.dto.request.CreateSubscriptionRequestDTO;
 import com.letrasvivas.bookapi.dto.request.UpdateSubscriptionRequestDTO;
+import com.letrasvivas.bookapi.dto.response.CursorPageResponseDTO;
 import com.letrasvivas.bookapi.dto.response.SubscriptionResponseDTO;
 import com.letrasvivas.bookapi.entity.Subscription.SubscriptionStatus;
 import com.letrasvivas.bookapi.service.SubscriptionService;
+import com.letrasvivas.bookapi.util.NdjsonWriter;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -23,8 +26,11 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
@@ -35,14 +41,17 @@ import java.util.Map;
 @RestController
 @RequestMapping("/api/v1/subscriptions")
 @Tag(name = "Subscription Management", description = "APIs for managing user subscriptions")
+@Validated
 @CrossOrigin(origins = "*", maxAge = 3600)
 public class SubscriptionController {
 
     private final SubscriptionService subscriptionService;
+    private final ObjectMapper objectMapper;
 
     @Autowired
-    public SubscriptionController(SubscriptionService subscriptionService) {
+    public SubscriptionController(SubscriptionService subscriptionService, ObjectMapper objectMapper) {
         this.subscriptionService = subscriptionService;
+        this.objectMapper = objectMapper;
     }
 
     @Operation(
@@ -74,6 +83,52 @@ public class SubscriptionController {
         return ResponseEntity.ok(subscriptions);
     }
 
+    @Operation(
+            summary = "Get subscriptions with keyset pagination",
+            description = "Retrieve subscriptions ordered by id, one page at a time, without a total count. " +
+                    "Pass the returned nextCursor as 'after' to get the next page."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Subscriptions retrieved successfully",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = CursorPageResponseDTO.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid cursor or page size",
+                    content = @Content(mediaType = "application/json")),
+            @ApiResponse(responseCode = "500", description = "Internal server error",
+                    content = @Content(mediaType = "application/json"))
+    })
+    @GetMapping("/scroll")
+    public ResponseEntity<CursorPageResponseDTO<SubscriptionResponseDTO>> scrollSubscriptions(
+            @Parameter(description = "Cursor returned by the previous page")
+            @RequestParam(required = false) String after,
+
+            @Parameter(description = "Page size", example = "10")
+            @RequestParam(defaultValue = "10") @Min(1) @Max(100) int size
+    ) {
+        CursorPageResponseDTO<SubscriptionResponseDTO> subscriptions = subscriptionService.getSubscriptionsAfter(after, size);
+        return ResponseEntity.ok(subscriptions);
+    }
+
+    @Operation(
+            summary = "Export all subscriptions as NDJSON",
+            description = "Stream every subscription as newline-delimited JSON, ordered by id. " +
+                    "Set gzip=true to receive the stream gzip-encoded."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Export streamed successfully",
+                    content = @Content(mediaType = "application/x-ndjson")),
+            @ApiResponse(responseCode = "500", description = "Internal server error",
+                    content = @Content(mediaType = "application/json"))
+    })
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportSubscriptions(
+            @Parameter(description = "Gzip-encode the response", example = "false")
+            @RequestParam(defaultValue = "false") boolean gzip
+    ) {
+        return NdjsonWriter.attachment("subscriptions.ndjson", gzip, objectMapper,
+                writer -> subscriptionService.exportSubscriptions(writer::write));
+    }
+
     @Operation(
             summary = "Get subscription by ID",
             description = "Retrieve a specific subscription by its unique identifier"
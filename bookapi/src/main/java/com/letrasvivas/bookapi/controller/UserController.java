@@ -1,9 +1,23 @@
 package com.letrasvivas.bookapi.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.letrasvivas.bookapi.dto.request.CreateUserRequestDTO;
 import com.letrasvivas.bookapi.dto.request.UpdateUserRequestDTO;
+import com.letrasvivas.bookapi.dto.request.UserActivationRequestDTO;
+import com.letrasvivas.bookapi.dto.request.UserPurgeRequestDTO;
+import com.letrasvivas.bookapi.dto.response.ActiveSubscriberDTO;
+import com.letrasvivas.bookapi.dto.response.CursorPageResponseDTO;
+import com.letrasvivas.bookapi.dto.response.ImportReportDTO;
+import com.letrasvivas.bookapi.dto.response.UserAnalyticsDTO;
+import com.letrasvivas.bookapi.dto.response.UserPurgeReportDTO;
 import com.letrasvivas.bookapi.dto.response.UserResponseDTO;
+import com.letrasvivas.bookapi.service.UserActivationService;
+import com.letrasvivas.bookapi.service.UserImportService;
+import com.letrasvivas.bookapi.service.UserPurgeService;
 import com.letrasvivas.bookapi.service.UserService;
+import com.letrasvivas.bookapi.util.ImportRecordReader;
+import com.letrasvivas.bookapi.util.NdjsonWriter;
+import com.letrasvivas.bookapi.util.ResourceVersion;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -20,10 +34,17 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -31,14 +52,25 @@ import java.util.Map;
 @RestController
 @RequestMapping("/api/v1/users")
 @Tag(name = "User Management", description = "APIs for managing users in the system")
+@Validated
 @CrossOrigin(origins = "*", maxAge = 3600)
 public class UserController {
 
     private final UserService userService;
+    private final UserImportService userImportService;
+    private final UserActivationService userActivationService;
+    private final UserPurgeService userPurgeService;
+    private final ObjectMapper objectMapper;
 
     @Autowired
-    public UserController(UserService userService) {
+    public UserController(UserService userService, UserImportService userImportService,
+                          UserActivationService userActivationService, UserPurgeService userPurgeService,
+                          ObjectMapper objectMapper) {
         this.userService = userService;
+        this.userImportService = userImportService;
+        this.userActivationService = userActivationService;
+        this.userPurgeService = userPurgeService;
+        this.objectMapper = objectMapper;
     }
 
     @Operation(
@@ -49,6 +81,7 @@ public class UserController {
             @ApiResponse(responseCode = "200", description = "Users retrieved successfully",
                     content = @Content(mediaType = "application/json",
                             schema = @Schema(implementation = Page.class))),
+            @ApiResponse(responseCode = "304", description = "No user changed since the client's copy"),
             @ApiResponse(responseCode = "400", description = "Invalid pagination parameters",
                     content = @Content(mediaType = "application/json")),
             @ApiResponse(responseCode = "500", description = "Internal server error",
@@ -64,21 +97,75 @@ public class UserController {
 
             @Parameter(description = "Sort by field(s). Use format: field,direction",
                     example = "firstName,asc")
-            @RequestParam(defaultValue = "id,asc") String[] sort
+            @RequestParam(defaultValue = "id,asc") String[] sort,
+
+            WebRequest request
     ) {
+        ResourceVersion version = userService.getUsersVersion();
+        if (request.checkNotModified(version.getETag(), version.getLastModified())) {
+            return null;
+        }
         Pageable pageable = createPageable(page, size, sort);
         Page<UserResponseDTO> users = userService.getAllUsers(pageable);
         return ResponseEntity.ok(users);
     }
 
+    @Operation(
+            summary = "Get users with keyset pagination",
+            description = "Retrieve users ordered by id, one page at a time, without a total count. " +
+                    "Pass the returned nextCursor as 'after' to get the next page."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Users retrieved successfully",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = CursorPageResponseDTO.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid cursor or page size",
+                    content = @Content(mediaType = "application/json")),
+            @ApiResponse(responseCode = "500", description = "Internal server error",
+                    content = @Content(mediaType = "application/json"))
+    })
+    @GetMapping("/scroll")
+    public ResponseEntity<CursorPageResponseDTO<UserResponseDTO>> scrollUsers(
+            @Parameter(description = "Cursor returned by the previous page")
+            @RequestParam(required = false) String after,
+
+            @Parameter(description = "Page size", example = "10")
+            @RequestParam(defaultValue = "10") @Min(1) @Max(100) int size
+    ) {
+        CursorPageResponseDTO<UserResponseDTO> users = userService.getUsersAfter(after, size);
+        return ResponseEntity.ok(users);
+    }
+
+    @Operation(
+            summary = "Export all users as NDJSON",
+            description = "Stream every user as newline-delimited JSON, ordered by id. " +
+                    "Set gzip=true to receive the stream gzip-encoded."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Export streamed successfully",
+                    content = @Content(mediaType = "application/x-ndjson")),
+            @ApiResponse(responseCode = "500", description = "Internal server error",
+                    content = @Content(mediaType = "application/json"))
+    })
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportUsers(
+            @Parameter(description = "Gzip-encode the response", example = "false")
+            @RequestParam(defaultValue = "false") boolean gzip
+    ) {
+        return NdjsonWriter.attachment("users.ndjson", gzip, objectMapper,
+                writer -> userService.exportUsers(writer::write));
+    }
+
     @Operation(
             summary = "Get user by ID",
-            description = "Retrieve a specific user by their unique identifier"
+            description = "Retrieve a specific user by their unique identifier. Supports If-None-Match " +
+                    "and If-Modified-Since conditional requests."
     )
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "User found successfully",
                     content = @Content(mediaType = "application/json",
                             schema = @Schema(implementation = UserResponseDTO.class))),
+            @ApiResponse(responseCode = "304", description = "User unchanged since the client's copy"),
             @ApiResponse(responseCode = "404", description = "User not found",
                     content = @Content(mediaType = "application/json")),
             @ApiResponse(responseCode = "500", description = "Internal server error",
@@ -87,8 +174,14 @@ public class UserController {
     @GetMapping("/{id}")
     public ResponseEntity<UserResponseDTO> getUserById(
             @Parameter(description = "User ID", required = true, example = "1")
-            @PathVariable Long id
+            @PathVariable Long id,
+
+            WebRequest request
     ) {
+        ResourceVersion version = userService.getUserVersion(id);
+        if (request.checkNotModified(version.getETag(), version.getLastModified())) {
+            return null;
+        }
         UserResponseDTO user = userService.getUserById(id);
         return ResponseEntity.ok(user);
     }
@@ -117,6 +210,98 @@ public class UserController {
         return ResponseEntity.status(HttpStatus.CREATED).body(createdUser);
     }
 
+    @Operation(
+            summary = "Import users in bulk",
+            description = "Stream a large feed of users (NDJSON, or CSV with a header row naming the fields). " +
+                    "Rows are committed in chunks; the report counts the outcomes and lists the rows that " +
+                    "were not imported (invalid, duplicate email, or in a chunk that failed)."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Import finished",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ImportReportDTO.class))),
+            @ApiResponse(responseCode = "500", description = "Internal server error",
+                    content = @Content(mediaType = "application/json"))
+    })
+    @PostMapping(value = "/import", consumes = {MediaType.APPLICATION_NDJSON_VALUE, "text/csv"})
+    public ResponseEntity<ImportReportDTO> importUsers(
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+            InputStream body) throws IOException {
+        ImportReportDTO report = userImportService.importUsers(body, ImportRecordReader.Format.fromContentType(contentType));
+        return ResponseEntity.ok(report);
+    }
+
+    @Operation(
+            summary = "Deactivate users in bulk",
+            description = "Deactivate the users selected either by an id list or by filters (name, email, " +
+                    "age range, as in the advanced search) without loading them. Returns how many users " +
+                    "were active and are now deactivated."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Users deactivated",
+                    content = @Content(mediaType = "application/json",
+                            examples = @ExampleObject(value = "{\"affectedUsers\": 1250}"))),
+            @ApiResponse(responseCode = "400", description = "No selection, or both ids and filters given",
+                    content = @Content(mediaType = "application/json")),
+            @ApiResponse(responseCode = "500", description = "Internal server error",
+                    content = @Content(mediaType = "application/json"))
+    })
+    @PostMapping("/bulk/deactivate")
+    public ResponseEntity<Map<String, Long>> deactivateUsers(
+            @Parameter(description = "Users to deactivate", required = true)
+            @Valid @RequestBody UserActivationRequestDTO request
+    ) {
+        long affected = userActivationService.setActive(request, false);
+        return ResponseEntity.ok(Map.of("affectedUsers", affected));
+    }
+
+    @Operation(
+            summary = "Reactivate users in bulk",
+            description = "Reactivate the users selected either by an id list or by filters (name, email, " +
+                    "age range, as in the advanced search) without loading them. Returns how many users " +
+                    "were inactive and are now active again."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Users reactivated",
+                    content = @Content(mediaType = "application/json",
+                            examples = @ExampleObject(value = "{\"affectedUsers\": 1250}"))),
+            @ApiResponse(responseCode = "400", description = "No selection, or both ids and filters given",
+                    content = @Content(mediaType = "application/json")),
+            @ApiResponse(responseCode = "500", description = "Internal server error",
+                    content = @Content(mediaType = "application/json"))
+    })
+    @PostMapping("/bulk/reactivate")
+    public ResponseEntity<Map<String, Long>> reactivateUsers(
+            @Parameter(description = "Users to reactivate", required = true)
+            @Valid @RequestBody UserActivationRequestDTO request
+    ) {
+        long affected = userActivationService.setActive(request, true);
+        return ResponseEntity.ok(Map.of("affectedUsers", affected));
+    }
+
+    @Operation(
+            summary = "Permanently delete users in bulk",
+            description = "Permanently remove the given users and all their subscriptions. Rows are deleted " +
+                    "with set-based statements, in chunks that each commit on their own, without loading " +
+                    "the users or their subscription history. This action cannot be undone."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Users permanently deleted",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = UserPurgeReportDTO.class))),
+            @ApiResponse(responseCode = "400", description = "No ids, or too many ids given",
+                    content = @Content(mediaType = "application/json")),
+            @ApiResponse(responseCode = "500", description = "Internal server error",
+                    content = @Content(mediaType = "application/json"))
+    })
+    @PostMapping("/bulk/purge")
+    public ResponseEntity<UserPurgeReportDTO> purgeUsers(
+            @Parameter(description = "Users to delete permanently", required = true)
+            @Valid @RequestBody UserPurgeRequestDTO request
+    ) {
+        return ResponseEntity.ok(userPurgeService.purgeUsers(request.getIds()));
+    }
+
     @Operation(
             summary = "Update an existing user",
             description = "Update user information. Only provided fields will be updated."
@@ -257,17 +442,28 @@ public class UserController {
 
     @Operation(
             summary = "Get users with active subscriptions",
-            description = "Retrieve all users who currently have at least one active subscription"
+            description = "Retrieve active users who currently have at least one active subscription, " +
+                    "ordered by id, with the plan names of those subscriptions. Keyset-paginated: pass " +
+                    "the returned nextCursor as 'after' to get the next page."
     )
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Users with active subscriptions retrieved",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = CursorPageResponseDTO.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid cursor or page size",
                     content = @Content(mediaType = "application/json")),
             @ApiResponse(responseCode = "500", description = "Internal server error",
                     content = @Content(mediaType = "application/json"))
     })
     @GetMapping("/with-subscriptions")
-    public ResponseEntity<List<UserResponseDTO>> getUsersWithActiveSubscriptions() {
-        List<UserResponseDTO> users = userService.getUsersWithActiveSubscriptions();
+    public ResponseEntity<CursorPageResponseDTO<ActiveSubscriberDTO>> getUsersWithActiveSubscriptions(
+            @Parameter(description = "Cursor returned by the previous page")
+            @RequestParam(required = false) String after,
+
+            @Parameter(description = "Page size", example = "50")
+            @RequestParam(defaultValue = "50") @Min(1) @Max(500) int size
+    ) {
+        CursorPageResponseDTO<ActiveSubscriberDTO> users = userService.getActiveSubscribersAfter(after, size);
         return ResponseEntity.ok(users);
     }
 
@@ -382,6 +578,25 @@ public class UserController {
         return ResponseEntity.ok(stats);
     }
 
+    @Operation(
+            summary = "Get user analytics",
+            description = "Get the active/inactive split, users per age range, signups per month and " +
+                    "subscriptions per user (average and percentiles). Computed in one pass over the users " +
+                    "and refreshed shortly after users or subscriptions change; computedAt tells how recent it is."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Analytics retrieved successfully",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = UserAnalyticsDTO.class))),
+            @ApiResponse(responseCode = "500", description = "Internal server error",
+                    content = @Content(mediaType = "application/json"))
+    })
+    @GetMapping("/analytics")
+    public ResponseEntity<UserAnalyticsDTO> getUserAnalytics() {
+        UserAnalyticsDTO analytics = userService.getUserAnalytics();
+        return ResponseEntity.ok(analytics);
+    }
+
     // ========== PRIVATE HELPER METHODS ==========
 
     private Pageable createPageable(int page, int size, String[] sort) {
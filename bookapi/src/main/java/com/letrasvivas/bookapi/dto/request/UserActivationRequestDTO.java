@@ -0,0 +1,90 @@
+package com.letrasvivas.bookapi.dto.request;
+
+import jakarta.validation.constraints.*;
+
+import java.util.List;
+
+/**
+ * Selects the users of a bulk activation change: either an id list, or filters
+ * with the same meaning as the advanced user search. Blank text filters are
+ * rejected, as they would match every user.
+ */
+public class UserActivationRequestDTO {
+
+    @Size(max = 100000, message = "At most 100000 ids can be given")
+    private List<@NotNull Long> ids;
+
+    @Pattern(regexp = "(?s).*\\S.*", message = "First name filter must not be blank")
+    private String firstName;
+
+    @Pattern(regexp = "(?s).*\\S.*", message = "Last name filter must not be blank")
+    private String lastName;
+
+    @Pattern(regexp = "(?s).*\\S.*", message = "Email filter must not be blank")
+    private String email;
+
+    @Min(value = 16, message = "Minimum age must be at least 16")
+    private Integer minAge;
+
+    @Max(value = 120, message = "Maximum age must be less than 120")
+    private Integer maxAge;
+
+    // Default constructor
+    public UserActivationRequestDTO() {}
+
+    /**
+     * Whether any filter (as opposed to ids) was given
+     */
+    public boolean hasFilters() {
+        return firstName != null || lastName != null || email != null || minAge != null || maxAge != null;
+    }
+
+    // Getters and Setters
+    public List<Long> getIds() {
+        return ids;
+    }
+
+    public void setIds(List<Long> ids) {
+        this.ids = ids;
+    }
+
+    public String getFirstName() {
+        return firstName;
+    }
+
+    public void setFirstName(String firstName) {
+        this.firstName = firstName;
+    }
+
+    public String getLastName() {
+        return lastName;
+    }
+
+    public void setLastName(String lastName) {
+        this.lastName = lastName;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public void setEmail(String email) {
+        this.email = email;
+    }
+
+    public Integer getMinAge() {
+        return minAge;
+    }
+
+    public void setMinAge(Integer minAge) {
+        this.minAge = minAge;
+    }
+
+    public Integer getMaxAge() {
+        return maxAge;
+    }
+
+    public void setMaxAge(Integer maxAge) {
+        this.maxAge = maxAge;
+    }
+}
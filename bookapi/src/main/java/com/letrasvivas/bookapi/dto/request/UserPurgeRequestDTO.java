@@ -0,0 +1,32 @@
+package com.letrasvivas.bookapi.dto.request;
+
+import jakarta.validation.constraints.*;
+
+import java.util.List;
+
+/**
+ * Ids of the users to delete permanently, with their subscriptions
+ */
+public class UserPurgeRequestDTO {
+
+    @NotEmpty(message = "At least one id must be given")
+    @Size(max = 100000, message = "At most 100000 ids can be given")
+    private List<@NotNull Long> ids;
+
+    // Default constructor
+    public UserPurgeRequestDTO() {}
+
+    // Constructor
+    public UserPurgeRequestDTO(List<Long> ids) {
+        this.ids = ids;
+    }
+
+    // Getters and Setters
+    public List<Long> getIds() {
+        return ids;
+    }
+
+    public void setIds(List<Long> ids) {
+        this.ids = ids;
+    }
+}
@@ -0,0 +1,69 @@
+package com.letrasvivas.bookapi.dto.response;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Slim view of an active user with at least one active subscription, with the
+ * plan names of those subscriptions
+ */
+public class ActiveSubscriberDTO {
+
+    private Long id;
+    private String firstName;
+    private String lastName;
+    private String email;
+    private List<String> activePlans = new ArrayList<>();
+
+    // Default constructor
+    public ActiveSubscriberDTO() {}
+
+    // Constructor (used by JPQL constructor expressions)
+    public ActiveSubscriberDTO(Long id, String firstName, String lastName, String email) {
+        this.id = id;
+        this.firstName = firstName;
+        this.lastName = lastName;
+        this.email = email;
+    }
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getFirstName() {
+        return firstName;
+    }
+
+    public void setFirstName(String firstName) {
+        this.firstName = firstName;
+    }
+
+    public String getLastName() {
+        return lastName;
+    }
+
+    public void setLastName(String lastName) {
+        this.lastName = lastName;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public void setEmail(String email) {
+        this.email = email;
+    }
+
+    public List<String> getActivePlans() {
+        return activePlans;
+    }
+
+    public void setActivePlans(List<String> activePlans) {
+        this.activePlans = activePlans;
+    }
+}
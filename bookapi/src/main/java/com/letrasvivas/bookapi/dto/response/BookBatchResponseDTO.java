@@ -0,0 +1,39 @@
+package com.letrasvivas.bookapi.dto.response;
+
+import java.util.List;
+
+/**
+ * Books fetched by id in one call, in the order they were requested, plus the
+ * requested ids that matched no book
+ */
+public class BookBatchResponseDTO {
+
+    private List<BookResponseDTO> books;
+    private List<Long> missingIds;
+
+    // Default constructor
+    public BookBatchResponseDTO() {}
+
+    // Constructor
+    public BookBatchResponseDTO(List<BookResponseDTO> books, List<Long> missingIds) {
+        this.books = books;
+        this.missingIds = missingIds;
+    }
+
+    // Getters and Setters
+    public List<BookResponseDTO> getBooks() {
+        return books;
+    }
+
+    public void setBooks(List<BookResponseDTO> books) {
+        this.books = books;
+    }
+
+    public List<Long> getMissingIds() {
+        return missingIds;
+    }
+
+    public void setMissingIds(List<Long> missingIds) {
+        this.missingIds = missingIds;
+    }
+}
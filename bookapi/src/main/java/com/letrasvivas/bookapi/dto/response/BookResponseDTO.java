@@ -1,6 +1,8 @@
 // BookResponseDTO.java
 package com.letrasvivas.bookapi.dto.response;
 
+import com.letrasvivas.bookapi.entity.Book;
+
 import java.time.LocalDateTime;
 
 public class BookResponseDTO {
@@ -44,6 +46,33 @@ public class BookResponseDTO {
         this.isAvailable = isAvailable;
     }
 
+    // Summary constructor for JPQL projections: everything but the description
+    public BookResponseDTO(Long id, String title, String author, Integer publicationYear, String genre,
+                           String isbn, Integer pageCount, Boolean isAvailable,
+                           LocalDateTime createdAt, LocalDateTime updatedAt) {
+        this(id, title, author, publicationYear, isAvailable);
+        this.genre = genre;
+        this.isbn = isbn;
+        this.pageCount = pageCount;
+        this.createdAt = createdAt;
+        this.updatedAt = updatedAt;
+        this.bookAge = Book.bookAge(publicationYear);
+        this.displayTitle = Book.displayTitle(title, publicationYear);
+    }
+
+    // Copy constructor, for handing out cached responses
+    public BookResponseDTO(BookResponseDTO other) {
+        this(other.id, other.title, other.author, other.publicationYear, other.isAvailable);
+        this.genre = other.genre;
+        this.isbn = other.isbn;
+        this.description = other.description;
+        this.pageCount = other.pageCount;
+        this.createdAt = other.createdAt;
+        this.updatedAt = other.updatedAt;
+        this.bookAge = other.bookAge;
+        this.displayTitle = other.displayTitle;
+    }
+
     // Getters and Setters
     public Long getId() {
         return id;
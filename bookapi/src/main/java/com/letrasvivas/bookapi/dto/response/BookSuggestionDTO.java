@@ -0,0 +1,46 @@
+package com.letrasvivas.bookapi.dto.response;
+
+/**
+ * One autocomplete completion: a book title or author, and how many books carry it
+ */
+public class BookSuggestionDTO {
+
+    private String text;
+    private String type;
+    private Long bookCount;
+
+    // Default constructor
+    public BookSuggestionDTO() {}
+
+    // Constructor
+    public BookSuggestionDTO(String text, String type, Long bookCount) {
+        this.text = text;
+        this.type = type;
+        this.bookCount = bookCount;
+    }
+
+    // Getters and Setters
+    public String getText() {
+        return text;
+    }
+
+    public void setText(String text) {
+        this.text = text;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public void setType(String type) {
+        this.type = type;
+    }
+
+    public Long getBookCount() {
+        return bookCount;
+    }
+
+    public void setBookCount(Long bookCount) {
+        this.bookCount = bookCount;
+    }
+}
@@ -0,0 +1,114 @@
+package com.letrasvivas.bookapi.dto.response;
+
+import org.springframework.data.domain.Page;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One page of search results plus, per facet dimension, the number of matches
+ * for each of its values. A dimension's counts ignore that dimension's own
+ * filter, so they show how many results picking another value would give.
+ * Facets are absent when the search could not be answered from the facet index.
+ */
+public class FacetedPageResponseDTO<T> {
+
+    private List<T> content;
+    private int number;
+    private int size;
+    private int numberOfElements;
+    private long totalElements;
+    private int totalPages;
+    private boolean first;
+    private boolean last;
+    private Map<String, Map<String, Long>> facets;
+
+    // Default constructor
+    public FacetedPageResponseDTO() {}
+
+    // Constructor
+    public FacetedPageResponseDTO(Page<T> page, Map<String, Map<String, Long>> facets) {
+        this.content = page.getContent();
+        this.number = page.getNumber();
+        this.size = page.getSize();
+        this.numberOfElements = page.getNumberOfElements();
+        this.totalElements = page.getTotalElements();
+        this.totalPages = page.getTotalPages();
+        this.first = page.isFirst();
+        this.last = page.isLast();
+        this.facets = facets;
+    }
+
+    // Getters and Setters
+    public List<T> getContent() {
+        return content;
+    }
+
+    public void setContent(List<T> content) {
+        this.content = content;
+    }
+
+    public int getNumber() {
+        return number;
+    }
+
+    public void setNumber(int number) {
+        this.number = number;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public void setSize(int size) {
+        this.size = size;
+    }
+
+    public int getNumberOfElements() {
+        return numberOfElements;
+    }
+
+    public void setNumberOfElements(int numberOfElements) {
+        this.numberOfElements = numberOfElements;
+    }
+
+    public long getTotalElements() {
+        return totalElements;
+    }
+
+    public void setTotalElements(long totalElements) {
+        this.totalElements = totalElements;
+    }
+
+    public int getTotalPages() {
+        return totalPages;
+    }
+
+    public void setTotalPages(int totalPages) {
+        this.totalPages = totalPages;
+    }
+
+    public boolean isFirst() {
+        return first;
+    }
+
+    public void setFirst(boolean first) {
+        this.first = first;
+    }
+
+    public boolean isLast() {
+        return last;
+    }
+
+    public void setLast(boolean last) {
+        this.last = last;
+    }
+
+    public Map<String, Map<String, Long>> getFacets() {
+        return facets;
+    }
+
+    public void setFacets(Map<String, Map<String, Long>> facets) {
+        this.facets = facets;
+    }
+}
@@ -0,0 +1,107 @@
+package com.letrasvivas.bookapi.dto.response;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Summary of a bulk import: row totals per outcome, plus the rows that were
+ * not imported (up to a limit, see rejectedRowsTruncated)
+ */
+public class ImportReportDTO {
+
+    private long totalRows;
+    private long imported;
+    private long invalid;
+    private long duplicates;
+    private long failed;
+    private List<ImportRowResultDTO> rejectedRows = new ArrayList<>();
+    private boolean rejectedRowsTruncated;
+
+    private int maxRejectedRows = Integer.MAX_VALUE;
+
+    // Default constructor
+    public ImportReportDTO() {}
+
+    // Constructor
+    public ImportReportDTO(int maxRejectedRows) {
+        this.maxRejectedRows = maxRejectedRows;
+    }
+
+    // ========== ACCUMULATION ==========
+
+    public void addImported(long count) {
+        totalRows += count;
+        imported += count;
+    }
+
+    public void addRejected(ImportRowResultDTO row) {
+        totalRows++;
+        switch (row.getStatus()) {
+            case INVALID -> invalid++;
+            case DUPLICATE -> duplicates++;
+            case FAILED -> failed++;
+        }
+        if (rejectedRows.size() < maxRejectedRows) {
+            rejectedRows.add(row);
+        } else {
+            rejectedRowsTruncated = true;
+        }
+    }
+
+    // Getters and Setters
+    public long getTotalRows() {
+        return totalRows;
+    }
+
+    public void setTotalRows(long totalRows) {
+        this.totalRows = totalRows;
+    }
+
+    public long getImported() {
+        return imported;
+    }
+
+    public void setImported(long imported) {
+        this.imported = imported;
+    }
+
+    public long getInvalid() {
+        return invalid;
+    }
+
+    public void setInvalid(long invalid) {
+        this.invalid = invalid;
+    }
+
+    public long getDuplicates() {
+        return duplicates;
+    }
+
+    public void setDuplicates(long duplicates) {
+        this.duplicates = duplicates;
+    }
+
+    public long getFailed() {
+        return failed;
+    }
+
+    public void setFailed(long failed) {
+        this.failed = failed;
+    }
+
+    public List<ImportRowResultDTO> getRejectedRows() {
+        return rejectedRows;
+    }
+
+    public void setRejectedRows(List<ImportRowResultDTO> rejectedRows) {
+        this.rejectedRows = rejectedRows;
+    }
+
+    public boolean isRejectedRowsTruncated() {
+        return rejectedRowsTruncated;
+    }
+
+    public void setRejectedRowsTruncated(boolean rejectedRowsTruncated) {
+        this.rejectedRowsTruncated = rejectedRowsTruncated;
+    }
+}
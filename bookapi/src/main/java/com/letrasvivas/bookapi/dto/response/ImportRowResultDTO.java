@@ -0,0 +1,62 @@
+package com.letrasvivas.bookapi.dto.response;
+
+/**
+ * Outcome of one import row that was not imported
+ */
+public class ImportRowResultDTO {
+
+    public enum Status {
+        INVALID,
+        DUPLICATE,
+        FAILED
+    }
+
+    private long line;
+    private String key;
+    private Status status;
+    private String message;
+
+    // Default constructor
+    public ImportRowResultDTO() {}
+
+    // Constructor
+    public ImportRowResultDTO(long line, String key, Status status, String message) {
+        this.line = line;
+        this.key = key;
+        this.status = status;
+        this.message = message;
+    }
+
+    // Getters and Setters
+    public long getLine() {
+        return line;
+    }
+
+    public void setLine(long line) {
+        this.line = line;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public void setKey(String key) {
+        this.key = key;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public void setStatus(Status status) {
+        this.status = status;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+}
@@ -0,0 +1,113 @@
+package com.letrasvivas.bookapi.dto.response;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * User analytics: active split, age distribution, signups per month and
+ * subscriptions per user
+ */
+public class UserAnalyticsDTO {
+
+    private long totalUsers;
+    private long activeUsers;
+    private long inactiveUsers;
+    private Double averageAge;
+    private Map<String, Long> usersByAgeRange;
+    private Map<String, Long> signupsByMonth;
+    private Double averageSubscriptions;
+    private Map<String, Integer> subscriptionPercentiles;
+    private LocalDateTime computedAt;
+
+    // Default constructor
+    public UserAnalyticsDTO() {}
+
+    // Constructor
+    public UserAnalyticsDTO(long totalUsers, long activeUsers, long inactiveUsers, Double averageAge,
+                            Map<String, Long> usersByAgeRange, Map<String, Long> signupsByMonth,
+                            Double averageSubscriptions, Map<String, Integer> subscriptionPercentiles,
+                            LocalDateTime computedAt) {
+        this.totalUsers = totalUsers;
+        this.activeUsers = activeUsers;
+        this.inactiveUsers = inactiveUsers;
+        this.averageAge = averageAge;
+        this.usersByAgeRange = usersByAgeRange;
+        this.signupsByMonth = signupsByMonth;
+        this.averageSubscriptions = averageSubscriptions;
+        this.subscriptionPercentiles = subscriptionPercentiles;
+        this.computedAt = computedAt;
+    }
+
+    // Getters and Setters
+    public long getTotalUsers() {
+        return totalUsers;
+    }
+
+    public void setTotalUsers(long totalUsers) {
+        this.totalUsers = totalUsers;
+    }
+
+    public long getActiveUsers() {
+        return activeUsers;
+    }
+
+    public void setActiveUsers(long activeUsers) {
+        this.activeUsers = activeUsers;
+    }
+
+    public long getInactiveUsers() {
+        return inactiveUsers;
+    }
+
+    public void setInactiveUsers(long inactiveUsers) {
+        this.inactiveUsers = inactiveUsers;
+    }
+
+    public Double getAverageAge() {
+        return averageAge;
+    }
+
+    public void setAverageAge(Double averageAge) {
+        this.averageAge = averageAge;
+    }
+
+    public Map<String, Long> getUsersByAgeRange() {
+        return usersByAgeRange;
+    }
+
+    public void setUsersByAgeRange(Map<String, Long> usersByAgeRange) {
+        this.usersByAgeRange = usersByAgeRange;
+    }
+
+    public Map<String, Long> getSignupsByMonth() {
+        return signupsByMonth;
+    }
+
+    public void setSignupsByMonth(Map<String, Long> signupsByMonth) {
+        this.signupsByMonth = signupsByMonth;
+    }
+
+    public Double getAverageSubscriptions() {
+        return averageSubscriptions;
+    }
+
+    public void setAverageSubscriptions(Double averageSubscriptions) {
+        this.averageSubscriptions = averageSubscriptions;
+    }
+
+    public Map<String, Integer> getSubscriptionPercentiles() {
+        return subscriptionPercentiles;
+    }
+
+    public void setSubscriptionPercentiles(Map<String, Integer> subscriptionPercentiles) {
+        this.subscriptionPercentiles = subscriptionPercentiles;
+    }
+
+    public LocalDateTime getComputedAt() {
+        return computedAt;
+    }
+
+    public void setComputedAt(LocalDateTime computedAt) {
+        this.computedAt = computedAt;
+    }
+}
@@ -0,0 +1,49 @@
+package com.letrasvivas.bookapi.dto.response;
+
+import java.util.List;
+
+/**
+ * Outcome of a bulk permanent deletion: users and subscriptions removed, plus the
+ * requested ids that matched no user
+ */
+public class UserPurgeReportDTO {
+
+    private long deletedUsers;
+    private long deletedSubscriptions;
+    private List<Long> missingIds;
+
+    // Default constructor
+    public UserPurgeReportDTO() {}
+
+    // Constructor
+    public UserPurgeReportDTO(long deletedUsers, long deletedSubscriptions, List<Long> missingIds) {
+        this.deletedUsers = deletedUsers;
+        this.deletedSubscriptions = deletedSubscriptions;
+        this.missingIds = missingIds;
+    }
+
+    // Getters and Setters
+    public long getDeletedUsers() {
+        return deletedUsers;
+    }
+
+    public void setDeletedUsers(long deletedUsers) {
+        this.deletedUsers = deletedUsers;
+    }
+
+    public long getDeletedSubscriptions() {
+        return deletedSubscriptions;
+    }
+
+    public void setDeletedSubscriptions(long deletedSubscriptions) {
+        this.deletedSubscriptions = deletedSubscriptions;
+    }
+
+    public List<Long> getMissingIds() {
+        return missingIds;
+    }
+
+    public void setMissingIds(List<Long> missingIds) {
+        this.missingIds = missingIds;
+    }
+}
@@ -0,0 +1,89 @@
+package com.letrasvivas.bookapi.dto.response;
+
+import java.util.Map;
+
+/**
+ * Catalog statistics over the books published in a year range (inclusive)
+ */
+public class YearRangeStatsDTO {
+
+    private int startYear;
+    private int endYear;
+    private long totalBooks;
+    private long availableBooks;
+    private long distinctAuthors;
+    private Double averagePageCount;
+    private Map<String, Long> booksByGenre;
+
+    // Default constructor
+    public YearRangeStatsDTO() {}
+
+    // Constructor
+    public YearRangeStatsDTO(int startYear, int endYear, long totalBooks, long availableBooks,
+                             long distinctAuthors, Double averagePageCount, Map<String, Long> booksByGenre) {
+        this.startYear = startYear;
+        this.endYear = endYear;
+        this.totalBooks = totalBooks;
+        this.availableBooks = availableBooks;
+        this.distinctAuthors = distinctAuthors;
+        this.averagePageCount = averagePageCount;
+        this.booksByGenre = booksByGenre;
+    }
+
+    // Getters and Setters
+    public int getStartYear() {
+        return startYear;
+    }
+
+    public void setStartYear(int startYear) {
+        this.startYear = startYear;
+    }
+
+    public int getEndYear() {
+        return endYear;
+    }
+
+    public void setEndYear(int endYear) {
+        this.endYear = endYear;
+    }
+
+    public long getTotalBooks() {
+        return totalBooks;
+    }
+
+    public void setTotalBooks(long totalBooks) {
+        this.totalBooks = totalBooks;
+    }
+
+    public long getAvailableBooks() {
+        return availableBooks;
+    }
+
+    public void setAvailableBooks(long availableBooks) {
+        this.availableBooks = availableBooks;
+    }
+
+    public long getDistinctAuthors() {
+        return distinctAuthors;
+    }
+
+    public void setDistinctAuthors(long distinctAuthors) {
+        this.distinctAuthors = distinctAuthors;
+    }
+
+    public Double getAveragePageCount() {
+        return averagePageCount;
+    }
+
+    public void setAveragePageCount(Double averagePageCount) {
+        this.averagePageCount = averagePageCount;
+    }
+
+    public Map<String, Long> getBooksByGenre() {
+        return booksByGenre;
+    }
+
+    public void setBooksByGenre(Map<String, Long> booksByGenre) {
+        this.booksByGenre = booksByGenre;
+    }
+}
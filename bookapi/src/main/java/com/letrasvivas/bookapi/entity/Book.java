@@ -9,11 +9,22 @@ import java.time.LocalDateTime;
 import java.time.Year;
 
 @Entity
-@Table(name = "books")
+@Table(name = "books", uniqueConstraints = {
+        @UniqueConstraint(name = Book.ISBN_CONSTRAINT, columnNames = "isbn")
+}, indexes = {
+        @Index(name = "idx_books_title_id", columnList = "title, id"),
+        @Index(name = "idx_books_genre_year", columnList = "genre, publication_year"),
+        @Index(name = "idx_books_publication_year", columnList = "publication_year"),
+        @Index(name = "idx_books_page_count", columnList = "page_count")
+})
 public class Book {
 
+    // Name of the unique constraint on isbn
+    public static final String ISBN_CONSTRAINT = "uk_books_isbn";
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "books_seq")
+    @SequenceGenerator(name = "books_seq", sequenceName = "books_seq", allocationSize = 50)
     private Long id;
 
     @NotBlank(message = "Title is mandatory")
@@ -38,7 +49,7 @@ public class Book {
 
     @Size(max = 20, message = "ISBN cannot exceed 20 characters")
     @Pattern(regexp = "^(97(8|9))?\\d{9}(\\d|X)$", message = "ISBN format is invalid")
-    @Column(unique = true, length = 20)
+    @Column(length = 20)
     private String isbn;
 
     @Size(max = 500, message = "Description cannot exceed 500 characters")
@@ -179,23 +190,14 @@ public class Book {
      * Calculate the age of the book in years
      */
     public Integer getBookAge() {
-        if (publicationYear == null) {
-            return null;
-        }
-        return Year.now().getValue() - publicationYear;
+        return bookAge(publicationYear);
     }
 
     /**
      * Get formatted display title
      */
     public String getDisplayTitle() {
-        if (title == null) {
-            return null;
-        }
-        if (publicationYear != null) {
-            return title + " (" + publicationYear + ")";
-        }
-        return title;
+        return displayTitle(title, publicationYear);
     }
 
     /**
@@ -288,4 +290,27 @@ public class Book {
     public void markAsAvailable() {
         this.isAvailable = true;
     }
-}
\ No newline at end of file
+
+    /**
+     * Age in years of a book published in the given year (shared with projections that skip the entity)
+     */
+    public static Integer bookAge(Integer publicationYear) {
+        if (publicationYear == null) {
+            return null;
+        }
+        return Year.now().getValue() - publicationYear;
+    }
+
+    /**
+     * Display title for the given title and publication year
+     */
+    public static String displayTitle(String title, Integer publicationYear) {
+        if (title == null) {
+            return null;
+        }
+        if (publicationYear != null) {
+            return title + " (" + publicationYear + ")";
+        }
+        return title;
+    }
+}
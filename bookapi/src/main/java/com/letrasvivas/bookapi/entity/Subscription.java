@@ -9,11 +9,17 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "subscriptions")
+@Table(name = "subscriptions", indexes = {
+        @Index(name = "idx_subscriptions_status_end_date", columnList = "status, end_date"),
+        @Index(name = "idx_subscriptions_user_status", columnList = "user_id, status"),
+        @Index(name = "idx_subscriptions_start_date", columnList = "start_date"),
+        @Index(name = "idx_subscriptions_price", columnList = "price")
+})
 public class Subscription {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "subscriptions_seq")
+    @SequenceGenerator(name = "subscriptions_seq", sequenceName = "subscriptions_seq", allocationSize = 50)
     private Long id;
 
     @NotBlank(message = "Plan name is mandatory")
@@ -0,0 +1,85 @@
+package com.letrasvivas.bookapi.event;
+
+import com.letrasvivas.bookapi.entity.Book;
+
+/**
+ * Published by the book service whenever a book is created, updated or deleted.
+ * Carries detached snapshots of the book before and after the change so that
+ * in-memory structures can apply the difference without going back to the database.
+ */
+public class BookChangedEvent {
+
+    public enum ChangeType {
+        CREATED,
+        UPDATED,
+        DELETED
+    }
+
+    private final ChangeType changeType;
+    private final Book previous;
+    private final Book current;
+
+    private BookChangedEvent(ChangeType changeType, Book previous, Book current) {
+        this.changeType = changeType;
+        this.previous = previous;
+        this.current = current;
+    }
+
+    public static BookChangedEvent created(Book current) {
+        return new BookChangedEvent(ChangeType.CREATED, null, snapshotOf(current));
+    }
+
+    /**
+     * The previous state must already be a snapshot, taken before the entity was modified.
+     */
+    public static BookChangedEvent updated(Book previousSnapshot, Book current) {
+        return new BookChangedEvent(ChangeType.UPDATED, previousSnapshot, snapshotOf(current));
+    }
+
+    public static BookChangedEvent deleted(Book previous) {
+        return new BookChangedEvent(ChangeType.DELETED, snapshotOf(previous), null);
+    }
+
+    /**
+     * Create a detached copy of a book, safe to keep after the persistence context is gone
+     */
+    public static Book snapshotOf(Book book) {
+        Book snapshot = new Book(book.getTitle(), book.getAuthor(), book.getPublicationYear(),
+                book.getGenre(), book.getIsbn(), book.getDescription(), book.getPageCount());
+        snapshot.setId(book.getId());
+        snapshot.setIsAvailable(book.getIsAvailable());
+        snapshot.setCreatedAt(book.getCreatedAt());
+        snapshot.setUpdatedAt(book.getUpdatedAt());
+        return snapshot;
+    }
+
+    public ChangeType getChangeType() {
+        return changeType;
+    }
+
+    public Long getBookId() {
+        return current != null ? current.getId() : previous.getId();
+    }
+
+    /**
+     * State before the change, null for created books
+     */
+    public Book getPrevious() {
+        return previous;
+    }
+
+    /**
+     * State after the change, null for deleted books
+     */
+    public Book getCurrent() {
+        return current;
+    }
+
+    @Override
+    public String toString() {
+        return "BookChangedEvent{" +
+                "changeType=" + changeType +
+                ", bookId=" + getBookId() +
+                '}';
+    }
+}
@@ -0,0 +1,84 @@
+package com.letrasvivas.bookapi.event;
+
+import com.letrasvivas.bookapi.entity.User;
+
+/**
+ * Published by the user service whenever a user is created, updated or deleted.
+ * Carries detached snapshots (without subscriptions) of the user before and after the change.
+ */
+public class UserChangedEvent {
+
+    public enum ChangeType {
+        CREATED,
+        UPDATED,
+        DELETED
+    }
+
+    private final ChangeType changeType;
+    private final User previous;
+    private final User current;
+
+    private UserChangedEvent(ChangeType changeType, User previous, User current) {
+        this.changeType = changeType;
+        this.previous = previous;
+        this.current = current;
+    }
+
+    public static UserChangedEvent created(User current) {
+        return new UserChangedEvent(ChangeType.CREATED, null, snapshotOf(current));
+    }
+
+    /**
+     * The previous state must already be a snapshot, taken before the entity was modified.
+     */
+    public static UserChangedEvent updated(User previousSnapshot, User current) {
+        return new UserChangedEvent(ChangeType.UPDATED, previousSnapshot, snapshotOf(current));
+    }
+
+    public static UserChangedEvent deleted(User previous) {
+        return new UserChangedEvent(ChangeType.DELETED, snapshotOf(previous), null);
+    }
+
+    /**
+     * Create a detached copy of a user's own columns, safe to keep after the persistence context is gone
+     */
+    public static User snapshotOf(User user) {
+        User snapshot = new User(user.getFirstName(), user.getLastName(), user.getEmail(),
+                user.getPhoneNumber(), user.getAge());
+        snapshot.setId(user.getId());
+        snapshot.setIsActive(user.getIsActive());
+        snapshot.setCreatedAt(user.getCreatedAt());
+        snapshot.setUpdatedAt(user.getUpdatedAt());
+        return snapshot;
+    }
+
+    public ChangeType getChangeType() {
+        return changeType;
+    }
+
+    public Long getUserId() {
+        return current != null ? current.getId() : previous.getId();
+    }
+
+    /**
+     * State before the change, null for created users
+     */
+    public User getPrevious() {
+        return previous;
+    }
+
+    /**
+     * State after the change, null for deleted users
+     */
+    public User getCurrent() {
+        return current;
+    }
+
+    @Override
+    public String toString() {
+        return "UserChangedEvent{" +
+                "changeType=" + changeType +
+                ", userId=" + getUserId() +
+                '}';
+    }
+}
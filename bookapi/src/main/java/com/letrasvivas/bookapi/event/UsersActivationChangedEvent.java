@@ -0,0 +1,39 @@
+package com.letrasvivas.bookapi.event;
+
+/**
+ * Published by bulk user updates, which change the active flag of many users with one
+ * statement and so bypass {@link UserChangedEvent} and the Hibernate entity listeners.
+ * Carries the new flag and how many users actually changed to it.
+ */
+public class UsersActivationChangedEvent {
+
+    private final boolean active;
+    private final long count;
+
+    public UsersActivationChangedEvent(boolean active, long count) {
+        this.active = active;
+        this.count = count;
+    }
+
+    /**
+     * Flag the users were set to
+     */
+    public boolean isActive() {
+        return active;
+    }
+
+    /**
+     * Number of users whose flag changed
+     */
+    public long getCount() {
+        return count;
+    }
+
+    @Override
+    public String toString() {
+        return "UsersActivationChangedEvent{" +
+                "active=" + active +
+                ", count=" + count +
+                '}';
+    }
+}
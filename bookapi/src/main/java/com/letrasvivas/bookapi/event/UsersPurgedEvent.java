@@ -0,0 +1,42 @@
+package com.letrasvivas.bookapi.event;
+
+import com.letrasvivas.bookapi.entity.User;
+
+import java.util.List;
+
+/**
+ * Published by bulk permanent deletion, which removes users and their subscriptions
+ * with set-based statements and so bypasses {@link UserChangedEvent} and the
+ * Hibernate entity listeners. Carries partial snapshots of the deleted users: only
+ * id, email and active flag are set.
+ */
+public class UsersPurgedEvent {
+
+    private final List<User> users;
+
+    public UsersPurgedEvent(List<User> users) {
+        this.users = List.copyOf(users);
+    }
+
+    /**
+     * Create the partial snapshot of a deleted user
+     */
+    public static User snapshotOf(Long id, String email, Boolean isActive) {
+        User snapshot = new User();
+        snapshot.setId(id);
+        snapshot.setEmail(email);
+        snapshot.setIsActive(isActive);
+        return snapshot;
+    }
+
+    public List<User> getUsers() {
+        return users;
+    }
+
+    @Override
+    public String toString() {
+        return "UsersPurgedEvent{" +
+                "users=" + users.size() +
+                '}';
+    }
+}
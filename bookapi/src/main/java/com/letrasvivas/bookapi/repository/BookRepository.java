@@ -1,18 +1,28 @@
 package com.letrasvivas.bookapi.repository;
 
+import com.letrasvivas.bookapi.dto.response.BookResponseDTO;
 import com.letrasvivas.bookapi.entity.Book;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
-public interface BookRepository extends JpaRepository<Book, Long> {
+public interface BookRepository extends JpaRepository<Book, Long>, JpaSpecificationExecutor<Book>,
+        BookRepositoryCustom {
 
     // ========== BASIC SEARCH METHODS ==========
 
@@ -36,11 +46,29 @@ public interface BookRepository extends JpaRepository<Book, Long> {
      */
     Optional<Book> findByIsbn(String isbn);
 
+    /**
+     * Last update time of a book (for ETags), without loading it
+     */
+    @Query("SELECT b.updatedAt FROM Book b WHERE b.id = :id")
+    Optional<LocalDateTime> findUpdatedAtById(@Param("id") Long id);
+
     /**
      * Check if ISBN exists
      */
     boolean existsByIsbn(String isbn);
 
+    /**
+     * Of the given ISBNs, return those already in the catalog
+     */
+    @Query("SELECT b.isbn FROM Book b WHERE b.isbn IN :isbns")
+    List<String> findExistingIsbns(@Param("isbns") Collection<String> isbns);
+
+    /**
+     * All ISBNs in the catalog (for rebuilding the ISBN filter)
+     */
+    @Query("SELECT b.isbn FROM Book b WHERE b.isbn IS NOT NULL")
+    List<String> findAllIsbns();
+
     // ========== AVAILABILITY METHODS ==========
 
     /**
@@ -124,27 +152,122 @@ public interface BookRepository extends JpaRepository<Book, Long> {
     // ========== ADVANCED SEARCH WITH CRITERIA ==========
 
     /**
-     * Advanced search with multiple optional criteria
+     * Advanced search with multiple optional criteria; only the supplied filters reach the query
      */
-    @Query("SELECT b FROM Book b WHERE " +
-            "(:title IS NULL OR LOWER(b.title) LIKE LOWER(CONCAT('%', :title, '%'))) AND " +
-            "(:author IS NULL OR LOWER(b.author) LIKE LOWER(CONCAT('%', :author, '%'))) AND " +
-            "(:genre IS NULL OR b.genre = :genre) AND " +
-            "(:minYear IS NULL OR b.publicationYear >= :minYear) AND " +
-            "(:maxYear IS NULL OR b.publicationYear <= :maxYear) AND " +
-            "(:minPages IS NULL OR b.pageCount >= :minPages) AND " +
-            "(:maxPages IS NULL OR b.pageCount <= :maxPages) AND " +
-            "(:isAvailable IS NULL OR b.isAvailable = :isAvailable)")
-    Page<Book> findBooksWithCriteria(
-            @Param("title") String title,
-            @Param("author") String author,
-            @Param("genre") String genre,
-            @Param("minYear") Integer minYear,
-            @Param("maxYear") Integer maxYear,
-            @Param("minPages") Integer minPages,
-            @Param("maxPages") Integer maxPages,
-            @Param("isAvailable") Boolean isAvailable,
-            Pageable pageable);
+    default Page<Book> findBooksWithCriteria(String title, String author, String genre,
+                                             Integer minYear, Integer maxYear,
+                                             Integer minPages, Integer maxPages,
+                                             Boolean isAvailable, Pageable pageable) {
+        return findAll(BookSpecifications.withCriteria(title, author, genre, minYear, maxYear,
+                minPages, maxPages, isAvailable), pageable);
+    }
+
+    // ========== SUMMARY PROJECTIONS ==========
+    // Read straight into response DTOs: no managed entities, no dirty-checking
+    // snapshots and no description column. Descriptions are loaded separately on request.
+
+    String SUMMARY = "SELECT new com.letrasvivas.bookapi.dto.response.BookResponseDTO(" +
+            "b.id, b.title, b.author, b.publicationYear, b.genre, b.isbn, b.pageCount, b.isAvailable, " +
+            "b.createdAt, b.updatedAt) FROM Book b ";
+
+    /**
+     * Page of book summaries
+     */
+    @Query(value = SUMMARY, countQuery = "SELECT COUNT(b) FROM Book b")
+    Page<BookResponseDTO> findAllSummaries(Pageable pageable);
+
+    /**
+     * Summaries of the books with the given ids (in no particular order)
+     */
+    @Query(SUMMARY + "WHERE b.id IN :ids")
+    List<BookResponseDTO> findSummariesByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Summaries of available books
+     */
+    @Query(SUMMARY + "WHERE b.isAvailable = true")
+    List<BookResponseDTO> findAvailableSummaries();
+
+    /**
+     * Summaries of books by genre (exact match)
+     */
+    @Query(SUMMARY + "WHERE b.genre = :genre")
+    List<BookResponseDTO> findSummariesByGenre(@Param("genre") String genre);
+
+    /**
+     * Summaries of books by publication year range
+     */
+    @Query(SUMMARY + "WHERE b.publicationYear BETWEEN :startYear AND :endYear")
+    List<BookResponseDTO> findSummariesByPublicationYearBetween(@Param("startYear") Integer startYear,
+                                                                @Param("endYear") Integer endYear);
+
+    /**
+     * Summaries of classic books (published before 1950)
+     */
+    @Query(SUMMARY + "WHERE b.publicationYear < 1950 ORDER BY b.publicationYear")
+    List<BookResponseDTO> findClassicSummaries();
+
+    /**
+     * Summaries of recent books (published in 2020 or later)
+     */
+    @Query(SUMMARY + "WHERE b.publicationYear >= 2020 ORDER BY b.publicationYear DESC")
+    List<BookResponseDTO> findRecentSummaries();
+
+    /**
+     * Summaries of books by title containing search term (case insensitive)
+     */
+    @Query(SUMMARY + "WHERE LOWER(b.title) LIKE LOWER(CONCAT('%', :title, '%'))")
+    List<BookResponseDTO> findSummariesByTitleContaining(@Param("title") String title);
+
+    /**
+     * Summaries of books by author containing search term (case insensitive)
+     */
+    @Query(SUMMARY + "WHERE LOWER(b.author) LIKE LOWER(CONCAT('%', :author, '%'))")
+    List<BookResponseDTO> findSummariesByAuthorContaining(@Param("author") String author);
+
+    /**
+     * Summaries of books by title OR author containing search term (case insensitive)
+     */
+    @Query(SUMMARY + "WHERE " +
+            "LOWER(b.title) LIKE LOWER(CONCAT('%', :searchTerm, '%')) OR " +
+            "LOWER(b.author) LIKE LOWER(CONCAT('%', :searchTerm, '%'))")
+    List<BookResponseDTO> findSummariesByTitleOrAuthorContaining(@Param("searchTerm") String searchTerm);
+
+    /**
+     * Id and description of the given books that have one
+     */
+    @Query("SELECT b.id, b.description FROM Book b WHERE b.id IN :ids AND b.description IS NOT NULL")
+    List<Object[]> findDescriptionsByIdIn(@Param("ids") Collection<Long> ids);
+
+    // ========== KEYSET PAGINATION ==========
+
+    /**
+     * First keyset page of books ordered by title, then id (no count query)
+     */
+    Slice<Book> findAllByOrderByTitleAscIdAsc(Pageable pageable);
+
+    /**
+     * Keyset page of books ordered by title, then id, starting after the given position
+     */
+    @Query("SELECT b FROM Book b WHERE b.title > :title OR (b.title = :title AND b.id > :id) " +
+            "ORDER BY b.title ASC, b.id ASC")
+    Slice<Book> findByTitleAndIdAfter(@Param("title") String title, @Param("id") Long id, Pageable pageable);
+
+    /**
+     * Keyset page of books ordered by id, starting after the given id
+     */
+    Slice<Book> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+
+    /**
+     * Every book ordered by id, read incrementally from the database cursor (for exports).
+     * Must be consumed inside a transaction and closed afterwards.
+     */
+    @Query("SELECT b FROM Book b ORDER BY b.id")
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<Book> streamAllByOrderById();
 
     // ========== SIMILARITY SEARCH ==========
 
@@ -200,6 +323,81 @@ public interface BookRepository extends JpaRepository<Book, Long> {
             "GROUP BY b.genre ORDER BY AVG(b.pageCount) DESC")
     List<Object[]> findAveragePageCountByGenre();
 
+    /**
+     * Get total page count and number of books with a page count by genre
+     */
+    @Query("SELECT b.genre, SUM(b.pageCount), COUNT(b.pageCount) FROM Book b " +
+            "WHERE b.genre IS NOT NULL AND b.pageCount IS NOT NULL GROUP BY b.genre")
+    List<Object[]> findPageCountTotalsByGenre();
+
+    /**
+     * Get books count, available count, distinct authors and average page count in a year range
+     */
+    @Query("SELECT COUNT(b), SUM(CASE WHEN b.isAvailable = true THEN 1 ELSE 0 END), " +
+            "COUNT(DISTINCT b.author), AVG(b.pageCount) FROM Book b " +
+            "WHERE b.publicationYear BETWEEN :startYear AND :endYear")
+    List<Object[]> findStatsByPublicationYearBetween(@Param("startYear") Integer startYear,
+                                                     @Param("endYear") Integer endYear);
+
+    /**
+     * Get books count by genre in a year range
+     */
+    @Query("SELECT b.genre, COUNT(b) FROM Book b WHERE b.genre IS NOT NULL " +
+            "AND b.publicationYear BETWEEN :startYear AND :endYear " +
+            "GROUP BY b.genre ORDER BY COUNT(b) DESC")
+    List<Object[]> findGenreCountsByPublicationYearBetween(@Param("startYear") Integer startYear,
+                                                           @Param("endYear") Integer endYear);
+
+    /**
+     * Analytics columns of every book (publication year, page count, genre, author,
+     * availability), read incrementally for the columnar snapshot. Must be consumed
+     * inside a transaction and closed afterwards.
+     */
+    @Query("SELECT b.publicationYear, b.pageCount, b.genre, b.author, b.isAvailable FROM Book b")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    Stream<Object[]> streamAnalyticsColumns();
+
+    /**
+     * Title and author of every book, read incrementally for the suggest index.
+     * Must be consumed inside a transaction and closed afterwards.
+     */
+    @Query("SELECT b.title, b.author FROM Book b")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    Stream<Object[]> streamTitlesAndAuthors();
+
+    /**
+     * Id, title and author of every book, read incrementally for the search and fuzzy indexes.
+     * Must be consumed inside a transaction and closed afterwards.
+     */
+    @Query("SELECT b.id, b.title, b.author FROM Book b")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    Stream<Object[]> streamSearchText();
+
+    /**
+     * Filter and sort columns of every book (id, title, author, genre, publication year,
+     * page count, availability), read incrementally for the facet index. Must be
+     * consumed inside a transaction and closed afterwards.
+     */
+    @Query("SELECT b.id, b.title, b.author, b.genre, b.publicationYear, b.pageCount, b.isAvailable FROM Book b")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    Stream<Object[]> streamFacetColumns();
+
+    /**
+     * Titles starting with the prefix (case insensitive) with their number of books,
+     * most common first
+     */
+    @Query("SELECT b.title, COUNT(b) FROM Book b WHERE LOWER(b.title) LIKE LOWER(CONCAT(:prefix, '%')) " +
+            "GROUP BY b.title ORDER BY COUNT(b) DESC, b.title")
+    List<Object[]> findTitleCompletions(@Param("prefix") String prefix, Pageable pageable);
+
+    /**
+     * Authors starting with the prefix (case insensitive) with their number of books,
+     * most prolific first
+     */
+    @Query("SELECT b.author, COUNT(b) FROM Book b WHERE LOWER(b.author) LIKE LOWER(CONCAT(:prefix, '%')) " +
+            "GROUP BY b.author ORDER BY COUNT(b) DESC, b.author")
+    List<Object[]> findAuthorCompletions(@Param("prefix") String prefix, Pageable pageable);
+
     // ========== TOP/RANKING QUERIES ==========
 
     /**
@@ -0,0 +1,21 @@
+package com.letrasvivas.bookapi.repository;
+
+import com.letrasvivas.bookapi.dto.response.BookResponseDTO;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+/**
+ * Book queries built with the Criteria API, mixed into {@link BookRepository}
+ */
+public interface BookRepositoryCustom {
+
+    /**
+     * Advanced search with multiple optional criteria, as summaries. Only the supplied
+     * filters reach the query; the count query runs only when the page does not
+     * already reveal the total.
+     */
+    Page<BookResponseDTO> findSummariesWithCriteria(String title, String author, String genre,
+                                                    Integer minYear, Integer maxYear,
+                                                    Integer minPages, Integer maxPages,
+                                                    Boolean isAvailable, Pageable pageable);
+}
@@ -0,0 +1,69 @@
+package com.letrasvivas.bookapi.repository;
+
+import com.letrasvivas.bookapi.dto.response.BookResponseDTO;
+import com.letrasvivas.bookapi.entity.Book;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.PageableExecutionUtils;
+
+import java.util.List;
+
+class BookRepositoryCustomImpl implements BookRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Page<BookResponseDTO> findSummariesWithCriteria(String title, String author, String genre,
+                                                           Integer minYear, Integer maxYear,
+                                                           Integer minPages, Integer maxPages,
+                                                           Boolean isAvailable, Pageable pageable) {
+        Specification<Book> criteria = BookSpecifications.withCriteria(title, author, genre,
+                minYear, maxYear, minPages, maxPages, isAvailable);
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+
+        // Same columns as BookRepository.SUMMARY
+        CriteriaQuery<BookResponseDTO> query = cb.createQuery(BookResponseDTO.class);
+        Root<Book> root = query.from(Book.class);
+        query.select(cb.construct(BookResponseDTO.class,
+                root.get("id"), root.get("title"), root.get("author"), root.get("publicationYear"),
+                root.get("genre"), root.get("isbn"), root.get("pageCount"), root.get("isAvailable"),
+                root.get("createdAt"), root.get("updatedAt")));
+        where(query, criteria.toPredicate(root, query, cb));
+        if (pageable.getSort().isSorted()) {
+            query.orderBy(QueryUtils.toOrders(pageable.getSort(), root, cb));
+        }
+
+        TypedQuery<BookResponseDTO> typedQuery = entityManager.createQuery(query);
+        if (pageable.isPaged()) {
+            typedQuery.setFirstResult((int) pageable.getOffset());
+            typedQuery.setMaxResults(pageable.getPageSize());
+        }
+        List<BookResponseDTO> content = typedQuery.getResultList();
+        return PageableExecutionUtils.getPage(content, pageable, () -> count(criteria));
+    }
+
+    private long count(Specification<Book> criteria) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<Book> root = query.from(Book.class);
+        query.select(cb.count(root));
+        where(query, criteria.toPredicate(root, query, cb));
+        return entityManager.createQuery(query).getSingleResult();
+    }
+
+    private static void where(CriteriaQuery<?> query, Predicate predicate) {
+        if (predicate != null) {
+            query.where(predicate);
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.letrasvivas.bookapi.repository;
+
+import com.letrasvivas.bookapi.entity.Book;
+import org.springframework.data.jpa.domain.Specification;
+
+/**
+ * Dynamic filters for the book advanced search. Only the criteria actually supplied
+ * become predicates, so the database sees plain sargable conditions on the indexed
+ * columns instead of one catch-all ":param IS NULL OR ..." expression.
+ */
+public final class BookSpecifications {
+
+    private BookSpecifications() {
+    }
+
+    /**
+     * Books matching every non-null criterion; title and author match substrings
+     * ignoring case
+     */
+    public static Specification<Book> withCriteria(String title, String author, String genre,
+                                                   Integer minYear, Integer maxYear,
+                                                   Integer minPages, Integer maxPages,
+                                                   Boolean isAvailable) {
+        return (root, query, cb) -> {
+            Predicates predicates = new Predicates(cb);
+            predicates.containsIgnoreCase(root.get("title"), title);
+            predicates.containsIgnoreCase(root.get("author"), author);
+            predicates.equal(root.get("genre"), genre);
+            predicates.atLeast(root.get("publicationYear"), minYear);
+            predicates.atMost(root.get("publicationYear"), maxYear);
+            predicates.atLeast(root.get("pageCount"), minPages);
+            predicates.atMost(root.get("pageCount"), maxPages);
+            predicates.equal(root.get("isAvailable"), isAvailable);
+            return predicates.toPredicate();
+        };
+    }
+}
@@ -0,0 +1,54 @@
+package com.letrasvivas.bookapi.repository;
+
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Predicate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Collects the predicates of a search specification, skipping every criterion whose
+ * value is null
+ */
+final class Predicates {
+
+    private final CriteriaBuilder cb;
+    private final List<Predicate> predicates = new ArrayList<>();
+
+    Predicates(CriteriaBuilder cb) {
+        this.cb = cb;
+    }
+
+    void containsIgnoreCase(Expression<String> path, String value) {
+        if (value != null) {
+            predicates.add(cb.like(cb.lower(path), "%" + value.toLowerCase(Locale.ROOT) + "%"));
+        }
+    }
+
+    void equal(Expression<?> path, Object value) {
+        if (value != null) {
+            predicates.add(cb.equal(path, value));
+        }
+    }
+
+    <T extends Comparable<? super T>> void atLeast(Expression<? extends T> path, T value) {
+        if (value != null) {
+            predicates.add(cb.greaterThanOrEqualTo(path, value));
+        }
+    }
+
+    <T extends Comparable<? super T>> void atMost(Expression<? extends T> path, T value) {
+        if (value != null) {
+            predicates.add(cb.lessThanOrEqualTo(path, value));
+        }
+    }
+
+    /**
+     * Conjunction of the collected predicates, or null (no restriction) when there are none
+     */
+    Predicate toPredicate() {
+        return predicates.isEmpty() ? null : cb.and(predicates.toArray(new Predicate[0]));
+    }
+}
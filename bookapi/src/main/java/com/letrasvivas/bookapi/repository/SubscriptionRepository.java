@@ -2,23 +2,37 @@ package com.letrasvivas.bookapi.repository;
 
 import com.letrasvivas.bookapi.entity.Subscription;
 import com.letrasvivas.bookapi.entity.Subscription.SubscriptionStatus;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
-public interface SubscriptionRepository extends JpaRepository<Subscription, Long> {
+public interface SubscriptionRepository extends JpaRepository<Subscription, Long>,
+        JpaSpecificationExecutor<Subscription> {
 
     // Find by user ID
     List<Subscription> findByUserId(Long userId);
 
+    // Delete every subscription of the given users with one statement, without loading them
+    @Modifying
+    @Query("DELETE FROM Subscription s WHERE s.user.id IN :userIds")
+    int deleteByUserIdIn(@Param("userIds") Collection<Long> userIds);
+
     // Find by status
     List<Subscription> findByStatus(SubscriptionStatus status);
 
@@ -59,23 +73,26 @@ public interface SubscriptionRepository extends JpaRepository<Subscription, Long
     @Query("SELECT s.planName, COUNT(s) as subscriptionCount FROM Subscription s GROUP BY s.planName ORDER BY COUNT(s) DESC")
     List<Object[]> findMostPopularPlans();
 
-    // Advanced search for subscriptions
-    @Query("SELECT s FROM Subscription s WHERE " +
-            "(:planName IS NULL OR LOWER(s.planName) LIKE LOWER(CONCAT('%', :planName, '%'))) AND " +
-            "(:status IS NULL OR s.status = :status) AND " +
-            "(:minPrice IS NULL OR s.price >= :minPrice) AND " +
-            "(:maxPrice IS NULL OR s.price <= :maxPrice) AND " +
-            "(:startDate IS NULL OR s.startDate >= :startDate) AND " +
-            "(:endDate IS NULL OR s.endDate <= :endDate) AND " +
-            "(:userId IS NULL OR s.user.id = :userId)")
-    Page<Subscription> findSubscriptionsWithCriteria(@Param("planName") String planName,
-                                                     @Param("status") SubscriptionStatus status,
-                                                     @Param("minPrice") BigDecimal minPrice,
-                                                     @Param("maxPrice") BigDecimal maxPrice,
-                                                     @Param("startDate") LocalDate startDate,
-                                                     @Param("endDate") LocalDate endDate,
-                                                     @Param("userId") Long userId,
-                                                     Pageable pageable);
+    // Advanced search for subscriptions; only the supplied filters reach the query
+    default Page<Subscription> findSubscriptionsWithCriteria(String planName, SubscriptionStatus status,
+                                                             BigDecimal minPrice, BigDecimal maxPrice,
+                                                             LocalDate startDate, LocalDate endDate,
+                                                             Long userId, Pageable pageable) {
+        return findAll(SubscriptionSpecifications.withCriteria(planName, status, minPrice, maxPrice,
+                startDate, endDate, userId), pageable);
+    }
+
+    // Keyset page of subscriptions ordered by id, starting after the given id (no count query)
+    @Query("SELECT s FROM Subscription s JOIN FETCH s.user WHERE s.id > :id ORDER BY s.id ASC")
+    Slice<Subscription> findWithUserByIdGreaterThan(@Param("id") Long id, Pageable pageable);
+
+    // Every subscription with its user, ordered by id and read incrementally from the database cursor (for exports)
+    @Query("SELECT s FROM Subscription s JOIN FETCH s.user ORDER BY s.id")
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<Subscription> streamAllWithUser();
 
     // Find subscriptions ending soon for specific user
     @Query("SELECT s FROM Subscription s WHERE s.user.id = :userId AND s.endDate BETWEEN :today AND :warningDate AND s.status = 'ACTIVE'")
@@ -0,0 +1,38 @@
+package com.letrasvivas.bookapi.repository;
+
+import com.letrasvivas.bookapi.entity.Subscription;
+import com.letrasvivas.bookapi.entity.Subscription.SubscriptionStatus;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Dynamic filters for the subscription advanced search; only supplied criteria become predicates
+ */
+public final class SubscriptionSpecifications {
+
+    private SubscriptionSpecifications() {
+    }
+
+    /**
+     * Subscriptions matching every non-null criterion; the plan name matches substrings
+     * ignoring case. The user is compared by its foreign key, without a join.
+     */
+    public static Specification<Subscription> withCriteria(String planName, SubscriptionStatus status,
+                                                           BigDecimal minPrice, BigDecimal maxPrice,
+                                                           LocalDate startDate, LocalDate endDate,
+                                                           Long userId) {
+        return (root, query, cb) -> {
+            Predicates predicates = new Predicates(cb);
+            predicates.containsIgnoreCase(root.get("planName"), planName);
+            predicates.equal(root.get("status"), status);
+            predicates.atLeast(root.get("price"), minPrice);
+            predicates.atMost(root.get("price"), maxPrice);
+            predicates.atLeast(root.get("startDate"), startDate);
+            predicates.atMost(root.get("endDate"), endDate);
+            predicates.equal(root.get("user").get("id"), userId);
+            return predicates.toPredicate();
+        };
+    }
+}
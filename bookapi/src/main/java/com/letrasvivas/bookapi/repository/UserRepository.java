@@ -1,18 +1,30 @@
 package com.letrasvivas.bookapi.repository;
 
+import com.letrasvivas.bookapi.dto.response.ActiveSubscriberDTO;
 import com.letrasvivas.bookapi.entity.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
-public interface UserRepository extends JpaRepository<User, Long> {
+public interface UserRepository extends JpaRepository<User, Long>, JpaSpecificationExecutor<User>,
+        UserRepositoryCustom {
 
     // Find by email (unique constraint)
     Optional<User> findByEmail(String email);
@@ -20,6 +32,19 @@ public interface UserRepository extends JpaRepository<User, Long> {
     // Check if email exists (useful for validation)
     boolean existsByEmail(String email);
 
+    // Last update of a user and of its subscriptions, plus its subscription count (for ETags)
+    @Query("SELECT u.updatedAt, MAX(s.updatedAt), COUNT(s) FROM User u LEFT JOIN u.subscriptions s " +
+            "WHERE u.id = :id GROUP BY u.id, u.updatedAt")
+    List<Object[]> findVersionById(@Param("id") Long id);
+
+    // Of the given emails, those already registered (for bulk duplicate checks)
+    @Query("SELECT u.email FROM User u WHERE u.email IN :emails")
+    List<String> findExistingEmails(@Param("emails") Collection<String> emails);
+
+    // All registered emails (for rebuilding the email filter)
+    @Query("SELECT u.email FROM User u")
+    List<String> findAllEmails();
+
     // Find active users
     List<User> findByIsActiveTrue();
 
@@ -34,9 +59,22 @@ public interface UserRepository extends JpaRepository<User, Long> {
     // Find users by age range
     List<User> findByAgeBetween(Integer minAge, Integer maxAge);
 
-    // Find users with active subscriptions
-    @Query("SELECT DISTINCT u FROM User u JOIN u.subscriptions s WHERE s.status = 'ACTIVE' AND u.isActive = true")
-    List<User> findUsersWithActiveSubscriptions();
+    // Condition for a subscription of user u that is active and not past its end date
+    String ACTIVE_SUBSCRIPTION = "s.user = u AND s.status = 'ACTIVE' AND (s.endDate IS NULL OR s.endDate >= :today)";
+
+    // Keyset page of active users with an active subscription, ordered by id. EXISTS stops at the
+    // first matching subscription instead of joining and de-duplicating every one of them.
+    @Query("SELECT new com.letrasvivas.bookapi.dto.response.ActiveSubscriberDTO(u.id, u.firstName, u.lastName, u.email) " +
+            "FROM User u WHERE u.isActive = true AND u.id > :id " +
+            "AND EXISTS (SELECT 1 FROM Subscription s WHERE " + ACTIVE_SUBSCRIPTION + ") ORDER BY u.id")
+    Slice<ActiveSubscriberDTO> findActiveSubscribersAfter(@Param("id") Long id, @Param("today") LocalDate today,
+                                                          Pageable pageable);
+
+    // User id and plan name of the active subscriptions of the given users
+    @Query("SELECT u.id, s.planName FROM Subscription s JOIN s.user u " +
+            "WHERE u.id IN :userIds AND " + ACTIVE_SUBSCRIPTION + " ORDER BY s.id")
+    List<Object[]> findActivePlanNamesByUserIdIn(@Param("userIds") Collection<Long> userIds,
+                                                 @Param("today") LocalDate today);
 
     // Find users without any subscriptions
     @Query("SELECT u FROM User u WHERE u.subscriptions IS EMPTY")
@@ -48,31 +86,57 @@ public interface UserRepository extends JpaRepository<User, Long> {
     // Find users by phone number pattern
     List<User> findByPhoneNumberContaining(String phonePattern);
 
-    // Advanced search with multiple criteria
-    @Query("SELECT u FROM User u WHERE " +
-            "(:firstName IS NULL OR LOWER(u.firstName) LIKE LOWER(CONCAT('%', :firstName, '%'))) AND " +
-            "(:lastName IS NULL OR LOWER(u.lastName) LIKE LOWER(CONCAT('%', :lastName, '%'))) AND " +
-            "(:email IS NULL OR LOWER(u.email) LIKE LOWER(CONCAT('%', :email, '%'))) AND " +
-            "(:isActive IS NULL OR u.isActive = :isActive) AND " +
-            "(:minAge IS NULL OR u.age >= :minAge) AND " +
-            "(:maxAge IS NULL OR u.age <= :maxAge)")
-    Page<User> findUsersWithCriteria(@Param("firstName") String firstName,
-                                     @Param("lastName") String lastName,
-                                     @Param("email") String email,
-                                     @Param("isActive") Boolean isActive,
-                                     @Param("minAge") Integer minAge,
-                                     @Param("maxAge") Integer maxAge,
-                                     Pageable pageable);
+    // Advanced search with multiple criteria; only the supplied filters reach the query
+    default Page<User> findUsersWithCriteria(String firstName, String lastName, String email,
+                                             Boolean isActive, Integer minAge, Integer maxAge,
+                                             Pageable pageable) {
+        return findAll(UserSpecifications.withCriteria(firstName, lastName, email, isActive, minAge, maxAge),
+                pageable);
+    }
+
+    // Lowest and highest user id, the bounds of chunked bulk updates (nulls when there are no users)
+    @Query("SELECT MIN(u.id), MAX(u.id) FROM User u")
+    List<Object[]> findIdRange();
+
+    // Set the active flag of the given users, skipping those already in that state; returns the number changed
+    @Modifying
+    @Query("UPDATE User u SET u.isActive = :active, u.updatedAt = :now WHERE u.id IN :ids AND u.isActive <> :active")
+    int updateActiveByIdIn(@Param("ids") Collection<Long> ids, @Param("active") boolean active,
+                           @Param("now") LocalDateTime now);
+
+    // Id, email and active flag of the given users (what listeners need to know about a purge)
+    @Query("SELECT u.id, u.email, u.isActive FROM User u WHERE u.id IN :ids")
+    List<Object[]> findPurgeColumnsByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Delete the given users with one statement; their subscriptions must already be gone
+    @Modifying
+    @Query("DELETE FROM User u WHERE u.id IN :ids")
+    int purgeByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Subscription columns needed by user responses (user id, id, plan name, status, end date), for many users at once
+    @Query("SELECT s.user.id, s.id, s.planName, s.status, s.endDate FROM Subscription s " +
+            "WHERE s.user.id IN :userIds ORDER BY s.id")
+    List<Object[]> findSubscriptionSummariesByUserIdIn(@Param("userIds") Collection<Long> userIds);
+
+    // Keyset page of users ordered by id, starting after the given id (no count query)
+    Slice<User> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+
+    // Every user ordered by id, read incrementally from the database cursor (for exports)
+    @Query("SELECT u FROM User u ORDER BY u.id")
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<User> streamAllByOrderById();
 
     // Find users with subscription count
     @Query("SELECT u FROM User u LEFT JOIN u.subscriptions s GROUP BY u.id HAVING COUNT(s.id) >= :minSubscriptions")
     List<User> findUsersWithMinimumSubscriptions(@Param("minSubscriptions") long minSubscriptions);
 
-    // Get user statistics
-    @Query("SELECT COUNT(u) as totalUsers, " +
-            "COUNT(CASE WHEN u.isActive = true THEN 1 END) as activeUsers, " +
-            "COUNT(CASE WHEN u.isActive = false THEN 1 END) as inactiveUsers, " +
-            "AVG(u.age) as averageAge " +
-            "FROM User u")
-    Object[] getUserStatistics();
+    // Analytics columns of every user (age, active flag, signup time, subscription count), read
+    // incrementally in one pass. Must be consumed inside a transaction and closed afterwards.
+    @Query("SELECT u.age, u.isActive, u.createdAt, " +
+            "(SELECT COUNT(s) FROM Subscription s WHERE s.user = u) FROM User u")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    Stream<Object[]> streamAnalyticsColumns();
 }
\ No newline at end of file
@@ -0,0 +1,16 @@
+package com.letrasvivas.bookapi.repository;
+
+/**
+ * User statements built with the Criteria API, mixed into {@link UserRepository}
+ */
+public interface UserRepositoryCustom {
+
+    /**
+     * Set the active flag of the users with an id in [fromId, toId] that match every
+     * supplied criterion (as in the advanced search) and are not already in that state,
+     * with one UPDATE statement. Returns the number of users changed.
+     */
+    int updateActiveWithCriteria(String firstName, String lastName, String email,
+                                 Integer minAge, Integer maxAge, boolean active,
+                                 long fromId, long toId);
+}
@@ -0,0 +1,35 @@
+package com.letrasvivas.bookapi.repository;
+
+import com.letrasvivas.bookapi.entity.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaUpdate;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+
+import java.time.LocalDateTime;
+
+class UserRepositoryCustomImpl implements UserRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public int updateActiveWithCriteria(String firstName, String lastName, String email,
+                                        Integer minAge, Integer maxAge, boolean active,
+                                        long fromId, long toId) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaUpdate<User> update = cb.createCriteriaUpdate(User.class);
+        Root<User> root = update.from(User.class);
+
+        // Bulk statements skip @PreUpdate, so the update time is set here
+        update.set(root.<Boolean>get("isActive"), active);
+        update.set(root.<LocalDateTime>get("updatedAt"), LocalDateTime.now());
+
+        Predicate criteria = UserSpecifications.withCriteria(firstName, lastName, email, !active, minAge, maxAge)
+                .toPredicate(root, null, cb);
+        update.where(cb.and(criteria, cb.between(root.get("id"), fromId, toId)));
+        return entityManager.createQuery(update).executeUpdate();
+    }
+}
@@ -0,0 +1,30 @@
+package com.letrasvivas.bookapi.repository;
+
+import com.letrasvivas.bookapi.entity.User;
+import org.springframework.data.jpa.domain.Specification;
+
+/**
+ * Dynamic filters for the user advanced search; only supplied criteria become predicates
+ */
+public final class UserSpecifications {
+
+    private UserSpecifications() {
+    }
+
+    /**
+     * Users matching every non-null criterion; names and email match substrings ignoring case
+     */
+    public static Specification<User> withCriteria(String firstName, String lastName, String email,
+                                                   Boolean isActive, Integer minAge, Integer maxAge) {
+        return (root, query, cb) -> {
+            Predicates predicates = new Predicates(cb);
+            predicates.containsIgnoreCase(root.get("firstName"), firstName);
+            predicates.containsIgnoreCase(root.get("lastName"), lastName);
+            predicates.containsIgnoreCase(root.get("email"), email);
+            predicates.equal(root.get("isActive"), isActive);
+            predicates.atLeast(root.get("age"), minAge);
+            predicates.atMost(root.get("age"), maxAge);
+            return predicates.toPredicate();
+        };
+    }
+}
@@ -0,0 +1,180 @@
+package com.letrasvivas.bookapi.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.letrasvivas.bookapi.dto.request.CreateBookRequestDTO;
+import com.letrasvivas.bookapi.dto.response.ImportReportDTO;
+import com.letrasvivas.bookapi.dto.response.ImportRowResultDTO;
+import com.letrasvivas.bookapi.dto.response.ImportRowResultDTO.Status;
+import com.letrasvivas.bookapi.entity.Book;
+import com.letrasvivas.bookapi.event.BookChangedEvent;
+import com.letrasvivas.bookapi.repository.BookRepository;
+import com.letrasvivas.bookapi.util.ImportRecordReader;
+import com.letrasvivas.bookapi.util.ImportRecordReader.Format;
+import com.letrasvivas.bookapi.util.ImportRecordReader.Row;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Streams large book feeds into the catalog.
+ *
+ * Records are read one at a time and written in chunks, each chunk in its own
+ * transaction: one existence query resolves the chunk's ISBNs, the new books are
+ * inserted together and the persistence context is cleared before the next chunk,
+ * so memory stays flat however large the feed is. A failing chunk does not undo
+ * the chunks committed before it.
+ */
+@Service
+public class BookImportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(BookImportService.class);
+
+    private final BookRepository bookRepository;
+    private final BookService bookService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${app.import.chunk-size:500}")
+    private int chunkSize;
+
+    @Value("${app.import.max-reported-rows:1000}")
+    private int maxReportedRows;
+
+    @Autowired
+    public BookImportService(BookRepository bookRepository, BookService bookService,
+                             ApplicationEventPublisher eventPublisher,
+                             PlatformTransactionManager transactionManager,
+                             Validator validator, ObjectMapper objectMapper) {
+        this.bookRepository = bookRepository;
+        this.bookService = bookService;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.validator = validator;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Import books from an NDJSON or CSV stream
+     */
+    public ImportReportDTO importBooks(InputStream input, Format format) throws IOException {
+        ImportReportDTO report = new ImportReportDTO(maxReportedRows);
+        List<Row<CreateBookRequestDTO>> chunk = new ArrayList<>(chunkSize);
+
+        try (ImportRecordReader<CreateBookRequestDTO> reader = new ImportRecordReader<>(
+                new InputStreamReader(input, StandardCharsets.UTF_8), format, CreateBookRequestDTO.class, objectMapper)) {
+            Row<CreateBookRequestDTO> row;
+            while ((row = reader.next()) != null) {
+                String error = row.getError() != null ? row.getError() : validate(row.getValue());
+                if (error != null) {
+                    report.addRejected(new ImportRowResultDTO(row.getLine(),
+                            row.getValue() != null ? row.getValue().getIsbn() : null, Status.INVALID, error));
+                    continue;
+                }
+
+                chunk.add(row);
+                if (chunk.size() >= chunkSize) {
+                    importChunk(chunk, report);
+                    chunk.clear();
+                }
+            }
+            if (!chunk.isEmpty()) {
+                importChunk(chunk, report);
+            }
+        }
+        report.getRejectedRows().sort(Comparator.comparingLong(ImportRowResultDTO::getLine));
+
+        logger.info("Book import finished: {} rows, {} imported, {} invalid, {} duplicates, {} failed",
+                report.getTotalRows(), report.getImported(), report.getInvalid(),
+                report.getDuplicates(), report.getFailed());
+        return report;
+    }
+
+    // ========== PRIVATE HELPER METHODS ==========
+
+    /**
+     * Write one chunk in its own transaction and record its outcome once it has committed
+     */
+    private void importChunk(List<Row<CreateBookRequestDTO>> rows, ImportReportDTO report) {
+        List<ImportRowResultDTO> duplicates = new ArrayList<>();
+        try {
+            Integer inserted = transactionTemplate.execute(status -> insertChunk(rows, duplicates));
+            report.addImported(inserted != null ? inserted : 0);
+            duplicates.forEach(report::addRejected);
+        } catch (DataAccessException e) {
+            logger.warn("Book import chunk starting at line {} failed: {}", rows.get(0).getLine(), e.getMessage());
+            String message = "Chunk rolled back: " + e.getMostSpecificCause().getMessage();
+            for (Row<CreateBookRequestDTO> row : rows) {
+                report.addRejected(new ImportRowResultDTO(row.getLine(), row.getValue().getIsbn(),
+                        Status.FAILED, message));
+            }
+        }
+    }
+
+    private int insertChunk(List<Row<CreateBookRequestDTO>> rows, List<ImportRowResultDTO> duplicates) {
+        Set<String> existing = bookService.findExistingIsbns(rows.stream()
+                .map(row -> row.getValue().getIsbn())
+                .filter(isbn -> isbn != null)
+                .collect(Collectors.toList()));
+
+        Set<String> seen = new HashSet<>();
+        List<Book> books = new ArrayList<>(rows.size());
+        for (Row<CreateBookRequestDTO> row : rows) {
+            String isbn = row.getValue().getIsbn();
+            if (isbn != null && existing.contains(isbn)) {
+                duplicates.add(new ImportRowResultDTO(row.getLine(), isbn, Status.DUPLICATE,
+                        "Book with ISBN " + isbn + " already exists"));
+            } else if (isbn != null && !seen.add(isbn)) {
+                duplicates.add(new ImportRowResultDTO(row.getLine(), isbn, Status.DUPLICATE,
+                        "ISBN " + isbn + " appears more than once in the import"));
+            } else {
+                books.add(BookService.convertToEntity(row.getValue()));
+            }
+        }
+
+        List<Book> savedBooks = bookRepository.saveAll(books);
+        bookRepository.flush();
+        savedBooks.forEach(savedBook -> eventPublisher.publishEvent(BookChangedEvent.created(savedBook)));
+        entityManager.clear();
+        return savedBooks.size();
+    }
+
+    /**
+     * Bean validation messages for a record, or null when it is valid
+     */
+    private String validate(CreateBookRequestDTO requestDTO) {
+        Set<ConstraintViolation<CreateBookRequestDTO>> violations = validator.validate(requestDTO);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+                .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                .sorted()
+                .collect(Collectors.joining("; "));
+    }
+}
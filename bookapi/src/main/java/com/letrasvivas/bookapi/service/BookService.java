@@ -2,39 +2,148 @@ package com.letrasvivas.bookapi.service;
 
 import com.letrasvivas.bookapi.dto.request.CreateBookRequestDTO;
 import com.letrasvivas.bookapi.dto.request.UpdateBookRequestDTO;
+import com.letrasvivas.bookapi.dto.response.BookBatchResponseDTO;
+import com.letrasvivas.bookapi.dto.response.BookSuggestionDTO;
 import com.letrasvivas.bookapi.dto.response.BookResponseDTO;
+import com.letrasvivas.bookapi.dto.response.CursorPageResponseDTO;
+import com.letrasvivas.bookapi.dto.response.FacetedPageResponseDTO;
+import com.letrasvivas.bookapi.dto.response.YearRangeStatsDTO;
 import com.letrasvivas.bookapi.entity.Book;
+import com.letrasvivas.bookapi.event.BookChangedEvent;
 import com.letrasvivas.bookapi.exception.ResourceNotFoundException;
 import com.letrasvivas.bookapi.exception.DuplicateResourceException;
 import com.letrasvivas.bookapi.exception.BusinessValidationException;
 import com.letrasvivas.bookapi.repository.BookRepository;
+import com.letrasvivas.bookapi.service.cache.BookCache;
+import com.letrasvivas.bookapi.service.cache.CollectionVersions;
+import com.letrasvivas.bookapi.service.index.BookFacetIndex;
+import com.letrasvivas.bookapi.service.index.BookFuzzyIndex;
+import com.letrasvivas.bookapi.service.index.BookSearchIndex;
+import com.letrasvivas.bookapi.service.index.BookSuggestIndex;
+import com.letrasvivas.bookapi.service.index.BookSimilarityIndex;
+import com.letrasvivas.bookapi.service.index.IsbnFilter;
+import com.letrasvivas.bookapi.service.stats.BookAnalytics;
+import com.letrasvivas.bookapi.service.stats.BookColumnStore;
+import com.letrasvivas.bookapi.service.stats.BookCounters;
+import com.letrasvivas.bookapi.util.ConstraintViolations;
+import com.letrasvivas.bookapi.util.KeysetCursor;
+import com.letrasvivas.bookapi.util.ResourceVersion;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.time.Year;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @Transactional
 public class BookService {
 
+    // Keeps IN lists well below database parameter limits
+    private static final int IN_CLAUSE_CHUNK_SIZE = 1000;
+
     private final BookRepository bookRepository;
+    private final BookSearchIndex bookSearchIndex;
+    private final BookSimilarityIndex bookSimilarityIndex;
+    private final BookFacetIndex bookFacetIndex;
+    private final BookSuggestIndex bookSuggestIndex;
+    private final BookFuzzyIndex bookFuzzyIndex;
+    private final BookCounters bookCounters;
+    private final BookAnalytics bookAnalytics;
+    private final BookColumnStore bookColumnStore;
+    private final BookCache bookCache;
+    private final CollectionVersions collectionVersions;
+    private final IsbnFilter isbnFilter;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @PersistenceContext
+    private EntityManager entityManager;
 
     @Autowired
-    public BookService(BookRepository bookRepository) {
+    public BookService(BookRepository bookRepository, BookSearchIndex bookSearchIndex,
+                       BookSimilarityIndex bookSimilarityIndex, BookFacetIndex bookFacetIndex,
+                       BookSuggestIndex bookSuggestIndex, BookFuzzyIndex bookFuzzyIndex,
+                       BookCounters bookCounters,
+                       BookAnalytics bookAnalytics, BookColumnStore bookColumnStore,
+                       BookCache bookCache, CollectionVersions collectionVersions, IsbnFilter isbnFilter,
+                       ApplicationEventPublisher eventPublisher) {
         this.bookRepository = bookRepository;
+        this.bookSearchIndex = bookSearchIndex;
+        this.bookSimilarityIndex = bookSimilarityIndex;
+        this.bookFacetIndex = bookFacetIndex;
+        this.bookSuggestIndex = bookSuggestIndex;
+        this.bookFuzzyIndex = bookFuzzyIndex;
+        this.bookCounters = bookCounters;
+        this.bookAnalytics = bookAnalytics;
+        this.bookColumnStore = bookColumnStore;
+        this.bookCache = bookCache;
+        this.collectionVersions = collectionVersions;
+        this.isbnFilter = isbnFilter;
+        this.eventPublisher = eventPublisher;
     }
 
     /**
      * Get all books with pagination
      */
     @Transactional(readOnly = true)
-    public Page<BookResponseDTO> getAllBooks(Pageable pageable) {
-        return bookRepository.findAll(pageable)
-                .map(this::convertToResponseDTO);
+    public Page<BookResponseDTO> getAllBooks(Pageable pageable, boolean includeDescription) {
+        Page<BookResponseDTO> books = bookRepository.findAllSummaries(pageable);
+        withDescriptions(books.getContent(), includeDescription);
+        return books;
+    }
+
+    /**
+     * Get a keyset page of books ordered by title or id, without a count query
+     */
+    @Transactional(readOnly = true)
+    public CursorPageResponseDTO<BookResponseDTO> getBooksAfter(String after, String sortField, int size) {
+        Pageable limit = PageRequest.of(0, size);
+        Slice<Book> slice;
+        if ("id".equals(sortField)) {
+            long afterId = after != null ? KeysetCursor.decode(after, sortField).getId() : 0L;
+            slice = bookRepository.findByIdGreaterThanOrderByIdAsc(afterId, limit);
+        } else if ("title".equals(sortField)) {
+            if (after == null) {
+                slice = bookRepository.findAllByOrderByTitleAscIdAsc(limit);
+            } else {
+                KeysetCursor cursor = KeysetCursor.decode(after, sortField);
+                slice = bookRepository.findByTitleAndIdAfter(cursor.getSortKey(), cursor.getId(), limit);
+            }
+        } else {
+            throw new BusinessValidationException("Keyset pagination supports sorting by title or id", "sort", sortField);
+        }
+
+        List<BookResponseDTO> content = slice.map(this::convertToResponseDTO).getContent();
+        String nextCursor = null;
+        if (slice.hasNext()) {
+            BookResponseDTO last = content.get(content.size() - 1);
+            String sortKey = "title".equals(sortField) ? last.getTitle() : null;
+            nextCursor = KeysetCursor.of(sortField, sortKey, last.getId()).encode();
+        }
+        return new CursorPageResponseDTO<>(content, slice.hasNext(), nextCursor);
     }
 
     /**
@@ -42,9 +151,85 @@ public class BookService {
      */
     @Transactional(readOnly = true)
     public BookResponseDTO getBookById(Long id) {
+        BookResponseDTO cached = bookCache.getById(id);
+        if (cached != null) {
+            return cached;
+        }
+
+        long stamp = bookCache.stamp();
         Book book = bookRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Book not found with id: " + id));
-        return convertToResponseDTO(book);
+        BookResponseDTO response = convertToResponseDTO(book);
+        bookCache.put(response, stamp);
+        return response;
+    }
+
+    /**
+     * Get many books by id, in request order (duplicates collapsed). Cached books are
+     * served from the cache, the rest are loaded with chunked IN queries, and ids
+     * matching no book are reported instead of failing the batch.
+     */
+    @Transactional(readOnly = true)
+    public BookBatchResponseDTO getBooksByIds(List<Long> ids) {
+        Map<Long, BookResponseDTO> found = new HashMap<>();
+        List<Long> uncached = new ArrayList<>();
+        for (Long id : new LinkedHashSet<>(ids)) {
+            BookResponseDTO cached = bookCache.getById(id);
+            if (cached != null) {
+                found.put(id, cached);
+            } else {
+                uncached.add(id);
+            }
+        }
+
+        long stamp = bookCache.stamp();
+        for (int from = 0; from < uncached.size(); from += IN_CLAUSE_CHUNK_SIZE) {
+            int to = Math.min(from + IN_CLAUSE_CHUNK_SIZE, uncached.size());
+            for (Book book : bookRepository.findByIdIn(uncached.subList(from, to))) {
+                BookResponseDTO response = convertToResponseDTO(book);
+                bookCache.put(response, stamp);
+                found.put(book.getId(), response);
+            }
+        }
+
+        List<BookResponseDTO> books = new ArrayList<>(found.size());
+        List<Long> missingIds = new ArrayList<>();
+        for (Long id : new LinkedHashSet<>(ids)) {
+            BookResponseDTO book = found.get(id);
+            if (book != null) {
+                books.add(book);
+            } else {
+                missingIds.add(id);
+            }
+        }
+        return new BookBatchResponseDTO(books, missingIds);
+    }
+
+    /**
+     * Version of a book's response, from the cache or its update time. The book age
+     * depends on the current year, so every book also changes version yearly.
+     */
+    @Transactional(readOnly = true)
+    public ResourceVersion getBookVersion(Long id) {
+        BookResponseDTO cached = bookCache.getById(id);
+        LocalDateTime updatedAt = cached != null ? cached.getUpdatedAt() : bookRepository.findUpdatedAtById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Book not found with id: " + id));
+        Year year = Year.now();
+        long lastModified = Math.max(ResourceVersion.toEpochMillis(updatedAt),
+                ResourceVersion.toEpochMillis(year.atDay(1).atStartOfDay()));
+        return ResourceVersion.of(lastModified, "book", id, updatedAt, year);
+    }
+
+    /**
+     * Version of the book listings, moved by every committed book change, and
+     * yearly because of the book ages
+     */
+    public ResourceVersion getBooksVersion() {
+        Year year = Year.now();
+        long lastModified = Math.max(collectionVersions.getLastModified(CollectionVersions.Collection.BOOKS),
+                ResourceVersion.toEpochMillis(year.atDay(1).atStartOfDay()));
+        return ResourceVersion.of(lastModified, "books", collectionVersions.getEpoch(),
+                collectionVersions.getVersion(CollectionVersions.Collection.BOOKS), year);
     }
 
     /**
@@ -53,13 +238,14 @@ public class BookService {
     public BookResponseDTO createBook(CreateBookRequestDTO requestDTO) {
         // Check if ISBN already exists (if provided)
         if (requestDTO.getIsbn() != null && !requestDTO.getIsbn().trim().isEmpty()) {
-            if (bookRepository.existsByIsbn(requestDTO.getIsbn())) {
+            if (isbnExists(requestDTO.getIsbn())) {
                 throw new DuplicateResourceException("Book with ISBN " + requestDTO.getIsbn() + " already exists");
             }
         }
 
         Book book = convertToEntity(requestDTO);
-        Book savedBook = bookRepository.save(book);
+        Book savedBook = saveCheckingIsbn(book);
+        eventPublisher.publishEvent(BookChangedEvent.created(savedBook));
         return convertToResponseDTO(savedBook);
     }
 
@@ -72,13 +258,15 @@ public class BookService {
 
         // Check if ISBN is being changed and if it already exists
         if (requestDTO.getIsbn() != null && !requestDTO.getIsbn().equals(existingBook.getIsbn())) {
-            if (bookRepository.existsByIsbn(requestDTO.getIsbn())) {
+            if (isbnExists(requestDTO.getIsbn())) {
                 throw new DuplicateResourceException("Book with ISBN " + requestDTO.getIsbn() + " already exists");
             }
         }
 
+        Book previous = BookChangedEvent.snapshotOf(existingBook);
         updateBookFromDTO(existingBook, requestDTO);
-        Book updatedBook = bookRepository.save(existingBook);
+        Book updatedBook = saveCheckingIsbn(existingBook);
+        eventPublisher.publishEvent(BookChangedEvent.updated(previous, updatedBook));
         return convertToResponseDTO(updatedBook);
     }
 
@@ -86,10 +274,10 @@ public class BookService {
      * Delete book by ID
      */
     public void deleteBook(Long id) {
-        if (!bookRepository.existsById(id)) {
-            throw new ResourceNotFoundException("Book not found with id: " + id);
-        }
-        bookRepository.deleteById(id);
+        Book book = bookRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Book not found with id: " + id));
+        bookRepository.delete(book);
+        eventPublisher.publishEvent(BookChangedEvent.deleted(book));
     }
 
     /**
@@ -99,8 +287,10 @@ public class BookService {
         Book book = bookRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Book not found with id: " + id));
 
+        Book previous = BookChangedEvent.snapshotOf(book);
         book.setIsAvailable(false);
         Book updatedBook = bookRepository.save(book);
+        eventPublisher.publishEvent(BookChangedEvent.updated(previous, updatedBook));
         return convertToResponseDTO(updatedBook);
     }
 
@@ -111,8 +301,10 @@ public class BookService {
         Book book = bookRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Book not found with id: " + id));
 
+        Book previous = BookChangedEvent.snapshotOf(book);
         book.setIsAvailable(true);
         Book updatedBook = bookRepository.save(book);
+        eventPublisher.publishEvent(BookChangedEvent.updated(previous, updatedBook));
         return convertToResponseDTO(updatedBook);
     }
 
@@ -120,32 +312,73 @@ public class BookService {
      * Search books by title
      */
     @Transactional(readOnly = true)
-    public List<BookResponseDTO> searchBooksByTitle(String title) {
-        return bookRepository.findByTitleContainingIgnoreCase(title)
-                .stream()
-                .map(this::convertToResponseDTO)
-                .collect(Collectors.toList());
+    public List<BookResponseDTO> searchBooksByTitle(String title, boolean includeDescription) {
+        if (bookSearchIndex.isReady()) {
+            return findBooksInOrder(bookSearchIndex.search(title, BookSearchIndex.Field.TITLE), includeDescription);
+        }
+        return withDescriptions(bookRepository.findSummariesByTitleContaining(title), includeDescription);
     }
 
     /**
      * Search books by author
      */
     @Transactional(readOnly = true)
-    public List<BookResponseDTO> searchBooksByAuthor(String author) {
-        return bookRepository.findByAuthorContainingIgnoreCase(author)
-                .stream()
-                .map(this::convertToResponseDTO)
-                .collect(Collectors.toList());
+    public List<BookResponseDTO> searchBooksByAuthor(String author, boolean includeDescription) {
+        if (bookSearchIndex.isReady()) {
+            return findBooksInOrder(bookSearchIndex.search(author, BookSearchIndex.Field.AUTHOR), includeDescription);
+        }
+        return withDescriptions(bookRepository.findSummariesByAuthorContaining(author), includeDescription);
     }
 
     /**
      * Search books by title or author
      */
     @Transactional(readOnly = true)
-    public List<BookResponseDTO> searchBooks(String searchTerm) {
-        return bookRepository.findByTitleOrAuthorContainingIgnoreCase(searchTerm)
-                .stream()
-                .map(this::convertToResponseDTO)
+    public List<BookResponseDTO> searchBooks(String searchTerm, boolean includeDescription) {
+        if (bookSearchIndex.isReady()) {
+            return findBooksInOrder(bookSearchIndex.search(searchTerm, BookSearchIndex.Field.ANY), includeDescription);
+        }
+        return withDescriptions(bookRepository.findSummariesByTitleOrAuthorContaining(searchTerm), includeDescription);
+    }
+
+    /**
+     * Typo-tolerant search by title, author or both, closest matches first. Answered
+     * only from the fuzzy index: it returns nothing until the index is built rather
+     * than scanning the table.
+     */
+    @Transactional(readOnly = true)
+    public List<BookResponseDTO> fuzzySearchBooks(String term, BookSearchIndex.Field field, int maxDistance,
+                                                  int limit, boolean includeDescription) {
+        if (!bookFuzzyIndex.isReady()) {
+            return new ArrayList<>();
+        }
+        return findBooksInOrder(bookFuzzyIndex.search(term, field, maxDistance, limit), includeDescription);
+    }
+
+    /**
+     * Autocomplete titles and authors starting with the prefix, most common first.
+     * Served from the suggest index without a transaction; until the index is built,
+     * falls back to anchored LIKE queries (which, unlike the index, are accent sensitive
+     * and only match from the start of the text).
+     */
+    public List<BookSuggestionDTO> suggest(String prefix, int limit) {
+        if (bookSuggestIndex.isReady()) {
+            return bookSuggestIndex.suggest(prefix, limit).stream()
+                    .map(completion -> new BookSuggestionDTO(completion.getText(),
+                            completion.getSource().name(), completion.getWeight()))
+                    .collect(Collectors.toList());
+        }
+
+        String term = prefix.trim();
+        Pageable top = PageRequest.of(0, limit);
+        List<BookSuggestionDTO> suggestions = new ArrayList<>();
+        bookRepository.findTitleCompletions(term, top).forEach(row -> suggestions.add(
+                new BookSuggestionDTO((String) row[0], BookSuggestIndex.Source.TITLE.name(), (Long) row[1])));
+        bookRepository.findAuthorCompletions(term, top).forEach(row -> suggestions.add(
+                new BookSuggestionDTO((String) row[0], BookSuggestIndex.Source.AUTHOR.name(), (Long) row[1])));
+        return suggestions.stream()
+                .sorted(Comparator.comparing(BookSuggestionDTO::getBookCount).reversed())
+                .limit(limit)
                 .collect(Collectors.toList());
     }
 
@@ -153,68 +386,67 @@ public class BookService {
      * Get books by genre
      */
     @Transactional(readOnly = true)
-    public List<BookResponseDTO> getBooksByGenre(String genre) {
-        return bookRepository.findByGenre(genre)
-                .stream()
-                .map(this::convertToResponseDTO)
-                .collect(Collectors.toList());
+    public List<BookResponseDTO> getBooksByGenre(String genre, boolean includeDescription) {
+        return withDescriptions(bookRepository.findSummariesByGenre(genre), includeDescription);
     }
 
     /**
      * Get available books
      */
     @Transactional(readOnly = true)
-    public List<BookResponseDTO> getAvailableBooks() {
-        return bookRepository.findByIsAvailableTrue()
-                .stream()
-                .map(this::convertToResponseDTO)
-                .collect(Collectors.toList());
+    public List<BookResponseDTO> getAvailableBooks(boolean includeDescription) {
+        return withDescriptions(bookRepository.findAvailableSummaries(), includeDescription);
     }
 
     /**
      * Get books by publication year range
      */
     @Transactional(readOnly = true)
-    public List<BookResponseDTO> getBooksByYearRange(Integer startYear, Integer endYear) {
-        return bookRepository.findByPublicationYearBetween(startYear, endYear)
-                .stream()
-                .map(this::convertToResponseDTO)
-                .collect(Collectors.toList());
+    public List<BookResponseDTO> getBooksByYearRange(Integer startYear, Integer endYear, boolean includeDescription) {
+        return withDescriptions(bookRepository.findSummariesByPublicationYearBetween(startYear, endYear), includeDescription);
     }
 
     /**
      * Get classic books (before 1950)
      */
     @Transactional(readOnly = true)
-    public List<BookResponseDTO> getClassicBooks() {
-        return bookRepository.findClassicBooks()
-                .stream()
-                .map(this::convertToResponseDTO)
-                .collect(Collectors.toList());
+    public List<BookResponseDTO> getClassicBooks(boolean includeDescription) {
+        return withDescriptions(bookRepository.findClassicSummaries(), includeDescription);
     }
 
     /**
      * Get recent books (2020 onwards)
      */
     @Transactional(readOnly = true)
-    public List<BookResponseDTO> getRecentBooks() {
-        return bookRepository.findRecentBooks()
-                .stream()
-                .map(this::convertToResponseDTO)
-                .collect(Collectors.toList());
+    public List<BookResponseDTO> getRecentBooks(boolean includeDescription) {
+        return withDescriptions(bookRepository.findRecentSummaries(), includeDescription);
     }
 
     /**
-     * Advanced search with multiple criteria
+     * Advanced search with multiple criteria, with facet counts of the matches
+     * when it can be answered from the facet index
      */
     @Transactional(readOnly = true)
-    public Page<BookResponseDTO> searchBooks(String title, String author, String genre,
-                                             Integer minYear, Integer maxYear,
-                                             Integer minPages, Integer maxPages,
-                                             Boolean isAvailable, Pageable pageable) {
-        return bookRepository.findBooksWithCriteria(title, author, genre, minYear, maxYear,
-                        minPages, maxPages, isAvailable, pageable)
-                .map(this::convertToResponseDTO);
+    public FacetedPageResponseDTO<BookResponseDTO> searchBooks(String title, String author, String genre,
+                                                               Integer minYear, Integer maxYear,
+                                                               Integer minPages, Integer maxPages,
+                                                               Boolean isAvailable, Pageable pageable,
+                                                               boolean includeDescription) {
+        if (bookFacetIndex.isReady() && bookSearchIndex.isReady() && pageable.isPaged()
+                && bookFacetIndex.supportsSort(pageable.getSort())) {
+            BookFacetIndex.Result result = bookFacetIndex.search(textMatches(title, author), genre, isAvailable,
+                    minYear, maxYear, minPages, maxPages, pageable.getSort());
+            List<Long> ids = result.getIds();
+            int from = (int) Math.min(pageable.getOffset(), ids.size());
+            int to = Math.min(from + pageable.getPageSize(), ids.size());
+            List<BookResponseDTO> content = findBooksInOrder(ids.subList(from, to), includeDescription);
+            return new FacetedPageResponseDTO<>(new PageImpl<>(content, pageable, ids.size()), result.getFacets());
+        }
+
+        Page<BookResponseDTO> books = bookRepository.findSummariesWithCriteria(title, author, genre,
+                minYear, maxYear, minPages, maxPages, isAvailable, pageable);
+        withDescriptions(books.getContent(), includeDescription);
+        return new FacetedPageResponseDTO<>(books, null);
     }
 
     /**
@@ -222,9 +454,17 @@ public class BookService {
      */
     @Transactional(readOnly = true)
     public BookResponseDTO getBookByIsbn(String isbn) {
+        BookResponseDTO cached = bookCache.getByIsbn(isbn);
+        if (cached != null) {
+            return cached;
+        }
+
+        long stamp = bookCache.stamp();
         Book book = bookRepository.findByIsbn(isbn)
                 .orElseThrow(() -> new ResourceNotFoundException("Book not found with ISBN: " + isbn));
-        return convertToResponseDTO(book);
+        BookResponseDTO response = convertToResponseDTO(book);
+        bookCache.put(response, stamp);
+        return response;
     }
 
     /**
@@ -232,22 +472,83 @@ public class BookService {
      */
     @Transactional(readOnly = true)
     public List<Object[]> getMostPopularGenres() {
+        if (bookAnalytics.isSeeded()) {
+            return bookAnalytics.getMostPopularGenres(Integer.MAX_VALUE);
+        }
         return bookRepository.findMostPopularGenres();
     }
 
     /**
-     * Get most prolific authors
+     * Get the most prolific authors, up to limit
      */
     @Transactional(readOnly = true)
-    public List<Object[]> getMostProlificAuthors() {
-        return bookRepository.findMostProlificAuthors();
+    public List<Object[]> getMostProlificAuthors(int limit) {
+        if (bookAnalytics.isSeeded()) {
+            return bookAnalytics.getMostProlificAuthors(limit);
+        }
+        return bookRepository.findMostProlificAuthors()
+                .stream()
+                .limit(limit)
+                .collect(Collectors.toList());
     }
 
     /**
-     * Get similar books
+     * Get book count by publication year
      */
     @Transactional(readOnly = true)
-    public List<BookResponseDTO> getSimilarBooks(Long bookId) {
+    public List<Object[]> getBooksCountByYear() {
+        if (bookAnalytics.isSeeded()) {
+            return bookAnalytics.getBooksCountByYear();
+        }
+        return bookRepository.findBooksCountByYear();
+    }
+
+    /**
+     * Get average page count by genre
+     */
+    @Transactional(readOnly = true)
+    public List<Object[]> getAveragePageCountByGenre() {
+        if (bookAnalytics.isSeeded()) {
+            return bookAnalytics.getAveragePageCountByGenre();
+        }
+        return bookRepository.findAveragePageCountByGenre();
+    }
+
+    /**
+     * Get book statistics for a publication year range
+     */
+    @Transactional(readOnly = true)
+    public YearRangeStatsDTO getYearRangeStats(Integer startYear, Integer endYear) {
+        if (startYear > endYear) {
+            throw new BusinessValidationException("Start year must not be after end year", "startYear", startYear);
+        }
+        BookColumnStore.Snapshot snapshot = bookColumnStore.getSnapshot();
+        if (snapshot != null) {
+            return snapshot.yearRange(startYear, endYear);
+        }
+
+        Object[] stats = bookRepository.findStatsByPublicationYearBetween(startYear, endYear).get(0);
+        Map<String, Long> booksByGenre = new LinkedHashMap<>();
+        for (Object[] row : bookRepository.findGenreCountsByPublicationYearBetween(startYear, endYear)) {
+            booksByGenre.put((String) row[0], (Long) row[1]);
+        }
+        return new YearRangeStatsDTO(startYear, endYear, (Long) stats[0],
+                stats[1] != null ? ((Number) stats[1]).longValue() : 0L,
+                (Long) stats[2], (Double) stats[3], booksByGenre);
+    }
+
+    /**
+     * Get the books most similar to the given one (by title, description, author and genre)
+     */
+    @Transactional(readOnly = true)
+    public List<BookResponseDTO> getSimilarBooks(Long bookId, int limit) {
+        if (bookSimilarityIndex.isReady()) {
+            if (!bookSimilarityIndex.contains(bookId) && !bookRepository.existsById(bookId)) {
+                throw new ResourceNotFoundException("Book not found with id: " + bookId);
+            }
+            return findBooksInOrder(bookSimilarityIndex.findSimilar(bookId, limit), true);
+        }
+
         Book book = bookRepository.findById(bookId)
                 .orElseThrow(() -> new ResourceNotFoundException("Book not found with id: " + bookId));
 
@@ -257,6 +558,7 @@ public class BookService {
 
         return bookRepository.findSimilarBooks(keyword, bookId)
                 .stream()
+                .limit(limit)
                 .map(this::convertToResponseDTO)
                 .collect(Collectors.toList());
     }
@@ -266,14 +568,53 @@ public class BookService {
      */
     @Transactional(readOnly = true)
     public boolean isbnExists(String isbn) {
+        if (isbnFilter.isDefinitelyAbsent(isbn)) {
+            return false;
+        }
         return bookRepository.existsByIsbn(isbn);
     }
 
+    /**
+     * Check many ISBNs at once, keeping the order they were given in
+     */
+    @Transactional(readOnly = true)
+    public Map<String, Boolean> isbnsExist(List<String> isbns) {
+        Set<String> existing = findExistingIsbns(isbns);
+        Map<String, Boolean> result = new LinkedHashMap<>();
+        for (String isbn : isbns) {
+            result.put(isbn, existing.contains(isbn));
+        }
+        return result;
+    }
+
+    /**
+     * Of the given ISBNs, return those already stored. Definite negatives from the
+     * ISBN filter skip the database; the rest are checked with chunked IN queries.
+     */
+    public Set<String> findExistingIsbns(Collection<String> isbns) {
+        List<String> candidates = new ArrayList<>();
+        for (String isbn : new LinkedHashSet<>(isbns)) {
+            if (isbn != null && !isbnFilter.isDefinitelyAbsent(isbn)) {
+                candidates.add(isbn);
+            }
+        }
+
+        Set<String> existing = new HashSet<>();
+        for (int from = 0; from < candidates.size(); from += IN_CLAUSE_CHUNK_SIZE) {
+            int to = Math.min(from + IN_CLAUSE_CHUNK_SIZE, candidates.size());
+            existing.addAll(bookRepository.findExistingIsbns(candidates.subList(from, to)));
+        }
+        return existing;
+    }
+
     /**
      * Get book count
      */
     @Transactional(readOnly = true)
     public long getBookCount() {
+        if (bookCounters.isSeeded()) {
+            return bookCounters.getTotal();
+        }
         return bookRepository.count();
     }
 
@@ -282,7 +623,10 @@ public class BookService {
      */
     @Transactional(readOnly = true)
     public long getAvailableBookCount() {
-        return bookRepository.findByIsAvailableTrue().size();
+        if (bookCounters.isSeeded()) {
+            return bookCounters.getAvailable();
+        }
+        return bookRepository.countByIsAvailableTrue();
     }
 
     /**
@@ -301,28 +645,135 @@ public class BookService {
         }
 
         // Check for existing ISBNs in database
+        Set<String> existing = findExistingIsbns(isbns);
         for (String isbn : isbns) {
-            if (bookRepository.existsByIsbn(isbn)) {
+            if (existing.contains(isbn)) {
                 throw new DuplicateResourceException("Book with ISBN " + isbn + " already exists");
             }
         }
 
         List<Book> books = requestDTOs.stream()
-                .map(this::convertToEntity)
+                .map(BookService::convertToEntity)
                 .collect(Collectors.toList());
 
-        List<Book> savedBooks = bookRepository.saveAll(books);
+        List<Book> savedBooks;
+        try {
+            savedBooks = bookRepository.saveAll(books);
+            bookRepository.flush();
+        } catch (DataIntegrityViolationException e) {
+            if (!ConstraintViolations.isViolationOf(e, Book.ISBN_CONSTRAINT)) {
+                throw e;
+            }
+            throw new DuplicateResourceException("One or more ISBNs in the batch already exist");
+        }
+        savedBooks.forEach(savedBook -> eventPublisher.publishEvent(BookChangedEvent.created(savedBook)));
         return savedBooks.stream()
                 .map(this::convertToResponseDTO)
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Stream every book to the sink in id order, detaching each entity once it has
+     * been converted so the persistence context stays small. Returns the number exported.
+     */
+    @Transactional(readOnly = true)
+    public long exportBooks(Consumer<BookResponseDTO> sink) {
+        long count = 0;
+        try (Stream<Book> books = bookRepository.streamAllByOrderById()) {
+            Iterator<Book> iterator = books.iterator();
+            while (iterator.hasNext()) {
+                Book book = iterator.next();
+                sink.accept(convertToResponseDTO(book));
+                entityManager.detach(book);
+                count++;
+            }
+        }
+        return count;
+    }
+
     // ========== PRIVATE HELPER METHODS ==========
 
+    /**
+     * Save and flush a book so that an ISBN clash the ISBN filter could not
+     * know about (e.g. a row written outside this service) is still reported as
+     * a duplicate by the unique constraint
+     */
+    private Book saveCheckingIsbn(Book book) {
+        try {
+            Book savedBook = bookRepository.save(book);
+            bookRepository.flush();
+            return savedBook;
+        } catch (DataIntegrityViolationException e) {
+            if (!ConstraintViolations.isViolationOf(e, Book.ISBN_CONSTRAINT)) {
+                throw e;
+            }
+            throw new DuplicateResourceException("Book with ISBN " + book.getIsbn() + " already exists");
+        }
+    }
+
+    /**
+     * Ids of the books matching the advanced search title and author terms, or
+     * null when neither is given
+     */
+    private List<Long> textMatches(String title, String author) {
+        if (title == null && author == null) {
+            return null;
+        }
+        if (author == null) {
+            return bookSearchIndex.search(title, BookSearchIndex.Field.TITLE);
+        }
+        List<Long> matches = new ArrayList<>(bookSearchIndex.search(author, BookSearchIndex.Field.AUTHOR));
+        if (title != null) {
+            matches.retainAll(new HashSet<>(bookSearchIndex.search(title, BookSearchIndex.Field.TITLE)));
+        }
+        return matches;
+    }
+
+    /**
+     * Load book summaries by primary key, keeping the order of the given ids
+     */
+    private List<BookResponseDTO> findBooksInOrder(List<Long> ids, boolean includeDescription) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, Integer> positions = new HashMap<>();
+        for (int i = 0; i < ids.size(); i++) {
+            positions.put(ids.get(i), i);
+        }
+        List<BookResponseDTO> books = new ArrayList<>(ids.size());
+        for (int from = 0; from < ids.size(); from += IN_CLAUSE_CHUNK_SIZE) {
+            int to = Math.min(from + IN_CLAUSE_CHUNK_SIZE, ids.size());
+            books.addAll(bookRepository.findSummariesByIdIn(ids.subList(from, to)));
+        }
+        books.sort(Comparator.comparing(book -> positions.get(book.getId())));
+        return withDescriptions(books, includeDescription);
+    }
+
+    /**
+     * Fill in the descriptions of summaries loaded without them, when asked to,
+     * with one chunked IN query instead of loading the full entities
+     */
+    private List<BookResponseDTO> withDescriptions(List<BookResponseDTO> books, boolean includeDescription) {
+        if (!includeDescription || books.isEmpty()) {
+            return books;
+        }
+        Map<Long, BookResponseDTO> byId = new HashMap<>();
+        books.forEach(book -> byId.put(book.getId(), book));
+
+        List<Long> ids = new ArrayList<>(byId.keySet());
+        for (int from = 0; from < ids.size(); from += IN_CLAUSE_CHUNK_SIZE) {
+            int to = Math.min(from + IN_CLAUSE_CHUNK_SIZE, ids.size());
+            for (Object[] row : bookRepository.findDescriptionsByIdIn(ids.subList(from, to))) {
+                byId.get((Long) row[0]).setDescription((String) row[1]);
+            }
+        }
+        return books;
+    }
+
     /**
      * Convert CreateBookRequestDTO to Book entity
      */
-    private Book convertToEntity(CreateBookRequestDTO requestDTO) {
+    static Book convertToEntity(CreateBookRequestDTO requestDTO) {
         Book book = new Book();
         book.setTitle(requestDTO.getTitle());
         book.setAuthor(requestDTO.getAuthor());
@@ -2,6 +2,7 @@ package com.letrasvivas.bookapi.service;
 
 import com.letrasvivas.bookapi.dto.request.CreateSubscriptionRequestDTO;
 import com.letrasvivas.bookapi.dto.request.UpdateSubscriptionRequestDTO;
+import com.letrasvivas.bookapi.dto.response.CursorPageResponseDTO;
 import com.letrasvivas.bookapi.dto.response.SubscriptionResponseDTO;
 import com.letrasvivas.bookapi.entity.Subscription;
 import com.letrasvivas.bookapi.entity.Subscription.SubscriptionStatus;
@@ -10,16 +11,24 @@ import com.letrasvivas.bookapi.exception.ResourceNotFoundException;
 import com.letrasvivas.bookapi.exception.BusinessValidationException;
 import com.letrasvivas.bookapi.repository.SubscriptionRepository;
 import com.letrasvivas.bookapi.repository.UserRepository;
+import com.letrasvivas.bookapi.util.KeysetCursor;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.Iterator;
 import java.util.List;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @Transactional
@@ -28,6 +37,9 @@ public class SubscriptionService {
     private final SubscriptionRepository subscriptionRepository;
     private final UserRepository userRepository;
 
+    @PersistenceContext
+    private EntityManager entityManager;
+
     @Autowired
     public SubscriptionService(SubscriptionRepository subscriptionRepository, UserRepository userRepository) {
         this.subscriptionRepository = subscriptionRepository;
@@ -43,6 +55,24 @@ public class SubscriptionService {
                 .map(this::convertToResponseDTO);
     }
 
+    /**
+     * Get a keyset page of subscriptions ordered by id, without a count query
+     */
+    @Transactional(readOnly = true)
+    public CursorPageResponseDTO<SubscriptionResponseDTO> getSubscriptionsAfter(String after, int size) {
+        long afterId = after != null ? KeysetCursor.decode(after, "id").getId() : 0L;
+        Slice<SubscriptionResponseDTO> slice = subscriptionRepository
+                .findWithUserByIdGreaterThan(afterId, PageRequest.of(0, size))
+                .map(this::convertToResponseDTO);
+
+        String nextCursor = null;
+        if (slice.hasNext()) {
+            SubscriptionResponseDTO last = slice.getContent().get(slice.getNumberOfElements() - 1);
+            nextCursor = KeysetCursor.of("id", null, last.getId()).encode();
+        }
+        return new CursorPageResponseDTO<>(slice.getContent(), slice.hasNext(), nextCursor);
+    }
+
     /**
      * Get subscription by ID
      */
@@ -249,6 +279,26 @@ public class SubscriptionService {
         return subscriptionRepository.findMostPopularPlans();
     }
 
+    /**
+     * Stream every subscription to the sink in id order, detaching each entity once it has
+     * been converted so the persistence context stays small. Returns the number exported.
+     */
+    @Transactional(readOnly = true)
+    public long exportSubscriptions(Consumer<SubscriptionResponseDTO> sink) {
+        long count = 0;
+        try (Stream<Subscription> subscriptions = subscriptionRepository.streamAllWithUser()) {
+            Iterator<Subscription> iterator = subscriptions.iterator();
+            while (iterator.hasNext()) {
+                Subscription subscription = iterator.next();
+                sink.accept(convertToResponseDTO(subscription));
+                entityManager.detach(subscription);
+                entityManager.detach(subscription.getUser());
+                count++;
+            }
+        }
+        return count;
+    }
+
     // ========== PRIVATE HELPER METHODS ==========
 
     /**
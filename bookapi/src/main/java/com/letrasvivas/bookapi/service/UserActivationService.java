@@ -0,0 +1,121 @@
+package com.letrasvivas.bookapi.service;
+
+import com.letrasvivas.bookapi.dto.request.UserActivationRequestDTO;
+import com.letrasvivas.bookapi.event.UsersActivationChangedEvent;
+import com.letrasvivas.bookapi.exception.BusinessValidationException;
+import com.letrasvivas.bookapi.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.function.IntSupplier;
+
+/**
+ * Deactivates or reactivates many users at once.
+ *
+ * Users are changed with set-based UPDATE statements, without loading them: an id
+ * list in IN-list chunks, filters in consecutive id ranges. Each chunk commits in its
+ * own transaction, so locks stay short and a failure keeps the chunks already done.
+ * Only users not already in the target state are touched, and each chunk publishes
+ * how many changed so the live counters and collection versions stay consistent.
+ */
+@Service
+public class UserActivationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserActivationService.class);
+
+    // Ids per IN-list statement
+    private static final int IN_CLAUSE_CHUNK_SIZE = 1000;
+
+    private final UserRepository userRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+
+    // Width of the id range updated by each filtered statement
+    @Value("${app.users.bulk-update-id-range:10000}")
+    private int idRange;
+
+    @Autowired
+    public UserActivationService(UserRepository userRepository, ApplicationEventPublisher eventPublisher,
+                                 PlatformTransactionManager transactionManager) {
+        this.userRepository = userRepository;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Set the active flag of the selected users, returning how many changed
+     */
+    public long setActive(UserActivationRequestDTO request, boolean active) {
+        boolean hasIds = request.getIds() != null && !request.getIds().isEmpty();
+        if (hasIds && request.hasFilters()) {
+            throw new BusinessValidationException("Select users either by ids or by filters, not both");
+        }
+        if (!hasIds && !request.hasFilters()) {
+            throw new BusinessValidationException("At least one id or filter is required");
+        }
+        if (request.getMinAge() != null && request.getMaxAge() != null && request.getMinAge() > request.getMaxAge()) {
+            throw new BusinessValidationException("Minimum age must not be above maximum age", "minAge",
+                    request.getMinAge());
+        }
+
+        long changed = hasIds ? setActiveByIds(request.getIds(), active) : setActiveByFilters(request, active);
+        logger.info("Bulk {} changed {} users", active ? "reactivation" : "deactivation", changed);
+        return changed;
+    }
+
+    // ========== PRIVATE HELPER METHODS ==========
+
+    private long setActiveByIds(List<Long> ids, boolean active) {
+        List<Long> distinct = new ArrayList<>(new LinkedHashSet<>(ids));
+        long changed = 0;
+        for (int from = 0; from < distinct.size(); from += IN_CLAUSE_CHUNK_SIZE) {
+            List<Long> chunk = distinct.subList(from, Math.min(from + IN_CLAUSE_CHUNK_SIZE, distinct.size()));
+            changed += inTransaction(active,
+                    () -> userRepository.updateActiveByIdIn(chunk, active, LocalDateTime.now()));
+        }
+        return changed;
+    }
+
+    private long setActiveByFilters(UserActivationRequestDTO request, boolean active) {
+        Object[] range = userRepository.findIdRange().get(0);
+        if (range[0] == null) {
+            return 0;
+        }
+        long minId = (Long) range[0];
+        long maxId = (Long) range[1];
+
+        long changed = 0;
+        for (long from = minId; from <= maxId; from += idRange) {
+            long to = Math.min(from + idRange - 1, maxId);
+            long fromId = from;
+            changed += inTransaction(active, () -> userRepository.updateActiveWithCriteria(
+                    request.getFirstName(), request.getLastName(), request.getEmail(),
+                    request.getMinAge(), request.getMaxAge(), active, fromId, to));
+        }
+        return changed;
+    }
+
+    /**
+     * Run one chunk's statement in its own transaction and announce its changes on commit
+     */
+    private int inTransaction(boolean active, IntSupplier statement) {
+        Integer changed = transactionTemplate.execute(status -> {
+            int count = statement.getAsInt();
+            if (count > 0) {
+                eventPublisher.publishEvent(new UsersActivationChangedEvent(active, count));
+            }
+            return count;
+        });
+        return changed != null ? changed : 0;
+    }
+}
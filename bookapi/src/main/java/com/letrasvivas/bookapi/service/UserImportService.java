@@ -0,0 +1,200 @@
+package com.letrasvivas.bookapi.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.letrasvivas.bookapi.dto.request.CreateUserRequestDTO;
+import com.letrasvivas.bookapi.dto.response.ImportReportDTO;
+import com.letrasvivas.bookapi.dto.response.ImportRowResultDTO;
+import com.letrasvivas.bookapi.dto.response.ImportRowResultDTO.Status;
+import com.letrasvivas.bookapi.entity.User;
+import com.letrasvivas.bookapi.event.UserChangedEvent;
+import com.letrasvivas.bookapi.repository.UserRepository;
+import com.letrasvivas.bookapi.util.ImportRecordReader;
+import com.letrasvivas.bookapi.util.ImportRecordReader.Format;
+import com.letrasvivas.bookapi.util.ImportRecordReader.Row;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.hibernate.Session;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Streams large user feeds (e.g. a partner's member list) into the users table.
+ *
+ * Works like {@link BookImportService}: records are read one at a time and written
+ * in chunks, each in its own transaction. A chunk's records are validated in
+ * parallel, its emails are resolved with one existence query, and its new users
+ * are inserted in a single JDBC batch. A failing chunk does not undo the chunks
+ * committed before it.
+ */
+@Service
+public class UserImportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserImportService.class);
+
+    private final UserRepository userRepository;
+    private final UserService userService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${app.import.chunk-size:500}")
+    private int chunkSize;
+
+    @Value("${app.import.max-reported-rows:1000}")
+    private int maxReportedRows;
+
+    @Autowired
+    public UserImportService(UserRepository userRepository, UserService userService,
+                             ApplicationEventPublisher eventPublisher,
+                             PlatformTransactionManager transactionManager,
+                             Validator validator, ObjectMapper objectMapper) {
+        this.userRepository = userRepository;
+        this.userService = userService;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.validator = validator;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Import users from an NDJSON or CSV stream
+     */
+    public ImportReportDTO importUsers(InputStream input, Format format) throws IOException {
+        ImportReportDTO report = new ImportReportDTO(maxReportedRows);
+        List<Row<CreateUserRequestDTO>> chunk = new ArrayList<>(chunkSize);
+
+        try (ImportRecordReader<CreateUserRequestDTO> reader = new ImportRecordReader<>(
+                new InputStreamReader(input, StandardCharsets.UTF_8), format, CreateUserRequestDTO.class, objectMapper)) {
+            Row<CreateUserRequestDTO> row;
+            while ((row = reader.next()) != null) {
+                chunk.add(row);
+                if (chunk.size() >= chunkSize) {
+                    importChunk(validateChunk(chunk, report), report);
+                    chunk.clear();
+                }
+            }
+            if (!chunk.isEmpty()) {
+                importChunk(validateChunk(chunk, report), report);
+            }
+        }
+        report.getRejectedRows().sort(Comparator.comparingLong(ImportRowResultDTO::getLine));
+
+        logger.info("User import finished: {} rows, {} imported, {} invalid, {} duplicates, {} failed",
+                report.getTotalRows(), report.getImported(), report.getInvalid(),
+                report.getDuplicates(), report.getFailed());
+        return report;
+    }
+
+    // ========== PRIVATE HELPER METHODS ==========
+
+    /**
+     * Validate a chunk's records in parallel, report the invalid ones and return the rest in order
+     */
+    private List<Row<CreateUserRequestDTO>> validateChunk(List<Row<CreateUserRequestDTO>> rows,
+                                                         ImportReportDTO report) {
+        List<String> errors = rows.parallelStream()
+                .map(row -> row.getError() != null ? row.getError() : validate(row.getValue()))
+                .collect(Collectors.toList());
+
+        List<Row<CreateUserRequestDTO>> valid = new ArrayList<>(rows.size());
+        for (int i = 0; i < rows.size(); i++) {
+            Row<CreateUserRequestDTO> row = rows.get(i);
+            if (errors.get(i) != null) {
+                report.addRejected(new ImportRowResultDTO(row.getLine(),
+                        row.getValue() != null ? row.getValue().getEmail() : null, Status.INVALID, errors.get(i)));
+            } else {
+                valid.add(row);
+            }
+        }
+        return valid;
+    }
+
+    /**
+     * Write one chunk in its own transaction and record its outcome once it has committed
+     */
+    private void importChunk(List<Row<CreateUserRequestDTO>> rows, ImportReportDTO report) {
+        if (rows.isEmpty()) {
+            return;
+        }
+        List<ImportRowResultDTO> duplicates = new ArrayList<>();
+        try {
+            Integer inserted = transactionTemplate.execute(status -> insertChunk(rows, duplicates));
+            report.addImported(inserted != null ? inserted : 0);
+            duplicates.forEach(report::addRejected);
+        } catch (DataAccessException e) {
+            logger.warn("User import chunk starting at line {} failed: {}", rows.get(0).getLine(), e.getMessage());
+            String message = "Chunk rolled back: " + e.getMostSpecificCause().getMessage();
+            for (Row<CreateUserRequestDTO> row : rows) {
+                report.addRejected(new ImportRowResultDTO(row.getLine(), row.getValue().getEmail(),
+                        Status.FAILED, message));
+            }
+        }
+    }
+
+    private int insertChunk(List<Row<CreateUserRequestDTO>> rows, List<ImportRowResultDTO> duplicates) {
+        Set<String> existing = userService.findExistingEmails(rows.stream()
+                .map(row -> row.getValue().getEmail())
+                .collect(Collectors.toList()));
+
+        Set<String> seen = new HashSet<>();
+        List<User> users = new ArrayList<>(rows.size());
+        for (Row<CreateUserRequestDTO> row : rows) {
+            String email = row.getValue().getEmail();
+            if (existing.contains(email)) {
+                duplicates.add(new ImportRowResultDTO(row.getLine(), email, Status.DUPLICATE,
+                        "User with email " + email + " already exists"));
+            } else if (!seen.add(email)) {
+                duplicates.add(new ImportRowResultDTO(row.getLine(), email, Status.DUPLICATE,
+                        "Email " + email + " appears more than once in the import"));
+            } else {
+                users.add(UserService.convertToEntity(row.getValue()));
+            }
+        }
+
+        // Send the whole chunk as one JDBC batch rather than the default batches of 20
+        entityManager.unwrap(Session.class).setJdbcBatchSize(Math.max(users.size(), 1));
+        List<User> savedUsers = userRepository.saveAll(users);
+        userRepository.flush();
+        savedUsers.forEach(savedUser -> eventPublisher.publishEvent(UserChangedEvent.created(savedUser)));
+        entityManager.clear();
+        return savedUsers.size();
+    }
+
+    /**
+     * Bean validation messages for a record, or null when it is valid
+     */
+    private String validate(CreateUserRequestDTO requestDTO) {
+        Set<ConstraintViolation<CreateUserRequestDTO>> violations = validator.validate(requestDTO);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+                .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                .sorted()
+                .collect(Collectors.joining("; "));
+    }
+}
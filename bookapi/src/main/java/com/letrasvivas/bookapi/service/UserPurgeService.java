@@ -0,0 +1,101 @@
+package com.letrasvivas.bookapi.service;
+
+import com.letrasvivas.bookapi.dto.response.UserPurgeReportDTO;
+import com.letrasvivas.bookapi.entity.User;
+import com.letrasvivas.bookapi.event.UsersPurgedEvent;
+import com.letrasvivas.bookapi.repository.SubscriptionRepository;
+import com.letrasvivas.bookapi.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Permanently deletes users together with their subscriptions.
+ *
+ * Deleting through the entity cascades loads every subscription and removes them
+ * one statement at a time. Here each chunk of ids is deleted with two set-based
+ * statements, subscriptions first and then the users, without loading either, and
+ * commits in its own transaction so a large purge holds its locks briefly.
+ */
+@Service
+public class UserPurgeService {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserPurgeService.class);
+
+    // Ids per IN-list statement
+    private static final int IN_CLAUSE_CHUNK_SIZE = 1000;
+
+    private final UserRepository userRepository;
+    private final SubscriptionRepository subscriptionRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+
+    @Autowired
+    public UserPurgeService(UserRepository userRepository, SubscriptionRepository subscriptionRepository,
+                            ApplicationEventPublisher eventPublisher,
+                            PlatformTransactionManager transactionManager) {
+        this.userRepository = userRepository;
+        this.subscriptionRepository = subscriptionRepository;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Permanently delete the given users and all their subscriptions
+     */
+    public UserPurgeReportDTO purgeUsers(List<Long> ids) {
+        List<Long> distinct = new ArrayList<>(new LinkedHashSet<>(ids));
+        long deletedUsers = 0;
+        long deletedSubscriptions = 0;
+        List<Long> missingIds = new ArrayList<>();
+
+        for (int from = 0; from < distinct.size(); from += IN_CLAUSE_CHUNK_SIZE) {
+            List<Long> chunk = distinct.subList(from, Math.min(from + IN_CLAUSE_CHUNK_SIZE, distinct.size()));
+            long[] deleted = transactionTemplate.execute(status -> purgeChunk(chunk, missingIds));
+            deletedUsers += deleted[0];
+            deletedSubscriptions += deleted[1];
+        }
+
+        logger.info("Purged {} users and {} subscriptions ({} ids not found)",
+                deletedUsers, deletedSubscriptions, missingIds.size());
+        return new UserPurgeReportDTO(deletedUsers, deletedSubscriptions, missingIds);
+    }
+
+    // ========== PRIVATE HELPER METHODS ==========
+
+    /**
+     * Delete one chunk of users, returning the number of users and subscriptions removed
+     */
+    private long[] purgeChunk(List<Long> ids, List<Long> missingIds) {
+        // Just what the listeners need: the emails to evict and the active flags to count
+        List<User> snapshots = new ArrayList<>(ids.size());
+        Set<Long> found = new HashSet<>();
+        for (Object[] row : userRepository.findPurgeColumnsByIdIn(ids)) {
+            snapshots.add(UsersPurgedEvent.snapshotOf((Long) row[0], (String) row[1], (Boolean) row[2]));
+            found.add((Long) row[0]);
+        }
+        for (Long id : ids) {
+            if (!found.contains(id)) {
+                missingIds.add(id);
+            }
+        }
+        if (found.isEmpty()) {
+            return new long[]{0, 0};
+        }
+
+        int subscriptions = subscriptionRepository.deleteByUserIdIn(found);
+        int users = userRepository.purgeByIdIn(found);
+        eventPublisher.publishEvent(new UsersPurgedEvent(snapshots));
+        return new long[]{users, subscriptions};
+    }
+}
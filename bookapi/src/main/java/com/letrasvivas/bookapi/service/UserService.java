@@ -2,29 +2,88 @@ package com.letrasvivas.bookapi.service;
 
 import com.letrasvivas.bookapi.dto.request.CreateUserRequestDTO;
 import com.letrasvivas.bookapi.dto.request.UpdateUserRequestDTO;
+import com.letrasvivas.bookapi.dto.response.ActiveSubscriberDTO;
+import com.letrasvivas.bookapi.dto.response.CursorPageResponseDTO;
+import com.letrasvivas.bookapi.dto.response.UserAnalyticsDTO;
 import com.letrasvivas.bookapi.dto.response.UserResponseDTO;
+import com.letrasvivas.bookapi.entity.Subscription.SubscriptionStatus;
 import com.letrasvivas.bookapi.entity.User;
+import com.letrasvivas.bookapi.event.UserChangedEvent;
 import com.letrasvivas.bookapi.exception.ResourceNotFoundException;
 import com.letrasvivas.bookapi.exception.DuplicateResourceException;
 import com.letrasvivas.bookapi.repository.UserRepository;
+import com.letrasvivas.bookapi.service.cache.CollectionVersions;
+import com.letrasvivas.bookapi.service.cache.UserEmailCache;
+import com.letrasvivas.bookapi.service.index.EmailFilter;
+import com.letrasvivas.bookapi.service.stats.UserAnalyticsStore;
+import com.letrasvivas.bookapi.service.stats.UserCounters;
+import com.letrasvivas.bookapi.util.ConstraintViolations;
+import com.letrasvivas.bookapi.util.KeysetCursor;
+import com.letrasvivas.bookapi.util.ResourceVersion;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @Transactional
 public class UserService {
 
+    // Ids per IN-list query when loading the subscriptions of many users
+    private static final int IN_CLAUSE_CHUNK_SIZE = 1000;
+
+    // Users converted together during an export, matching the stream's fetch size
+    private static final int EXPORT_BATCH_SIZE = 500;
+
     private final UserRepository userRepository;
+    private final UserCounters userCounters;
+    private final UserAnalyticsStore userAnalyticsStore;
+    private final EmailFilter emailFilter;
+    private final UserEmailCache userEmailCache;
+    private final CollectionVersions collectionVersions;
+    private final UserPurgeService userPurgeService;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @PersistenceContext
+    private EntityManager entityManager;
 
     @Autowired
-    public UserService(UserRepository userRepository) {
+    public UserService(UserRepository userRepository, UserCounters userCounters,
+                       UserAnalyticsStore userAnalyticsStore, EmailFilter emailFilter, UserEmailCache userEmailCache,
+                       CollectionVersions collectionVersions, UserPurgeService userPurgeService,
+                       ApplicationEventPublisher eventPublisher) {
         this.userRepository = userRepository;
+        this.userCounters = userCounters;
+        this.userAnalyticsStore = userAnalyticsStore;
+        this.emailFilter = emailFilter;
+        this.userEmailCache = userEmailCache;
+        this.collectionVersions = collectionVersions;
+        this.userPurgeService = userPurgeService;
+        this.eventPublisher = eventPublisher;
     }
 
     /**
@@ -32,8 +91,25 @@ public class UserService {
      */
     @Transactional(readOnly = true)
     public Page<UserResponseDTO> getAllUsers(Pageable pageable) {
-        return userRepository.findAll(pageable)
-                .map(this::convertToResponseDTO);
+        Page<User> users = userRepository.findAll(pageable);
+        return new PageImpl<>(convertAll(users.getContent()), users.getPageable(), users.getTotalElements());
+    }
+
+    /**
+     * Get a keyset page of users ordered by id, without a count query
+     */
+    @Transactional(readOnly = true)
+    public CursorPageResponseDTO<UserResponseDTO> getUsersAfter(String after, int size) {
+        long afterId = after != null ? KeysetCursor.decode(after, "id").getId() : 0L;
+        Slice<User> slice = userRepository.findByIdGreaterThanOrderByIdAsc(afterId, PageRequest.of(0, size));
+        List<UserResponseDTO> users = convertAll(slice.getContent());
+
+        String nextCursor = null;
+        if (slice.hasNext()) {
+            UserResponseDTO last = users.get(users.size() - 1);
+            nextCursor = KeysetCursor.of("id", null, last.getId()).encode();
+        }
+        return new CursorPageResponseDTO<>(users, slice.hasNext(), nextCursor);
     }
 
     /**
@@ -46,17 +122,53 @@ public class UserService {
         return convertToResponseDTO(user);
     }
 
+    /**
+     * Version of a user's response, from the update times of the user and its
+     * subscriptions. The active-subscription summary depends on today's date, so
+     * users with subscriptions also change version daily.
+     */
+    @Transactional(readOnly = true)
+    public ResourceVersion getUserVersion(Long id) {
+        List<Object[]> rows = userRepository.findVersionById(id);
+        if (rows.isEmpty()) {
+            throw new ResourceNotFoundException("User not found with id: " + id);
+        }
+        LocalDateTime updatedAt = (LocalDateTime) rows.get(0)[0];
+        LocalDateTime subscriptionsUpdatedAt = (LocalDateTime) rows.get(0)[1];
+        long subscriptionCount = (Long) rows.get(0)[2];
+
+        LocalDateTime lastModified = updatedAt;
+        if (subscriptionCount > 0) {
+            lastModified = latest(latest(lastModified, subscriptionsUpdatedAt), LocalDate.now().atStartOfDay());
+            return ResourceVersion.of(ResourceVersion.toEpochMillis(lastModified), "user", id, updatedAt,
+                    subscriptionsUpdatedAt, subscriptionCount, LocalDate.now());
+        }
+        return ResourceVersion.of(ResourceVersion.toEpochMillis(lastModified), "user", id, updatedAt);
+    }
+
+    /**
+     * Version of the user listings, moved by every committed user or subscription
+     * change, and daily because of the active-subscription summaries
+     */
+    public ResourceVersion getUsersVersion() {
+        long lastModified = Math.max(collectionVersions.getLastModified(CollectionVersions.Collection.USERS),
+                ResourceVersion.toEpochMillis(LocalDate.now().atStartOfDay()));
+        return ResourceVersion.of(lastModified, "users", collectionVersions.getEpoch(),
+                collectionVersions.getVersion(CollectionVersions.Collection.USERS), LocalDate.now());
+    }
+
     /**
      * Create a new user
      */
     public UserResponseDTO createUser(CreateUserRequestDTO requestDTO) {
         // Check if email already exists
-        if (userRepository.existsByEmail(requestDTO.getEmail())) {
+        if (emailExists(requestDTO.getEmail())) {
             throw new DuplicateResourceException("User with email " + requestDTO.getEmail() + " already exists");
         }
 
         User user = convertToEntity(requestDTO);
-        User savedUser = userRepository.save(user);
+        User savedUser = saveCheckingEmail(user);
+        eventPublisher.publishEvent(UserChangedEvent.created(savedUser));
         return convertToResponseDTO(savedUser);
     }
 
@@ -69,13 +181,15 @@ public class UserService {
 
         // Check if email is being changed and if it already exists
         if (requestDTO.getEmail() != null && !requestDTO.getEmail().equals(existingUser.getEmail())) {
-            if (userRepository.existsByEmail(requestDTO.getEmail())) {
+            if (emailExists(requestDTO.getEmail())) {
                 throw new DuplicateResourceException("User with email " + requestDTO.getEmail() + " already exists");
             }
         }
 
+        User previous = UserChangedEvent.snapshotOf(existingUser);
         updateUserFromDTO(existingUser, requestDTO);
-        User updatedUser = userRepository.save(existingUser);
+        User updatedUser = saveCheckingEmail(existingUser);
+        eventPublisher.publishEvent(UserChangedEvent.updated(previous, updatedUser));
         return convertToResponseDTO(updatedUser);
     }
 
@@ -86,18 +200,19 @@ public class UserService {
         User user = userRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + id));
 
+        User previous = UserChangedEvent.snapshotOf(user);
         user.setIsActive(false);
-        userRepository.save(user);
+        User updatedUser = userRepository.save(user);
+        eventPublisher.publishEvent(UserChangedEvent.updated(previous, updatedUser));
     }
 
     /**
-     * Hard delete user (permanent deletion)
+     * Hard delete user (permanent deletion), without loading its subscriptions
      */
     public void permanentlyDeleteUser(Long id) {
-        if (!userRepository.existsById(id)) {
+        if (userPurgeService.purgeUsers(List.of(id)).getDeletedUsers() == 0) {
             throw new ResourceNotFoundException("User not found with id: " + id);
         }
-        userRepository.deleteById(id);
     }
 
     /**
@@ -105,10 +220,7 @@ public class UserService {
      */
     @Transactional(readOnly = true)
     public List<UserResponseDTO> searchUsersByName(String name) {
-        return userRepository.findByNameContainingIgnoreCase(name)
-                .stream()
-                .map(this::convertToResponseDTO)
-                .collect(Collectors.toList());
+        return convertAll(userRepository.findByNameContainingIgnoreCase(name));
     }
 
     /**
@@ -116,10 +228,7 @@ public class UserService {
      */
     @Transactional(readOnly = true)
     public List<UserResponseDTO> getActiveUsers() {
-        return userRepository.findByIsActiveTrue()
-                .stream()
-                .map(this::convertToResponseDTO)
-                .collect(Collectors.toList());
+        return convertAll(userRepository.findByIsActiveTrue());
     }
 
     /**
@@ -127,21 +236,35 @@ public class UserService {
      */
     @Transactional(readOnly = true)
     public List<UserResponseDTO> getUsersByAgeRange(Integer minAge, Integer maxAge) {
-        return userRepository.findByAgeBetween(minAge, maxAge)
-                .stream()
-                .map(this::convertToResponseDTO)
-                .collect(Collectors.toList());
+        return convertAll(userRepository.findByAgeBetween(minAge, maxAge));
     }
 
     /**
-     * Get users with active subscriptions
+     * Get a keyset page of active users with at least one active subscription, ordered
+     * by id, each with the plan names of its active subscriptions
      */
     @Transactional(readOnly = true)
-    public List<UserResponseDTO> getUsersWithActiveSubscriptions() {
-        return userRepository.findUsersWithActiveSubscriptions()
-                .stream()
-                .map(this::convertToResponseDTO)
-                .collect(Collectors.toList());
+    public CursorPageResponseDTO<ActiveSubscriberDTO> getActiveSubscribersAfter(String after, int size) {
+        long afterId = after != null ? KeysetCursor.decode(after, "id").getId() : 0L;
+        LocalDate today = LocalDate.now();
+        Slice<ActiveSubscriberDTO> slice = userRepository.findActiveSubscribersAfter(afterId, today,
+                PageRequest.of(0, size));
+        List<ActiveSubscriberDTO> subscribers = slice.getContent();
+
+        if (!subscribers.isEmpty()) {
+            Map<Long, ActiveSubscriberDTO> byId = new HashMap<>();
+            subscribers.forEach(subscriber -> byId.put(subscriber.getId(), subscriber));
+            for (Object[] row : userRepository.findActivePlanNamesByUserIdIn(byId.keySet(), today)) {
+                byId.get((Long) row[0]).getActivePlans().add((String) row[1]);
+            }
+        }
+
+        String nextCursor = null;
+        if (slice.hasNext()) {
+            ActiveSubscriberDTO last = subscribers.get(subscribers.size() - 1);
+            nextCursor = KeysetCursor.of("id", null, last.getId()).encode();
+        }
+        return new CursorPageResponseDTO<>(subscribers, slice.hasNext(), nextCursor);
     }
 
     /**
@@ -151,8 +274,9 @@ public class UserService {
     public Page<UserResponseDTO> searchUsers(String firstName, String lastName, String email,
                                              Boolean isActive, Integer minAge, Integer maxAge,
                                              Pageable pageable) {
-        return userRepository.findUsersWithCriteria(firstName, lastName, email, isActive, minAge, maxAge, pageable)
-                .map(this::convertToResponseDTO);
+        Page<User> users = userRepository.findUsersWithCriteria(firstName, lastName, email, isActive,
+                minAge, maxAge, pageable);
+        return new PageImpl<>(convertAll(users.getContent()), users.getPageable(), users.getTotalElements());
     }
 
     /**
@@ -160,9 +284,23 @@ public class UserService {
      */
     @Transactional(readOnly = true)
     public UserResponseDTO getUserByEmail(String email) {
-        User user = userRepository.findByEmail(email)
-                .orElseThrow(() -> new ResourceNotFoundException("User not found with email: " + email));
-        return convertToResponseDTO(user);
+        if (userEmailCache.isKnownAbsent(email)) {
+            throw new ResourceNotFoundException("User not found with email: " + email);
+        }
+        Optional<User> user = userEmailCache.getId(email)
+                .flatMap(userRepository::findById)
+                .filter(cached -> email.equals(cached.getEmail()));
+        if (user.isEmpty()) {
+            long stamp = userEmailCache.stamp();
+            user = userRepository.findByEmail(email);
+            if (user.isPresent()) {
+                userEmailCache.putPresent(email, user.get().getId(), stamp);
+            } else {
+                userEmailCache.putAbsent(email, stamp);
+            }
+        }
+        return convertToResponseDTO(user
+                .orElseThrow(() -> new ResourceNotFoundException("User not found with email: " + email)));
     }
 
     /**
@@ -170,7 +308,51 @@ public class UserService {
      */
     @Transactional(readOnly = true)
     public boolean emailExists(String email) {
-        return userRepository.existsByEmail(email);
+        if (emailFilter.isDefinitelyAbsent(email)) {
+            return false;
+        }
+        if (userEmailCache.isKnownPresent(email)) {
+            return true;
+        }
+        if (userEmailCache.isKnownAbsent(email)) {
+            return false;
+        }
+        long stamp = userEmailCache.stamp();
+        boolean exists = userRepository.existsByEmail(email);
+        if (exists) {
+            userEmailCache.putPresent(email, null, stamp);
+        } else {
+            userEmailCache.putAbsent(email, stamp);
+        }
+        return exists;
+    }
+
+    /**
+     * Of the given emails, return those already registered. Definite negatives from the
+     * email filter skip the database; the rest are checked with chunked IN queries.
+     */
+    public Set<String> findExistingEmails(Collection<String> emails) {
+        List<String> candidates = new ArrayList<>();
+        for (String email : new LinkedHashSet<>(emails)) {
+            if (email != null && !emailFilter.isDefinitelyAbsent(email)) {
+                candidates.add(email);
+            }
+        }
+
+        Set<String> existing = new HashSet<>();
+        for (int from = 0; from < candidates.size(); from += IN_CLAUSE_CHUNK_SIZE) {
+            int to = Math.min(from + IN_CLAUSE_CHUNK_SIZE, candidates.size());
+            existing.addAll(userRepository.findExistingEmails(candidates.subList(from, to)));
+        }
+        return existing;
+    }
+
+    /**
+     * Get user analytics (active split, age ranges, signups per month, subscriptions per user)
+     */
+    @Transactional(readOnly = true)
+    public UserAnalyticsDTO getUserAnalytics() {
+        return userAnalyticsStore.getAnalytics();
     }
 
     /**
@@ -178,6 +360,9 @@ public class UserService {
      */
     @Transactional(readOnly = true)
     public long getUserCount() {
+        if (userCounters.isSeeded()) {
+            return userCounters.getTotal();
+        }
         return userRepository.count();
     }
 
@@ -186,15 +371,64 @@ public class UserService {
      */
     @Transactional(readOnly = true)
     public long getActiveUserCount() {
+        if (userCounters.isSeeded()) {
+            return userCounters.getActive();
+        }
         return userRepository.countByIsActiveTrue();
     }
 
+    /**
+     * Stream every user to the sink in id order. Users are converted a batch at a time,
+     * so subscriptions are loaded per batch, and detached afterwards so the persistence
+     * context stays small. Returns the number exported.
+     */
+    @Transactional(readOnly = true)
+    public long exportUsers(Consumer<UserResponseDTO> sink) {
+        long count = 0;
+        List<User> batch = new ArrayList<>(EXPORT_BATCH_SIZE);
+        try (Stream<User> users = userRepository.streamAllByOrderById()) {
+            Iterator<User> iterator = users.iterator();
+            while (iterator.hasNext()) {
+                batch.add(iterator.next());
+                if (batch.size() == EXPORT_BATCH_SIZE || !iterator.hasNext()) {
+                    convertAll(batch).forEach(sink);
+                    batch.forEach(entityManager::detach);
+                    count += batch.size();
+                    batch.clear();
+                }
+            }
+        }
+        return count;
+    }
+
     // ========== PRIVATE HELPER METHODS ==========
 
+    private static LocalDateTime latest(LocalDateTime a, LocalDateTime b) {
+        return b != null && (a == null || b.isAfter(a)) ? b : a;
+    }
+
+    /**
+     * Save and flush a user so that an email clash the email filter could not
+     * know about (e.g. a row written outside this service) is still reported as
+     * a duplicate by the unique constraint
+     */
+    private User saveCheckingEmail(User user) {
+        try {
+            User savedUser = userRepository.save(user);
+            userRepository.flush();
+            return savedUser;
+        } catch (DataIntegrityViolationException e) {
+            if (!ConstraintViolations.isViolationOf(e, User.EMAIL_CONSTRAINT)) {
+                throw e;
+            }
+            throw new DuplicateResourceException("User with email " + user.getEmail() + " already exists");
+        }
+    }
+
     /**
      * Convert CreateUserRequestDTO to User entity
      */
-    private User convertToEntity(CreateUserRequestDTO requestDTO) {
+    static User convertToEntity(CreateUserRequestDTO requestDTO) {
         User user = new User();
         user.setFirstName(requestDTO.getFirstName());
         user.setLastName(requestDTO.getLastName());
@@ -230,9 +464,40 @@ public class UserService {
     }
 
     /**
-     * Convert User entity to UserResponseDTO
+     * Convert a list of users, loading the subscriptions of all of them with one
+     * IN-list query per chunk of ids instead of initializing each lazy collection
+     */
+    private List<UserResponseDTO> convertAll(List<User> users) {
+        Map<Long, List<SubscriptionSummary>> subscriptionsByUser = new HashMap<>();
+        List<Long> ids = users.stream().map(User::getId).collect(Collectors.toList());
+        for (int from = 0; from < ids.size(); from += IN_CLAUSE_CHUNK_SIZE) {
+            List<Long> chunk = ids.subList(from, Math.min(from + IN_CLAUSE_CHUNK_SIZE, ids.size()));
+            for (Object[] row : userRepository.findSubscriptionSummariesByUserIdIn(chunk)) {
+                subscriptionsByUser.computeIfAbsent((Long) row[0], id -> new ArrayList<>())
+                        .add(new SubscriptionSummary((Long) row[1], (String) row[2],
+                                (SubscriptionStatus) row[3], (LocalDate) row[4]));
+            }
+        }
+        return users.stream()
+                .map(user -> convertToResponseDTO(user, subscriptionsByUser.getOrDefault(user.getId(), List.of())))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Convert a single User entity to UserResponseDTO, reading its subscriptions collection
      */
     private UserResponseDTO convertToResponseDTO(User user) {
+        List<SubscriptionSummary> subscriptions = user.getSubscriptions() == null ? List.of()
+                : user.getSubscriptions().stream()
+                .map(sub -> new SubscriptionSummary(sub.getId(), sub.getPlanName(), sub.getStatus(), sub.getEndDate()))
+                .collect(Collectors.toList());
+        return convertToResponseDTO(user, subscriptions);
+    }
+
+    /**
+     * Convert User entity to UserResponseDTO
+     */
+    private UserResponseDTO convertToResponseDTO(User user, List<SubscriptionSummary> subscriptions) {
         UserResponseDTO responseDTO = new UserResponseDTO();
         responseDTO.setId(user.getId());
         responseDTO.setFirstName(user.getFirstName());
@@ -244,22 +509,30 @@ public class UserService {
         responseDTO.setCreatedAt(user.getCreatedAt());
         responseDTO.setUpdatedAt(user.getUpdatedAt());
         responseDTO.setFullName(user.getFullName());
-        responseDTO.setSubscriptionCount(user.getSubscriptions() != null ? user.getSubscriptions().size() : 0);
+        responseDTO.setSubscriptionCount(subscriptions.size());
 
-        // Set active subscriptions summary (only if subscriptions are loaded)
-        if (user.getSubscriptions() != null && !user.getSubscriptions().isEmpty()) {
-            List<UserResponseDTO.UserSubscriptionSummaryDTO> activeSubscriptions = user.getSubscriptions()
+        // Set active subscriptions summary (only if the user has subscriptions)
+        if (!subscriptions.isEmpty()) {
+            LocalDate today = LocalDate.now();
+            List<UserResponseDTO.UserSubscriptionSummaryDTO> activeSubscriptions = subscriptions
                     .stream()
-                    .filter(sub -> "ACTIVE".equals(sub.getStatus().name()) && !sub.isExpired())
+                    .filter(sub -> sub.status == SubscriptionStatus.ACTIVE
+                            && (sub.endDate == null || !sub.endDate.isBefore(today)))
                     .map(sub -> new UserResponseDTO.UserSubscriptionSummaryDTO(
-                            sub.getId(),
-                            sub.getPlanName(),
-                            sub.getStatus().name(),
-                            sub.getEndDate().toString()))
+                            sub.id,
+                            sub.planName,
+                            sub.status.name(),
+                            sub.endDate != null ? sub.endDate.toString() : null))
                     .collect(Collectors.toList());
             responseDTO.setActiveSubscriptions(activeSubscriptions);
         }
 
         return responseDTO;
     }
+
+    /**
+     * The subscription columns a user response needs
+     */
+    private record SubscriptionSummary(Long id, String planName, SubscriptionStatus status, LocalDate endDate) {
+    }
 }
\ No newline at end of file
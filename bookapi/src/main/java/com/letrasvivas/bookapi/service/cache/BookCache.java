@@ -0,0 +1,126 @@
+package com.letrasvivas.bookapi.service.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.letrasvivas.bookapi.dto.response.BookResponseDTO;
+import com.letrasvivas.bookapi.entity.Book;
+import com.letrasvivas.bookapi.event.BookChangedEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded near-cache of book responses, keyed by id with ISBN as a secondary key.
+ *
+ * Eviction is Caffeine's frequency-aware W-TinyLFU policy, so a burst of one-off
+ * lookups cannot push the popular titles out. Entries are invalidated after a book
+ * change commits; hit/miss/eviction metrics are published as "cache.*" meters.
+ *
+ * Responses are copied on the way in and out, so callers may modify what they get.
+ */
+@Component
+public class BookCache {
+
+    private final Cache<Long, BookResponseDTO> byId;
+    private final Cache<String, Long> idByIsbn;
+
+    // Bumped on every invalidation, so a load that raced with a write is not cached
+    private final AtomicLong generation = new AtomicLong();
+
+    public BookCache(@Value("${app.cache.books.max-size:10000}") long maxSize,
+                     @Value("${app.cache.books.ttl-minutes:30}") long ttlMinutes,
+                     MeterRegistry meterRegistry) {
+        this.byId = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofMinutes(ttlMinutes))
+                .recordStats()
+                .build();
+        this.idByIsbn = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofMinutes(ttlMinutes))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, byId, "books.byId");
+        CaffeineCacheMetrics.monitor(meterRegistry, idByIsbn, "books.byIsbn");
+    }
+
+    /**
+     * Cached response for a book id, or null on a miss
+     */
+    public BookResponseDTO getById(Long id) {
+        BookResponseDTO cached = byId.getIfPresent(id);
+        return cached != null ? new BookResponseDTO(cached) : null;
+    }
+
+    /**
+     * Cached response for an ISBN, or null on a miss
+     */
+    public BookResponseDTO getByIsbn(String isbn) {
+        Long id = idByIsbn.getIfPresent(isbn);
+        if (id == null) {
+            return null;
+        }
+        BookResponseDTO cached = byId.getIfPresent(id);
+        return cached != null && isbn.equals(cached.getIsbn()) ? new BookResponseDTO(cached) : null;
+    }
+
+    /**
+     * Token to take before reading a book from the database, to be handed back to {@link #put}
+     */
+    public long stamp() {
+        return generation.get();
+    }
+
+    /**
+     * Cache a freshly loaded response, unless a book changed since the stamp was taken
+     */
+    public void put(BookResponseDTO book, long stamp) {
+        if (book == null || book.getId() == null || generation.get() != stamp) {
+            return;
+        }
+        byId.put(book.getId(), new BookResponseDTO(book));
+        if (book.getIsbn() != null) {
+            idByIsbn.put(book.getIsbn(), book.getId());
+        }
+        // An invalidation may have slipped in between the check and the puts
+        if (generation.get() != stamp) {
+            evict(book.getId(), book.getIsbn());
+        }
+    }
+
+    public long size() {
+        return byId.estimatedSize();
+    }
+
+    public void clear() {
+        generation.incrementAndGet();
+        byId.invalidateAll();
+        idByIsbn.invalidateAll();
+    }
+
+    /**
+     * Drop the entries of a book once its change has committed
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookChanged(BookChangedEvent event) {
+        generation.incrementAndGet();
+        Book previous = event.getPrevious();
+        Book current = event.getCurrent();
+        evict(event.getBookId(), previous != null ? previous.getIsbn() : null);
+        if (current != null && current.getIsbn() != null) {
+            idByIsbn.invalidate(current.getIsbn());
+        }
+    }
+
+    private void evict(Long id, String isbn) {
+        byId.invalidate(id);
+        if (isbn != null) {
+            idByIsbn.invalidate(isbn);
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package com.letrasvivas.bookapi.service.cache;
+
+import com.letrasvivas.bookapi.entity.Book;
+import com.letrasvivas.bookapi.entity.Subscription;
+import com.letrasvivas.bookapi.entity.User;
+import com.letrasvivas.bookapi.event.UsersActivationChangedEvent;
+import com.letrasvivas.bookapi.event.UsersPurgedEvent;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostDeleteEventListener;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostInsertEventListener;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.event.spi.PostUpdateEventListener;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Change counters of the book and user collections, used as the version of
+ * listing responses for HTTP conditional requests.
+ *
+ * Bumped by Hibernate after each committed insert, update or delete, so every
+ * write through JPA counts whichever service made it. Subscription changes bump
+ * the user collection, since user responses embed their subscriptions.
+ * Versions restart on boot; the boot time is part of every tag.
+ */
+@Component
+public class CollectionVersions implements PostInsertEventListener, PostUpdateEventListener, PostDeleteEventListener {
+
+    public enum Collection {
+        BOOKS,
+        USERS
+    }
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    private final long epoch = System.currentTimeMillis();
+    private final Map<Collection, AtomicLong> versions = new EnumMap<>(Collection.class);
+    private final Map<Collection, AtomicLong> lastModified = new EnumMap<>(Collection.class);
+
+    public CollectionVersions(EntityManagerFactory entityManagerFactory) {
+        this.entityManagerFactory = entityManagerFactory;
+        for (Collection collection : Collection.values()) {
+            versions.put(collection, new AtomicLong());
+            lastModified.put(collection, new AtomicLong(epoch));
+        }
+    }
+
+    @PostConstruct
+    void register() {
+        EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry()
+                .getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_COMMIT_INSERT, this);
+        registry.appendListeners(EventType.POST_COMMIT_UPDATE, this);
+        registry.appendListeners(EventType.POST_COMMIT_DELETE, this);
+    }
+
+    /**
+     * Time the versions started counting (epoch milliseconds)
+     */
+    public long getEpoch() {
+        return epoch;
+    }
+
+    /**
+     * Number of committed changes to the collection since boot
+     */
+    public long getVersion(Collection collection) {
+        return versions.get(collection).get();
+    }
+
+    /**
+     * Time of the last committed change to the collection, or boot time (epoch milliseconds)
+     */
+    public long getLastModified(Collection collection) {
+        return lastModified.get(collection).get();
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        bump(event.getEntity());
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        bump(event.getEntity());
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        bump(event.getEntity());
+    }
+
+    /**
+     * Bulk activation changes are single statements that Hibernate does not report
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUsersActivationChanged(UsersActivationChangedEvent event) {
+        bump(Collection.USERS);
+    }
+
+    /**
+     * Bulk deletions are set-based statements that Hibernate does not report either
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUsersPurged(UsersPurgedEvent event) {
+        bump(Collection.USERS);
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        Class<?> type = persister.getMappedClass();
+        return type == Book.class || type == User.class || type == Subscription.class;
+    }
+
+    private void bump(Object entity) {
+        if (entity instanceof Book) {
+            bump(Collection.BOOKS);
+        } else if (entity instanceof User || entity instanceof Subscription) {
+            bump(Collection.USERS);
+        }
+    }
+
+    private void bump(Collection collection) {
+        // Timestamp first: a reader seeing the new version never sees an older time
+        lastModified.get(collection).accumulateAndGet(System.currentTimeMillis(), Math::max);
+        versions.get(collection).incrementAndGet();
+    }
+}
@@ -0,0 +1,193 @@
+package com.letrasvivas.bookapi.service.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.letrasvivas.bookapi.entity.User;
+import com.letrasvivas.bookapi.event.UserChangedEvent;
+import com.letrasvivas.bookapi.event.UsersPurgedEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded cache of email lookups: the id of the user registered with an email, or
+ * the fact that no user is.
+ *
+ * Entries are keyed by the trimmed, lower-cased email, so a change to any spelling
+ * of an address drops what is cached for all of them. The database compares emails
+ * exactly, so an entry only answers for the spelling it was loaded with. Absent
+ * entries expire quickly, as a signup can claim the email at any time. Once a user
+ * change commits, only the entries for the previous and current emails of the
+ * changed users are evicted, and lookups still in flight are not cached.
+ */
+@Component
+public class UserEmailCache {
+
+    private final Cache<String, Entry> byEmail;
+
+    // Bumped on every invalidation, so a lookup that raced with a write is not cached
+    private final AtomicLong generation = new AtomicLong();
+
+    public UserEmailCache(@Value("${app.cache.user-emails.max-size:50000}") long maxSize,
+                          @Value("${app.cache.user-emails.ttl-minutes:30}") long ttlMinutes,
+                          @Value("${app.cache.user-emails.absent-ttl-seconds:30}") long absentTtlSeconds,
+                          MeterRegistry meterRegistry) {
+        long presentTtl = Duration.ofMinutes(ttlMinutes).toNanos();
+        long absentTtl = Duration.ofSeconds(absentTtlSeconds).toNanos();
+        this.byEmail = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new Expiry<String, Entry>() {
+                    @Override
+                    public long expireAfterCreate(String key, Entry entry, long currentTime) {
+                        return entry.present ? presentTtl : absentTtl;
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, Entry entry, long currentTime,
+                                                  long currentDuration) {
+                        return expireAfterCreate(key, entry, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, Entry entry, long currentTime,
+                                                long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, byEmail, "users.byEmail");
+    }
+
+    /**
+     * Whether the email is known to belong to a user
+     */
+    public boolean isKnownPresent(String email) {
+        Entry entry = get(email);
+        return entry != null && entry.present;
+    }
+
+    /**
+     * Whether the email is known to belong to no user
+     */
+    public boolean isKnownAbsent(String email) {
+        Entry entry = get(email);
+        return entry != null && !entry.present;
+    }
+
+    /**
+     * Id of the user registered with the email, if cached
+     */
+    public Optional<Long> getId(String email) {
+        Entry entry = get(email);
+        return entry != null ? Optional.ofNullable(entry.userId) : Optional.empty();
+    }
+
+    /**
+     * Token to take before looking an email up in the database, to be handed back to
+     * {@link #putPresent} or {@link #putAbsent}
+     */
+    public long stamp() {
+        return generation.get();
+    }
+
+    /**
+     * Cache that the email belongs to a user, whose id may be unknown (null)
+     */
+    public void putPresent(String email, Long userId, long stamp) {
+        put(email, new Entry(email, true, userId), stamp);
+    }
+
+    /**
+     * Cache that the email belongs to no user
+     */
+    public void putAbsent(String email, long stamp) {
+        put(email, new Entry(email, false, null), stamp);
+    }
+
+    public long size() {
+        return byEmail.estimatedSize();
+    }
+
+    public void clear() {
+        generation.incrementAndGet();
+        byEmail.invalidateAll();
+    }
+
+    /**
+     * Drop the entries of the emails a user had and has once its change has committed
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        generation.incrementAndGet();
+        evict(event.getPrevious());
+        evict(event.getCurrent());
+    }
+
+    /**
+     * Drop the entries of bulk-deleted users once the deletion has committed
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUsersPurged(UsersPurgedEvent event) {
+        generation.incrementAndGet();
+        event.getUsers().forEach(this::evict);
+    }
+
+    // ========== PRIVATE HELPER METHODS ==========
+
+    private Entry get(String email) {
+        if (email == null) {
+            return null;
+        }
+        Entry entry = byEmail.getIfPresent(normalize(email));
+        return entry != null && entry.email.equals(email) ? entry : null;
+    }
+
+    private void put(String email, Entry entry, long stamp) {
+        if (email == null || generation.get() != stamp) {
+            return;
+        }
+        String key = normalize(email);
+        byEmail.asMap().merge(key, entry, (cached, loaded) ->
+                // Keep a known id rather than replacing it with an existence check's answer
+                cached.email.equals(loaded.email) && loaded.present && loaded.userId == null
+                        && cached.userId != null ? cached : loaded);
+        // An invalidation may have slipped in between the check and the put
+        if (generation.get() != stamp) {
+            byEmail.invalidate(key);
+        }
+    }
+
+    private void evict(User user) {
+        if (user != null && user.getEmail() != null) {
+            byEmail.invalidate(normalize(user.getEmail()));
+        }
+    }
+
+    private static String normalize(String email) {
+        return email.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Result of looking up one spelling of an email
+     */
+    private static final class Entry {
+        private final String email;
+        private final boolean present;
+        private final Long userId;
+
+        private Entry(String email, boolean present, Long userId) {
+            this.email = email;
+            this.present = present;
+            this.userId = userId;
+        }
+    }
+}
@@ -0,0 +1,401 @@
+package com.letrasvivas.bookapi.service.index;
+
+import com.letrasvivas.bookapi.entity.Book;
+import com.letrasvivas.bookapi.event.BookChangedEvent;
+import com.letrasvivas.bookapi.repository.BookRepository;
+import com.letrasvivas.bookapi.util.RoaringBitmap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.function.IntUnaryOperator;
+import java.util.stream.Stream;
+
+/**
+ * Roaring-bitmap index over the low-cardinality book attributes used by the
+ * advanced search: genre, availability, publication decade and page-count bucket.
+ *
+ * Each value of each dimension keeps the bitmap of the book ids having it, so
+ * filters are evaluated with bitmap AND/OR and facet counts are intersection
+ * cardinalities. Year and page ranges are answered from whole decades/buckets,
+ * checking the stored value only for the books in the partially covered ones,
+ * so results are exact. Sort keys are kept alongside to order the matches.
+ *
+ * Reads and writes are serialized; writes are applied after commit.
+ */
+@Component
+public class BookFacetIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(BookFacetIndex.class);
+
+    public enum Dimension {
+        GENRE("genre"),
+        AVAILABILITY("isAvailable"),
+        DECADE("decade"),
+        PAGES("pages");
+
+        private final String facetName;
+
+        Dimension(String facetName) {
+            this.facetName = facetName;
+        }
+
+        public String getFacetName() {
+            return facetName;
+        }
+    }
+
+    // Lower bounds of the page-count buckets
+    private static final int[] PAGE_BUCKETS = {1, 100, 200, 300, 500, 1000};
+
+    // Book properties the matches can be ordered by
+    private static final Map<String, Comparator<IndexedBook>> SORT_KEYS = Map.of(
+            "id", Comparator.comparing((IndexedBook book) -> book.id),
+            "title", Comparator.comparing((IndexedBook book) -> book.title, Comparator.nullsFirst(Comparator.naturalOrder())),
+            "author", Comparator.comparing((IndexedBook book) -> book.author, Comparator.nullsFirst(Comparator.naturalOrder())),
+            "genre", Comparator.comparing((IndexedBook book) -> book.genre, Comparator.nullsFirst(Comparator.naturalOrder())),
+            "publicationYear", Comparator.comparing((IndexedBook book) -> book.year, Comparator.nullsFirst(Comparator.naturalOrder())),
+            "pageCount", Comparator.comparing((IndexedBook book) -> book.pages, Comparator.nullsFirst(Comparator.naturalOrder())),
+            "isAvailable", Comparator.comparing((IndexedBook book) -> book.available)
+    );
+
+    private final BookRepository bookRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    private final Map<Long, IndexedBook> documents = new HashMap<>();
+    private final RoaringBitmap all = new RoaringBitmap();
+    private final Map<String, RoaringBitmap> byGenre = new TreeMap<>();
+    private final Map<Boolean, RoaringBitmap> byAvailability = new TreeMap<>();
+    private final NavigableMap<Integer, RoaringBitmap> byDecade = new TreeMap<>();
+    private final NavigableMap<Integer, RoaringBitmap> byPages = new TreeMap<>();
+
+    private volatile boolean ready = false;
+
+    public BookFacetIndex(BookRepository bookRepository, PlatformTransactionManager transactionManager) {
+        this.bookRepository = bookRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+    }
+
+    /**
+     * Whether the index has been loaded and can answer queries
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Whether the matches can be ordered by every property of the sort
+     */
+    public boolean supportsSort(Sort sort) {
+        return sort.stream().allMatch(order -> SORT_KEYS.containsKey(order.getProperty()));
+    }
+
+    /**
+     * Rebuild the whole index from the database
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void rebuild() {
+        ready = false;
+        documents.clear();
+        all.clear();
+        byGenre.clear();
+        byAvailability.clear();
+        byDecade.clear();
+        byPages.clear();
+
+        Boolean complete = transactionTemplate.execute(status -> {
+            try (Stream<Object[]> rows = bookRepository.streamFacetColumns()) {
+                return rows.map(IndexedBook::new).allMatch(this::add);
+            }
+        });
+        if (!Boolean.TRUE.equals(complete)) {
+            return;
+        }
+
+        ready = true;
+        logger.info("Book facet index built with {} books", documents.size());
+    }
+
+    /**
+     * Keep the index current with committed book changes
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onBookChanged(BookChangedEvent event) {
+        remove(event.getBookId());
+        if (event.getCurrent() != null && !add(new IndexedBook(event.getCurrent()))) {
+            ready = false;
+        }
+    }
+
+    /**
+     * Find the books matching every given filter (null filters are ignored), in sort
+     * order, with the facet counts of the matches. textMatches holds the ids already
+     * matched by the title/author terms, or is null when there are none.
+     */
+    public synchronized Result search(List<Long> textMatches, String genre, Boolean isAvailable,
+                                      Integer minYear, Integer maxYear,
+                                      Integer minPages, Integer maxPages, Sort sort) {
+        Map<Dimension, RoaringBitmap> filters = new EnumMap<>(Dimension.class);
+        if (genre != null) {
+            filters.put(Dimension.GENRE, bitmapOf(byGenre, genre));
+        }
+        if (isAvailable != null) {
+            filters.put(Dimension.AVAILABILITY, bitmapOf(byAvailability, isAvailable));
+        }
+        if (minYear != null || maxYear != null) {
+            filters.put(Dimension.DECADE, range(byDecade, decade -> decade + 9, minYear, maxYear, book -> book.year));
+        }
+        if (minPages != null || maxPages != null) {
+            filters.put(Dimension.PAGES, range(byPages, BookFacetIndex::pageBucketEnd, minPages, maxPages, book -> book.pages));
+        }
+
+        RoaringBitmap base = all;
+        if (textMatches != null) {
+            base = new RoaringBitmap();
+            for (Long id : textMatches) {
+                base.add(Math.toIntExact(id));
+            }
+            // The text index is updated by its own listener and may know ids this index does not yet
+            base = base.and(all);
+        }
+
+        Map<String, Map<String, Long>> facets = new LinkedHashMap<>();
+        facets.put(Dimension.GENRE.getFacetName(), counts(matching(base, filters, Dimension.GENRE), byGenre, Function.identity()));
+        facets.put(Dimension.AVAILABILITY.getFacetName(), counts(matching(base, filters, Dimension.AVAILABILITY), byAvailability, String::valueOf));
+        facets.put(Dimension.DECADE.getFacetName(), counts(matching(base, filters, Dimension.DECADE), byDecade, decade -> decade + "s"));
+        facets.put(Dimension.PAGES.getFacetName(), counts(matching(base, filters, Dimension.PAGES), byPages, BookFacetIndex::pageBucketLabel));
+
+        List<IndexedBook> matches = new ArrayList<>();
+        matching(base, filters, null).forEach(id -> matches.add(documents.get((long) id)));
+        matches.sort(comparatorOf(sort));
+
+        List<Long> ids = new ArrayList<>(matches.size());
+        matches.forEach(book -> ids.add(book.id));
+        return new Result(ids, facets);
+    }
+
+    /**
+     * Number of indexed books
+     */
+    public synchronized int size() {
+        return documents.size();
+    }
+
+    /**
+     * Matching book ids in sort order, and facet counts keyed by dimension, then value
+     */
+    public static final class Result {
+        private final List<Long> ids;
+        private final Map<String, Map<String, Long>> facets;
+
+        private Result(List<Long> ids, Map<String, Map<String, Long>> facets) {
+            this.ids = ids;
+            this.facets = facets;
+        }
+
+        public List<Long> getIds() {
+            return ids;
+        }
+
+        public Map<String, Map<String, Long>> getFacets() {
+            return facets;
+        }
+    }
+
+    // ========== PRIVATE HELPER METHODS ==========
+
+    /**
+     * Ids are stored as ints; returns false, leaving the index unusable, for one that does not fit
+     */
+    private boolean add(IndexedBook indexed) {
+        if (indexed.id > Integer.MAX_VALUE) {
+            ready = false;
+            logger.warn("Book id {} does not fit the facet index; advanced search falls back to the database", indexed.id);
+            return false;
+        }
+        int id = indexed.id.intValue();
+        documents.put(indexed.id, indexed);
+        all.add(id);
+        if (indexed.genre != null) {
+            byGenre.computeIfAbsent(indexed.genre, key -> new RoaringBitmap()).add(id);
+        }
+        byAvailability.computeIfAbsent(indexed.available, key -> new RoaringBitmap()).add(id);
+        if (indexed.year != null) {
+            byDecade.computeIfAbsent(decadeOf(indexed.year), key -> new RoaringBitmap()).add(id);
+        }
+        if (indexed.pages != null) {
+            byPages.computeIfAbsent(pageBucketOf(indexed.pages), key -> new RoaringBitmap()).add(id);
+        }
+        return true;
+    }
+
+    private void remove(Long bookId) {
+        IndexedBook indexed = documents.remove(bookId);
+        if (indexed == null) {
+            return;
+        }
+        int id = bookId.intValue();
+        all.remove(id);
+        removeFrom(byGenre, indexed.genre, id);
+        removeFrom(byAvailability, indexed.available, id);
+        removeFrom(byDecade, indexed.year != null ? decadeOf(indexed.year) : null, id);
+        removeFrom(byPages, indexed.pages != null ? pageBucketOf(indexed.pages) : null, id);
+    }
+
+    private static <K> void removeFrom(Map<K, RoaringBitmap> bitmaps, K key, int id) {
+        RoaringBitmap bitmap = key != null ? bitmaps.get(key) : null;
+        if (bitmap != null) {
+            bitmap.remove(id);
+            if (bitmap.isEmpty()) {
+                bitmaps.remove(key);
+            }
+        }
+    }
+
+    private static <K> RoaringBitmap bitmapOf(Map<K, RoaringBitmap> bitmaps, K key) {
+        RoaringBitmap bitmap = bitmaps.get(key);
+        return bitmap != null ? bitmap : new RoaringBitmap();
+    }
+
+    /**
+     * Books whose value lies in [min, max]: buckets fully inside the range are OR-ed
+     * whole, buckets straddling a bound contribute only the books that pass the check
+     */
+    private RoaringBitmap range(NavigableMap<Integer, RoaringBitmap> buckets, IntUnaryOperator bucketEnd,
+                                Integer min, Integer max, Function<IndexedBook, Integer> value) {
+        int low = min != null ? min : Integer.MIN_VALUE;
+        int high = max != null ? max : Integer.MAX_VALUE;
+        RoaringBitmap whole = new RoaringBitmap();
+        RoaringBitmap partial = new RoaringBitmap();
+        for (Map.Entry<Integer, RoaringBitmap> bucket : buckets.headMap(high, true).entrySet()) {
+            int start = bucket.getKey();
+            int end = bucketEnd.applyAsInt(start);
+            if (end < low) {
+                continue;
+            }
+            if (start >= low && end <= high) {
+                whole = whole.or(bucket.getValue());
+            } else {
+                bucket.getValue().forEach(id -> {
+                    Integer actual = value.apply(documents.get((long) id));
+                    if (actual >= low && actual <= high) {
+                        partial.add(id);
+                    }
+                });
+            }
+        }
+        return whole.or(partial);
+    }
+
+    /**
+     * Books passing the text matches and every filter except the excluded dimension's
+     */
+    private static RoaringBitmap matching(RoaringBitmap base, Map<Dimension, RoaringBitmap> filters, Dimension excluded) {
+        RoaringBitmap result = base;
+        for (Map.Entry<Dimension, RoaringBitmap> filter : filters.entrySet()) {
+            if (filter.getKey() != excluded) {
+                result = result.and(filter.getValue());
+            }
+        }
+        return result;
+    }
+
+    private static <K> Map<String, Long> counts(RoaringBitmap matches, Map<K, RoaringBitmap> bitmaps,
+                                                 Function<K, String> label) {
+        Map<String, Long> counts = new LinkedHashMap<>();
+        for (Map.Entry<K, RoaringBitmap> entry : bitmaps.entrySet()) {
+            long count = matches.andCardinality(entry.getValue());
+            if (count > 0) {
+                counts.put(label.apply(entry.getKey()), count);
+            }
+        }
+        return counts;
+    }
+
+    private static Comparator<IndexedBook> comparatorOf(Sort sort) {
+        Comparator<IndexedBook> comparator = (a, b) -> 0;
+        for (Sort.Order order : sort) {
+            Comparator<IndexedBook> key = SORT_KEYS.get(order.getProperty());
+            comparator = comparator.thenComparing(order.isAscending() ? key : key.reversed());
+        }
+        return comparator.thenComparing(SORT_KEYS.get("id"));
+    }
+
+    private static int decadeOf(int year) {
+        return Math.floorDiv(year, 10) * 10;
+    }
+
+    private static int pageBucketOf(int pages) {
+        int bucket = PAGE_BUCKETS[0];
+        for (int lowerBound : PAGE_BUCKETS) {
+            if (pages >= lowerBound) {
+                bucket = lowerBound;
+            }
+        }
+        return bucket;
+    }
+
+    private static int pageBucketEnd(int bucket) {
+        for (int lowerBound : PAGE_BUCKETS) {
+            if (lowerBound > bucket) {
+                return lowerBound - 1;
+            }
+        }
+        return Integer.MAX_VALUE;
+    }
+
+    private static String pageBucketLabel(int bucket) {
+        int end = pageBucketEnd(bucket);
+        return end == Integer.MAX_VALUE ? bucket + "+" : bucket + "-" + end;
+    }
+
+    /**
+     * Filter and sort attributes of a single book
+     */
+    private static final class IndexedBook {
+        private final Long id;
+        private final String title;
+        private final String author;
+        private final String genre;
+        private final Integer year;
+        private final Integer pages;
+        private final boolean available;
+
+        private IndexedBook(Book book) {
+            this.id = book.getId();
+            this.title = book.getTitle();
+            this.author = book.getAuthor();
+            this.genre = book.getGenre();
+            this.year = book.getPublicationYear();
+            this.pages = book.getPageCount();
+            this.available = Boolean.TRUE.equals(book.getIsAvailable());
+        }
+
+        private IndexedBook(Object[] row) {
+            this.id = (Long) row[0];
+            this.title = (String) row[1];
+            this.author = (String) row[2];
+            this.genre = (String) row[3];
+            this.year = (Integer) row[4];
+            this.pages = (Integer) row[5];
+            this.available = Boolean.TRUE.equals(row[6]);
+        }
+    }
+}
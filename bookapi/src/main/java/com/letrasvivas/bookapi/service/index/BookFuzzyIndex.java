@@ -0,0 +1,275 @@
+package com.letrasvivas.bookapi.service.index;
+
+import com.letrasvivas.bookapi.event.BookChangedEvent;
+import com.letrasvivas.bookapi.repository.BookRepository;
+import com.letrasvivas.bookapi.service.index.BookSearchIndex.Field;
+import com.letrasvivas.bookapi.util.BkTree;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * In-memory typo-tolerant lookup over the words of book titles and authors.
+ *
+ * The distinct words (lower-cased, without accents) live in a BK-tree. Each query
+ * word is matched to the vocabulary words within a few edits, allowing more edits
+ * for longer words, and a book matches when every query word matches a word of the
+ * searched field (title or author for ANY). Results are ranked by the total number
+ * of edits, so "Garcia Marques" finds "Gabriel García Márquez" and "Borjes" finds
+ * "Jorge Luis Borges".
+ *
+ * Words no longer used by any book stay in the tree but are skipped; the tree is
+ * rebuilt once they outnumber the live ones. Reads are lock-free; writes are
+ * serialized and applied after commit.
+ */
+@Component
+public class BookFuzzyIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(BookFuzzyIndex.class);
+
+    // Upper bound on edits per query word, whatever the caller asks for
+    public static final int MAX_DISTANCE = 2;
+
+    private static final Pattern NON_WORD = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private final BookRepository bookRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    private final Map<Long, IndexedBook> documents = new ConcurrentHashMap<>();
+    private final Map<String, Set<Long>> titlePostings = new ConcurrentHashMap<>();
+    private final Map<String, Set<Long>> authorPostings = new ConcurrentHashMap<>();
+    private volatile BkTree vocabulary = new BkTree();
+
+    private volatile boolean ready = false;
+
+    public BookFuzzyIndex(BookRepository bookRepository, PlatformTransactionManager transactionManager) {
+        this.bookRepository = bookRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+    }
+
+    /**
+     * Whether the index has been loaded and can answer queries
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Rebuild the whole index from the database
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void rebuild() {
+        ready = false;
+        documents.clear();
+        titlePostings.clear();
+        authorPostings.clear();
+        vocabulary = new BkTree();
+
+        transactionTemplate.executeWithoutResult(status -> {
+            try (Stream<Object[]> rows = bookRepository.streamSearchText()) {
+                rows.forEach(row -> add((Long) row[0], (String) row[1], (String) row[2]));
+            }
+        });
+
+        ready = true;
+        logger.info("Book fuzzy index built with {} books and {} words", documents.size(), vocabulary.size());
+    }
+
+    /**
+     * Keep the index current with committed book changes
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onBookChanged(BookChangedEvent event) {
+        remove(event.getBookId());
+        if (event.getCurrent() != null) {
+            add(event.getBookId(), event.getCurrent().getTitle(), event.getCurrent().getAuthor());
+        }
+        if (vocabulary.size() > 2 * (titlePostings.size() + authorPostings.size()) + 1024) {
+            compact();
+        }
+    }
+
+    /**
+     * Ids of the books whose field has, for every word of the term, a word within the
+     * allowed edits: none for words of up to 2 letters, 1 up to 5 letters, and
+     * otherwise maxDistance (capped at MAX_DISTANCE). Closest matches first, then by id.
+     */
+    public List<Long> search(String term, Field field, int maxDistance, int limit) {
+        List<String> words = words(term);
+        if (words.isEmpty()) {
+            return Collections.emptyList();
+        }
+        int cap = Math.min(Math.max(maxDistance, 0), MAX_DISTANCE);
+
+        // For each query word, the distance of every vocabulary word it matches
+        List<Map<String, Integer>> matches = new ArrayList<>(words.size());
+        for (String word : words) {
+            Map<String, Integer> similar = new HashMap<>();
+            vocabulary.search(word, Math.min(cap, allowedEdits(word)), similar::put);
+            if (similar.isEmpty()) {
+                return Collections.emptyList();
+            }
+            matches.add(similar);
+        }
+
+        List<Map<String, Set<Long>>> fields = new ArrayList<>(2);
+        if (field != Field.AUTHOR) {
+            fields.add(titlePostings);
+        }
+        if (field != Field.TITLE) {
+            fields.add(authorPostings);
+        }
+        Map<Long, Integer> scores = score(matches, fields);
+        return scores.entrySet().stream()
+                .sorted(Map.Entry.<Long, Integer>comparingByValue().thenComparing(Map.Entry.comparingByKey()))
+                .limit(limit)
+                .map(Map.Entry::getKey)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Number of indexed books
+     */
+    public int size() {
+        return documents.size();
+    }
+
+    // ========== PRIVATE HELPER METHODS ==========
+
+    /**
+     * Total edits of the books matching every query word in one of the fields, each
+     * word counting its closest match
+     */
+    private static Map<Long, Integer> score(List<Map<String, Integer>> matches,
+                                            List<Map<String, Set<Long>>> fields) {
+        Map<Long, Integer> scores = null;
+        for (Map<String, Integer> similar : matches) {
+            Map<Long, Integer> wordScores = new HashMap<>();
+            similar.forEach((word, distance) -> {
+                for (Map<String, Set<Long>> postings : fields) {
+                    Set<Long> posting = postings.get(word);
+                    if (posting != null) {
+                        for (Long id : posting) {
+                            wordScores.merge(id, distance, Math::min);
+                        }
+                    }
+                }
+            });
+            if (scores == null) {
+                scores = wordScores;
+            } else {
+                Map<Long, Integer> previous = scores;
+                scores = new HashMap<>();
+                for (Map.Entry<Long, Integer> entry : wordScores.entrySet()) {
+                    Integer score = previous.get(entry.getKey());
+                    if (score != null) {
+                        scores.put(entry.getKey(), score + entry.getValue());
+                    }
+                }
+            }
+            if (scores.isEmpty()) {
+                break;
+            }
+        }
+        return scores;
+    }
+
+    private static int allowedEdits(String word) {
+        if (word.length() <= 2) {
+            return 0;
+        }
+        return word.length() <= 5 ? 1 : MAX_DISTANCE;
+    }
+
+    private void add(Long id, String title, String author) {
+        IndexedBook indexed = new IndexedBook(words(title), words(author));
+        documents.put(id, indexed);
+        addPostings(id, indexed.titleWords, titlePostings);
+        addPostings(id, indexed.authorWords, authorPostings);
+    }
+
+    private void remove(Long id) {
+        IndexedBook indexed = documents.remove(id);
+        if (indexed != null) {
+            removePostings(id, indexed.titleWords, titlePostings);
+            removePostings(id, indexed.authorWords, authorPostings);
+        }
+    }
+
+    private void addPostings(Long id, List<String> words, Map<String, Set<Long>> postings) {
+        for (String word : words) {
+            postings.computeIfAbsent(word, key -> {
+                vocabulary.add(key);
+                return ConcurrentHashMap.newKeySet();
+            }).add(id);
+        }
+    }
+
+    private static void removePostings(Long id, List<String> words, Map<String, Set<Long>> postings) {
+        for (String word : words) {
+            Set<Long> posting = postings.get(word);
+            if (posting != null) {
+                posting.remove(id);
+                if (posting.isEmpty()) {
+                    postings.remove(word, posting);
+                }
+            }
+        }
+    }
+
+    /**
+     * Rebuild the tree from the words still in use
+     */
+    private void compact() {
+        BkTree compacted = new BkTree();
+        titlePostings.keySet().forEach(compacted::add);
+        authorPostings.keySet().forEach(compacted::add);
+        vocabulary = compacted;
+        logger.debug("Book fuzzy vocabulary compacted to {} words", compacted.size());
+    }
+
+    private static List<String> words(String text) {
+        String normalized = BookSuggestIndex.normalize(text);
+        if (normalized.isEmpty()) {
+            return Collections.emptyList();
+        }
+        Set<String> words = new LinkedHashSet<>();
+        for (String word : NON_WORD.split(normalized)) {
+            if (!word.isEmpty()) {
+                words.add(word);
+            }
+        }
+        return new ArrayList<>(words);
+    }
+
+    /**
+     * Distinct normalized words of a single book
+     */
+    private static final class IndexedBook {
+        private final List<String> titleWords;
+        private final List<String> authorWords;
+
+        private IndexedBook(List<String> titleWords, List<String> authorWords) {
+            this.titleWords = titleWords;
+            this.authorWords = authorWords;
+        }
+    }
+}
@@ -0,0 +1,231 @@
+package com.letrasvivas.bookapi.service.index;
+
+import com.letrasvivas.bookapi.event.BookChangedEvent;
+import com.letrasvivas.bookapi.repository.BookRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * In-memory trigram index over book titles and authors.
+ *
+ * Answers the same case-insensitive "contains" queries as the LIKE '%term%'
+ * repository methods: the trigram postings narrow the candidates and every
+ * candidate is then verified against its lower-cased text, so results are exact.
+ * Terms shorter than a trigram are answered by scanning the in-memory documents.
+ *
+ * Reads are lock-free; writes are serialized and applied after commit.
+ */
+@Component
+public class BookSearchIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(BookSearchIndex.class);
+
+    private static final int GRAM_SIZE = 3;
+
+    public enum Field {
+        TITLE,
+        AUTHOR,
+        ANY
+    }
+
+    private final BookRepository bookRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    private final Map<Long, IndexedBook> documents = new ConcurrentHashMap<>();
+    private final Map<String, Set<Long>> titlePostings = new ConcurrentHashMap<>();
+    private final Map<String, Set<Long>> authorPostings = new ConcurrentHashMap<>();
+
+    private volatile boolean ready = false;
+
+    public BookSearchIndex(BookRepository bookRepository, PlatformTransactionManager transactionManager) {
+        this.bookRepository = bookRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+    }
+
+    /**
+     * Whether the index has been loaded and can answer queries
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Rebuild the whole index from the database
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void rebuild() {
+        ready = false;
+        documents.clear();
+        titlePostings.clear();
+        authorPostings.clear();
+
+        transactionTemplate.executeWithoutResult(status -> {
+            try (Stream<Object[]> rows = bookRepository.streamSearchText()) {
+                rows.forEach(row -> add((Long) row[0], (String) row[1], (String) row[2]));
+            }
+        });
+
+        ready = true;
+        logger.info("Book search index built with {} books", documents.size());
+    }
+
+    /**
+     * Keep the index current with committed book changes
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onBookChanged(BookChangedEvent event) {
+        remove(event.getBookId());
+        if (event.getCurrent() != null) {
+            add(event.getBookId(), event.getCurrent().getTitle(), event.getCurrent().getAuthor());
+        }
+    }
+
+    /**
+     * Find the ids of books whose field contains the term (case insensitive), ordered by id
+     */
+    public List<Long> search(String term, Field field) {
+        if (term == null) {
+            return Collections.emptyList();
+        }
+        String needle = normalize(term);
+
+        List<Long> matches = new ArrayList<>();
+        for (Long id : candidates(needle, field)) {
+            IndexedBook book = documents.get(id);
+            if (book != null && book.matches(needle, field)) {
+                matches.add(id);
+            }
+        }
+        Collections.sort(matches);
+        return matches;
+    }
+
+    /**
+     * Number of indexed books
+     */
+    public int size() {
+        return documents.size();
+    }
+
+    // ========== PRIVATE HELPER METHODS ==========
+
+    private Iterable<Long> candidates(String needle, Field field) {
+        if (needle.length() < GRAM_SIZE) {
+            return documents.keySet();
+        }
+        switch (field) {
+            case TITLE:
+                return smallestPosting(needle, titlePostings);
+            case AUTHOR:
+                return smallestPosting(needle, authorPostings);
+            default:
+                Set<Long> union = new HashSet<>(smallestPosting(needle, titlePostings));
+                union.addAll(smallestPosting(needle, authorPostings));
+                return union;
+        }
+    }
+
+    /**
+     * Every match must contain every trigram of the needle, so the rarest trigram
+     * gives the smallest complete candidate set
+     */
+    private Set<Long> smallestPosting(String needle, Map<String, Set<Long>> postings) {
+        Set<Long> smallest = null;
+        for (String gram : grams(needle)) {
+            Set<Long> posting = postings.get(gram);
+            if (posting == null) {
+                return Collections.emptySet();
+            }
+            if (smallest == null || posting.size() < smallest.size()) {
+                smallest = posting;
+            }
+        }
+        return smallest != null ? smallest : Collections.emptySet();
+    }
+
+    private void add(Long id, String title, String author) {
+        IndexedBook indexed = new IndexedBook(normalize(title), normalize(author));
+        documents.put(id, indexed);
+        addPostings(id, indexed.title, titlePostings);
+        addPostings(id, indexed.author, authorPostings);
+    }
+
+    private void remove(Long id) {
+        IndexedBook indexed = documents.remove(id);
+        if (indexed != null) {
+            removePostings(id, indexed.title, titlePostings);
+            removePostings(id, indexed.author, authorPostings);
+        }
+    }
+
+    private void addPostings(Long id, String text, Map<String, Set<Long>> postings) {
+        for (String gram : grams(text)) {
+            postings.computeIfAbsent(gram, key -> ConcurrentHashMap.newKeySet()).add(id);
+        }
+    }
+
+    private void removePostings(Long id, String text, Map<String, Set<Long>> postings) {
+        for (String gram : grams(text)) {
+            Set<Long> posting = postings.get(gram);
+            if (posting != null) {
+                posting.remove(id);
+                if (posting.isEmpty()) {
+                    postings.remove(gram, posting);
+                }
+            }
+        }
+    }
+
+    private static Set<String> grams(String text) {
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + GRAM_SIZE <= text.length(); i++) {
+            grams.add(text.substring(i, i + GRAM_SIZE));
+        }
+        return grams;
+    }
+
+    private static String normalize(String text) {
+        return text == null ? "" : text.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Lower-cased searchable text of a single book
+     */
+    private static final class IndexedBook {
+        private final String title;
+        private final String author;
+
+        private IndexedBook(String title, String author) {
+            this.title = title;
+            this.author = author;
+        }
+
+        private boolean matches(String needle, Field field) {
+            switch (field) {
+                case TITLE:
+                    return title.contains(needle);
+                case AUTHOR:
+                    return author.contains(needle);
+                default:
+                    return title.contains(needle) || author.contains(needle);
+            }
+        }
+    }
+}
@@ -0,0 +1,290 @@
+package com.letrasvivas.bookapi.service.index;
+
+import com.letrasvivas.bookapi.entity.Book;
+import com.letrasvivas.bookapi.event.BookChangedEvent;
+import com.letrasvivas.bookapi.repository.BookRepository;
+import com.letrasvivas.bookapi.util.Hashing;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * MinHash / LSH index for "more like this" book recommendations.
+ *
+ * Each book is reduced to a set of features (title and description words, plus
+ * weighted author and genre features) and summarised by a MinHash signature, whose slot-wise
+ * agreement with another signature estimates the Jaccard similarity of the two
+ * feature sets. Signatures are split into bands; books sharing any band land in
+ * the same LSH bucket, so a query only scores the books it shares a bucket with.
+ *
+ * Reads are lock-free; writes are serialized and applied after commit.
+ */
+@Component
+public class BookSimilarityIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(BookSimilarityIndex.class);
+
+    private static final int NUM_HASHES = 64;
+    // 32 bands of 2 rows: pairs above roughly 0.2 Jaccard are very likely to share a bucket
+    private static final int BANDS = 32;
+    private static final int ROWS_PER_BAND = NUM_HASHES / BANDS;
+
+    // Feature copies for author and genre, which say more about a book than any single word
+    private static final int AUTHOR_WEIGHT = 6;
+    private static final int GENRE_WEIGHT = 2;
+
+    private static final int MIN_WORD_LENGTH = 3;
+    private static final Set<String> STOP_WORDS = Set.of(
+            "the", "and", "for", "with", "from", "that", "this", "los", "las", "del", "una", "por", "con", "para"
+    );
+
+    private static final long[] SEEDS = new long[NUM_HASHES];
+
+    static {
+        long seed = 0x9e3779b97f4a7c15L;
+        for (int i = 0; i < NUM_HASHES; i++) {
+            seed = Hashing.mix(seed + 0x9e3779b97f4a7c15L);
+            SEEDS[i] = seed;
+        }
+    }
+
+    private final BookRepository bookRepository;
+
+    private final Map<Long, int[]> signatures = new ConcurrentHashMap<>();
+    private final Map<Long, Set<Long>> buckets = new ConcurrentHashMap<>();
+
+    private volatile boolean ready = false;
+
+    public BookSimilarityIndex(BookRepository bookRepository) {
+        this.bookRepository = bookRepository;
+    }
+
+    /**
+     * Whether the index has been loaded and can answer queries
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    public boolean contains(Long bookId) {
+        return signatures.containsKey(bookId);
+    }
+
+    /**
+     * Rebuild the whole index from the database
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void rebuild() {
+        ready = false;
+        signatures.clear();
+        buckets.clear();
+
+        List<Book> books = bookRepository.findAll();
+        books.forEach(this::add);
+
+        ready = true;
+        logger.info("Book similarity index built with {} books in {} buckets", signatures.size(), buckets.size());
+    }
+
+    /**
+     * Keep the index current with committed book changes
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onBookChanged(BookChangedEvent event) {
+        remove(event.getBookId());
+        if (event.getCurrent() != null) {
+            add(event.getCurrent());
+        }
+    }
+
+    /**
+     * Ids of the books most similar to the given one, best first, at most limit of them
+     */
+    public List<Long> findSimilar(Long bookId, int limit) {
+        int[] signature = signatures.get(bookId);
+        if (signature == null || limit <= 0) {
+            return Collections.emptyList();
+        }
+
+        Set<Long> candidates = new HashSet<>();
+        for (int band = 0; band < BANDS; band++) {
+            Set<Long> bucket = buckets.get(bucketKey(band, signature));
+            if (bucket != null) {
+                candidates.addAll(bucket);
+            }
+        }
+        candidates.remove(bookId);
+
+        // Bounded min-heap: the weakest of the current top-k sits on top and is evicted first
+        Comparator<ScoredBook> byScore = Comparator.comparingInt((ScoredBook scored) -> scored.matches)
+                .thenComparing(scored -> scored.id, Comparator.reverseOrder());
+        PriorityQueue<ScoredBook> top = new PriorityQueue<>(limit + 1, byScore);
+        for (Long candidate : candidates) {
+            int[] other = signatures.get(candidate);
+            if (other == null) {
+                continue;
+            }
+            top.add(new ScoredBook(candidate, matchingSlots(signature, other)));
+            if (top.size() > limit) {
+                top.poll();
+            }
+        }
+
+        List<ScoredBook> ranked = new ArrayList<>(top);
+        ranked.sort(byScore.reversed());
+        List<Long> ids = new ArrayList<>(ranked.size());
+        ranked.forEach(scored -> ids.add(scored.id));
+        return ids;
+    }
+
+    /**
+     * Estimated Jaccard similarity of two indexed books, or 0 if either is unknown
+     */
+    public double similarity(Long firstId, Long secondId) {
+        int[] first = signatures.get(firstId);
+        int[] second = signatures.get(secondId);
+        if (first == null || second == null) {
+            return 0;
+        }
+        return (double) matchingSlots(first, second) / NUM_HASHES;
+    }
+
+    /**
+     * Number of indexed books
+     */
+    public int size() {
+        return signatures.size();
+    }
+
+    // ========== PRIVATE HELPER METHODS ==========
+
+    private void add(Book book) {
+        Set<String> features = features(book);
+        if (features.isEmpty()) {
+            return;
+        }
+        int[] signature = signature(features);
+        signatures.put(book.getId(), signature);
+        for (int band = 0; band < BANDS; band++) {
+            buckets.computeIfAbsent(bucketKey(band, signature), key -> ConcurrentHashMap.newKeySet())
+                    .add(book.getId());
+        }
+    }
+
+    private void remove(Long id) {
+        int[] signature = signatures.remove(id);
+        if (signature == null) {
+            return;
+        }
+        for (int band = 0; band < BANDS; band++) {
+            long key = bucketKey(band, signature);
+            Set<Long> bucket = buckets.get(key);
+            if (bucket != null) {
+                bucket.remove(id);
+                if (bucket.isEmpty()) {
+                    buckets.remove(key, bucket);
+                }
+            }
+        }
+    }
+
+    private static Set<String> features(Book book) {
+        Set<String> features = new HashSet<>();
+        addWords(features, "w:", book.getTitle());
+        addWords(features, "w:", book.getDescription());
+        addWeighted(features, "a:", book.getAuthor(), AUTHOR_WEIGHT);
+        addWeighted(features, "g:", book.getGenre(), GENRE_WEIGHT);
+        return features;
+    }
+
+    /**
+     * Add a whole-value feature several times over, so it outweighs individual words
+     */
+    private static void addWeighted(Set<String> features, String prefix, String value, int weight) {
+        if (value == null || value.isBlank()) {
+            return;
+        }
+        String normalized = normalize(value);
+        for (int copy = 0; copy < weight; copy++) {
+            features.add(prefix + copy + ":" + normalized);
+        }
+    }
+
+    private static void addWords(Set<String> features, String prefix, String text) {
+        if (text == null) {
+            return;
+        }
+        for (String word : normalize(text).split("[^\\p{L}\\p{N}]+")) {
+            if (word.length() >= MIN_WORD_LENGTH && !STOP_WORDS.contains(word)) {
+                features.add(prefix + word);
+            }
+        }
+    }
+
+    private static int[] signature(Set<String> features) {
+        int[] signature = new int[NUM_HASHES];
+        Arrays.fill(signature, Integer.MAX_VALUE);
+        for (String feature : features) {
+            long base = Hashing.hash64(feature);
+            for (int i = 0; i < NUM_HASHES; i++) {
+                int value = (int) (Hashing.mix(base ^ SEEDS[i]) >>> 33);
+                if (value < signature[i]) {
+                    signature[i] = value;
+                }
+            }
+        }
+        return signature;
+    }
+
+    private static int matchingSlots(int[] first, int[] second) {
+        int matches = 0;
+        for (int i = 0; i < NUM_HASHES; i++) {
+            if (first[i] == second[i]) {
+                matches++;
+            }
+        }
+        return matches;
+    }
+
+    private static long bucketKey(int band, int[] signature) {
+        long key = band;
+        for (int row = band * ROWS_PER_BAND; row < (band + 1) * ROWS_PER_BAND; row++) {
+            key = Hashing.mix(key * 31 + signature[row]);
+        }
+        return key;
+    }
+
+    /**
+     * Lower-case and strip accents, so "García" and "garcia" are the same feature
+     */
+    private static String normalize(String text) {
+        String decomposed = Normalizer.normalize(text.trim().toLowerCase(Locale.ROOT), Normalizer.Form.NFD);
+        return decomposed.replaceAll("\\p{M}+", "");
+    }
+
+    private static class ScoredBook {
+        private final Long id;
+        private final int matches;
+
+        private ScoredBook(Long id, int matches) {
+            this.id = id;
+            this.matches = matches;
+        }
+    }
+}
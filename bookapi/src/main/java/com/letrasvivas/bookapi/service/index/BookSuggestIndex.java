@@ -0,0 +1,367 @@
+package com.letrasvivas.bookapi.service.index;
+
+import com.letrasvivas.bookapi.entity.Book;
+import com.letrasvivas.bookapi.event.BookChangedEvent;
+import com.letrasvivas.bookapi.repository.BookRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * In-memory prefix trie over normalized book titles and authors, for autocomplete.
+ *
+ * Text is lower-cased and stripped of accents, and every word start is indexed, so
+ * "cort" completes "Julio Cortázar". A completion's weight is the number of books
+ * carrying that title or author. Each trie node caches its best completions, so a
+ * lookup is a walk down the prefix and a copy of that list, independent of catalog
+ * size; the cost is paid on writes, which only touch the nodes on the changed
+ * text's paths.
+ *
+ * Reads are lock-free; writes are serialized and applied after commit.
+ */
+@Component
+public class BookSuggestIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(BookSuggestIndex.class);
+
+    // Completions cached per node, and so the largest limit a lookup can ask for
+    public static final int MAX_SUGGESTIONS = 20;
+
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private static final Completion[] NONE = new Completion[0];
+
+    private static final Comparator<Completion> RANKING = Comparator
+            .comparingLong(Completion::getWeight).reversed()
+            .thenComparing(completion -> completion.key.text)
+            .thenComparing(completion -> completion.key.source);
+
+    public enum Source {
+        TITLE,
+        AUTHOR
+    }
+
+    private final BookRepository bookRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    // Guarded by this; readers only touch the trie
+    private final Map<Key, Completion> completions = new HashMap<>();
+    private volatile Node root = new Node();
+    private volatile boolean ready = false;
+
+    public BookSuggestIndex(BookRepository bookRepository, PlatformTransactionManager transactionManager) {
+        this.bookRepository = bookRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+    }
+
+    /**
+     * Whether the index has been loaded and can answer queries
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Rebuild the whole trie from the database
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void rebuild() {
+        ready = false;
+        completions.clear();
+        root = new Node();
+
+        transactionTemplate.executeWithoutResult(status -> {
+            try (Stream<Object[]> rows = bookRepository.streamTitlesAndAuthors()) {
+                rows.forEach(row -> {
+                    add(Source.TITLE, (String) row[0]);
+                    add(Source.AUTHOR, (String) row[1]);
+                });
+            }
+        });
+
+        ready = true;
+        logger.info("Book suggest index built with {} completions", completions.size());
+    }
+
+    /**
+     * Keep the trie current with committed book changes
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onBookChanged(BookChangedEvent event) {
+        Book previous = event.getPrevious();
+        Book current = event.getCurrent();
+        if (!Objects.equals(title(previous), title(current))) {
+            remove(Source.TITLE, title(previous));
+            add(Source.TITLE, title(current));
+        }
+        if (!Objects.equals(author(previous), author(current))) {
+            remove(Source.AUTHOR, author(previous));
+            add(Source.AUTHOR, author(current));
+        }
+    }
+
+    /**
+     * Best completions of a prefix, highest weight first. At most MAX_SUGGESTIONS
+     * are returned, whatever the limit.
+     */
+    public List<Completion> suggest(String prefix, int limit) {
+        String normalized = normalize(prefix);
+        if (normalized.isEmpty()) {
+            return List.of();
+        }
+        Node node = walk(normalized, 0);
+        if (node == null) {
+            return List.of();
+        }
+        Completion[] top = node.top;
+        return List.of(Arrays.copyOf(top, Math.min(limit, top.length)));
+    }
+
+    /**
+     * Number of distinct titles and authors in the index
+     */
+    public synchronized int size() {
+        return completions.size();
+    }
+
+    /**
+     * Lower-case, strip accents and collapse whitespace
+     */
+    public static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        String stripped = DIACRITICS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("");
+        return WHITESPACE.matcher(stripped.toLowerCase(Locale.ROOT)).replaceAll(" ").trim();
+    }
+
+    // ========== PRIVATE HELPER METHODS ==========
+
+    private void add(Source source, String text) {
+        Key key = new Key(source, normalize(text));
+        if (key.text.isEmpty()) {
+            return;
+        }
+        Completion existing = completions.get(key);
+        Completion completion = existing == null
+                ? new Completion(key, WHITESPACE.matcher(text).replaceAll(" ").trim(), 1)
+                : new Completion(key, existing.text, existing.weight + 1);
+        completions.put(key, completion);
+
+        for (int start : wordStarts(key.text)) {
+            Node node = root;
+            for (int i = start; i < key.text.length(); i++) {
+                node = node.children.computeIfAbsent(key.text.charAt(i), c -> new Node());
+                promote(node, completion);
+            }
+            if (existing == null) {
+                node.ends.add(key);
+            }
+        }
+    }
+
+    private void remove(Source source, String text) {
+        Key key = new Key(source, normalize(text));
+        Completion existing = completions.get(key);
+        if (existing == null) {
+            return;
+        }
+        Completion completion = existing.weight > 1
+                ? new Completion(key, existing.text, existing.weight - 1)
+                : null;
+        if (completion != null) {
+            completions.put(key, completion);
+        } else {
+            completions.remove(key);
+        }
+
+        List<Integer> starts = wordStarts(key.text);
+        if (completion == null) {
+            for (int start : starts) {
+                Node end = walk(key.text, start);
+                if (end != null) {
+                    end.ends.remove(key);
+                }
+            }
+        }
+        for (int start : starts) {
+            // Nodes shared with an earlier suffix of the same text may already be pruned
+            List<Node> path = new ArrayList<>();
+            path.add(root);
+            for (int i = start; i < key.text.length(); i++) {
+                Node child = path.get(path.size() - 1).children.get(key.text.charAt(i));
+                if (child == null) {
+                    break;
+                }
+                path.add(child);
+            }
+            for (int depth = path.size() - 1; depth > 0; depth--) {
+                Node node = path.get(depth);
+                if (node.ends.isEmpty() && node.children.isEmpty()) {
+                    path.get(depth - 1).children.remove(key.text.charAt(start + depth - 1));
+                } else {
+                    demote(node, key, completion);
+                }
+            }
+        }
+    }
+
+    private Node walk(String text, int start) {
+        Node node = root;
+        for (int i = start; i < text.length() && node != null; i++) {
+            node = node.children.get(text.charAt(i));
+        }
+        return node;
+    }
+
+    /**
+     * A completion gained weight or appeared: it can only move up in a node's list
+     */
+    private static void promote(Node node, Completion completion) {
+        List<Completion> top = new ArrayList<>(node.top.length + 1);
+        for (Completion entry : node.top) {
+            if (!entry.key.equals(completion.key)) {
+                top.add(entry);
+            }
+        }
+        top.add(completion);
+        top.sort(RANKING);
+        node.top = top.subList(0, Math.min(MAX_SUGGESTIONS, top.size())).toArray(NONE);
+    }
+
+    /**
+     * A completion lost weight or disappeared. If it was in a full list, something
+     * outside the list may now outrank it, so the list is recomputed from the subtree.
+     */
+    private void demote(Node node, Key key, Completion completion) {
+        Completion[] top = node.top;
+        int index = -1;
+        for (int i = 0; i < top.length; i++) {
+            if (top[i].key.equals(key)) {
+                index = i;
+                break;
+            }
+        }
+        if (index < 0) {
+            return;
+        }
+        if (top.length == MAX_SUGGESTIONS) {
+            node.top = best(node);
+            return;
+        }
+        List<Completion> updated = new ArrayList<>(Arrays.asList(top));
+        if (completion != null) {
+            updated.set(index, completion);
+            updated.sort(RANKING);
+        } else {
+            updated.remove(index);
+        }
+        node.top = updated.toArray(NONE);
+    }
+
+    private Completion[] best(Node node) {
+        Map<Key, Completion> reachable = new LinkedHashMap<>();
+        List<Node> pending = new ArrayList<>();
+        pending.add(node);
+        while (!pending.isEmpty()) {
+            Node next = pending.remove(pending.size() - 1);
+            for (Key key : next.ends) {
+                Completion completion = completions.get(key);
+                if (completion != null) {
+                    reachable.put(key, completion);
+                }
+            }
+            pending.addAll(next.children.values());
+        }
+        return reachable.values().stream()
+                .sorted(RANKING)
+                .limit(MAX_SUGGESTIONS)
+                .toArray(Completion[]::new);
+    }
+
+    private static List<Integer> wordStarts(String text) {
+        List<Integer> starts = new ArrayList<>();
+        starts.add(0);
+        for (int i = 1; i < text.length(); i++) {
+            if (text.charAt(i - 1) == ' ') {
+                starts.add(i);
+            }
+        }
+        return starts;
+    }
+
+    private static String title(Book book) {
+        return book != null ? book.getTitle() : null;
+    }
+
+    private static String author(Book book) {
+        return book != null ? book.getAuthor() : null;
+    }
+
+    /**
+     * One trie node. Children and the cached best completions are read without
+     * locking; ends (the completions whose indexed suffix stops here) only by writers.
+     */
+    private static final class Node {
+        private final Map<Character, Node> children = new ConcurrentHashMap<>();
+        private final List<Key> ends = new ArrayList<>(1);
+        private volatile Completion[] top = NONE;
+    }
+
+    /**
+     * Normalized text of a title or author
+     */
+    private record Key(Source source, String text) {
+    }
+
+    /**
+     * A title or author offered as a completion, with the number of books carrying it
+     */
+    public static final class Completion {
+        private final Key key;
+        private final String text;
+        private final long weight;
+
+        private Completion(Key key, String text, long weight) {
+            this.key = key;
+            this.text = text;
+            this.weight = weight;
+        }
+
+        public Source getSource() {
+            return key.source;
+        }
+
+        /**
+         * Text as first seen in the catalog
+         */
+        public String getText() {
+            return text;
+        }
+
+        public long getWeight() {
+            return weight;
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.letrasvivas.bookapi.service.index;
+
+import com.letrasvivas.bookapi.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Bloom filter over registered user emails, compared trimmed and lower-cased
+ */
+@Component
+public class EmailFilter extends KeyExistenceFilter {
+
+    private final UserRepository userRepository;
+
+    public EmailFilter(UserRepository userRepository,
+                       @Value("${app.filters.false-positive-probability:0.01}") double falsePositiveProbability) {
+        super(falsePositiveProbability);
+        this.userRepository = userRepository;
+    }
+
+    @Override
+    protected String normalize(String key) {
+        return key.trim().toLowerCase(Locale.ROOT);
+    }
+
+    @Override
+    protected long countKeys() {
+        return userRepository.count();
+    }
+
+    @Override
+    protected List<String> loadKeys() {
+        return userRepository.findAllEmails();
+    }
+}
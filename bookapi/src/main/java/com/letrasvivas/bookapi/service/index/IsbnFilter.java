@@ -0,0 +1,32 @@
+package com.letrasvivas.bookapi.service.index;
+
+import com.letrasvivas.bookapi.repository.BookRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Bloom filter over catalog ISBNs
+ */
+@Component
+public class IsbnFilter extends KeyExistenceFilter {
+
+    private final BookRepository bookRepository;
+
+    public IsbnFilter(BookRepository bookRepository,
+                      @Value("${app.filters.false-positive-probability:0.01}") double falsePositiveProbability) {
+        super(falsePositiveProbability);
+        this.bookRepository = bookRepository;
+    }
+
+    @Override
+    protected long countKeys() {
+        return bookRepository.count();
+    }
+
+    @Override
+    protected List<String> loadKeys() {
+        return bookRepository.findAllIsbns();
+    }
+}
@@ -0,0 +1,104 @@
+package com.letrasvivas.bookapi.service.index;
+
+import com.letrasvivas.bookapi.util.BloomFilter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.util.List;
+
+/**
+ * Bloom-filter fast path for unique-key existence checks.
+ *
+ * Only {@link #isDefinitelyAbsent} answers are authoritative; anything else must
+ * still be confirmed against the database. Keys are added as rows are written
+ * (see {@link KeyFilterEntityListener}), and the filter is periodically rebuilt
+ * from the database to drop deleted keys and resize it to the current data volume.
+ */
+public abstract class KeyExistenceFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(KeyExistenceFilter.class);
+
+    private static final long MIN_CAPACITY = 1024;
+
+    private final double falsePositiveProbability;
+
+    private volatile BloomFilter filter;
+    // Filter being rebuilt; keys added meanwhile go to both filters
+    private volatile BloomFilter building;
+    private volatile boolean ready = false;
+
+    protected KeyExistenceFilter(double falsePositiveProbability) {
+        this.falsePositiveProbability = falsePositiveProbability;
+        this.filter = new BloomFilter(MIN_CAPACITY, falsePositiveProbability);
+    }
+
+    /**
+     * Whether the filter has been loaded and can rule keys out
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * True only when the key is certainly not stored; false means "check the database"
+     */
+    public boolean isDefinitelyAbsent(String key) {
+        if (!ready || key == null) {
+            return false;
+        }
+        return !filter.mightContain(normalize(key));
+    }
+
+    /**
+     * Load every key from the database into a freshly sized filter
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${app.filters.rebuild-interval-ms:3600000}",
+            fixedDelayString = "${app.filters.rebuild-interval-ms:3600000}")
+    public synchronized void rebuild() {
+        // Leave headroom so keys added before the next rebuild keep the error rate down
+        long capacity = Math.max(MIN_CAPACITY, countKeys() * 2);
+        BloomFilter rebuilt = new BloomFilter(capacity, falsePositiveProbability);
+        building = rebuilt;
+
+        List<String> keys = loadKeys();
+        for (String key : keys) {
+            if (key != null) {
+                rebuilt.put(normalize(key));
+            }
+        }
+
+        filter = rebuilt;
+        building = null;
+        ready = true;
+        logger.info("{} rebuilt with {} keys ({} bits, {} hashes)",
+                getClass().getSimpleName(), keys.size(), rebuilt.bitSize(), rebuilt.getHashCount());
+    }
+
+    /**
+     * Record a saved key
+     */
+    protected void add(String key) {
+        if (key == null) {
+            return;
+        }
+        String normalized = normalize(key);
+        // Read the pending filter first: once it is published as the live one, it is no longer pending
+        BloomFilter pending = building;
+        filter.put(normalized);
+        if (pending != null) {
+            pending.put(normalized);
+        }
+    }
+
+    protected String normalize(String key) {
+        return key.trim();
+    }
+
+    protected abstract long countKeys();
+
+    protected abstract List<String> loadKeys();
+}
@@ -0,0 +1,73 @@
+package com.letrasvivas.bookapi.service.index;
+
+import com.letrasvivas.bookapi.entity.Book;
+import com.letrasvivas.bookapi.entity.User;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostInsertEventListener;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.event.spi.PostUpdateEventListener;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.stereotype.Component;
+
+/**
+ * Feeds the ISBN and email filters from Hibernate itself, so every book or user
+ * written through JPA is covered, whichever service or repository wrote it.
+ *
+ * Keys are added when the row is written (so concurrent checks see them before
+ * commit) and again after commit (so a filter rebuild running in between cannot
+ * drop them).
+ */
+@Component
+public class KeyFilterEntityListener implements PostInsertEventListener, PostUpdateEventListener {
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final IsbnFilter isbnFilter;
+    private final EmailFilter emailFilter;
+
+    public KeyFilterEntityListener(EntityManagerFactory entityManagerFactory,
+                                   IsbnFilter isbnFilter, EmailFilter emailFilter) {
+        this.entityManagerFactory = entityManagerFactory;
+        this.isbnFilter = isbnFilter;
+        this.emailFilter = emailFilter;
+    }
+
+    @PostConstruct
+    void register() {
+        EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry()
+                .getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_INSERT, this);
+        registry.appendListeners(EventType.POST_UPDATE, this);
+        registry.appendListeners(EventType.POST_COMMIT_INSERT, this);
+        registry.appendListeners(EventType.POST_COMMIT_UPDATE, this);
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        record(event.getEntity());
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        record(event.getEntity());
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        Class<?> type = persister.getMappedClass();
+        return type == Book.class || type == User.class;
+    }
+
+    private void record(Object entity) {
+        if (entity instanceof Book book) {
+            isbnFilter.add(book.getIsbn());
+        } else if (entity instanceof User user) {
+            emailFilter.add(user.getEmail());
+        }
+    }
+}
@@ -0,0 +1,181 @@
+package com.letrasvivas.bookapi.service.stats;
+
+import com.letrasvivas.bookapi.entity.Book;
+import com.letrasvivas.bookapi.event.BookChangedEvent;
+import com.letrasvivas.bookapi.repository.BookRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * Book analytics aggregates (books per genre, author and year, page totals per genre).
+ *
+ * Seeded from the database at startup and moved by committed book changes, so the
+ * analytics endpoints read them instead of grouping the whole books table. Like the
+ * live counters, a periodic reconciliation rebuilds them to correct any drift.
+ * Rows have the same shape as the matching repository GROUP BY queries.
+ */
+@Component
+public class BookAnalytics {
+
+    private static final Logger logger = LoggerFactory.getLogger(BookAnalytics.class);
+
+    private final BookRepository bookRepository;
+
+    private final RankedCounter<String> genres = new RankedCounter<>();
+    private final RankedCounter<String> authors = new RankedCounter<>();
+    private final NavigableMap<Integer, Long> years = new TreeMap<>(Comparator.reverseOrder());
+    private final Map<String, PageTotals> pagesByGenre = new HashMap<>();
+
+    private volatile boolean seeded = false;
+
+    public BookAnalytics(BookRepository bookRepository) {
+        this.bookRepository = bookRepository;
+    }
+
+    /**
+     * Whether the aggregates have been seeded and can be trusted
+     */
+    public boolean isSeeded() {
+        return seeded;
+    }
+
+    /**
+     * Seed the aggregates at startup and rebuild them from the database periodically
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${app.counters.reconcile-interval-ms:300000}",
+            fixedDelayString = "${app.counters.reconcile-interval-ms:300000}")
+    public synchronized void reconcile() {
+        genres.clear();
+        authors.clear();
+        years.clear();
+        pagesByGenre.clear();
+
+        for (Object[] row : bookRepository.findMostPopularGenres()) {
+            genres.add((String) row[0], (Long) row[1]);
+        }
+        for (Object[] row : bookRepository.findMostProlificAuthors()) {
+            authors.add((String) row[0], (Long) row[1]);
+        }
+        for (Object[] row : bookRepository.findBooksCountByYear()) {
+            if (row[0] != null) {
+                years.put((Integer) row[0], (Long) row[1]);
+            }
+        }
+        for (Object[] row : bookRepository.findPageCountTotalsByGenre()) {
+            pagesByGenre.put((String) row[0], new PageTotals((Long) row[1], (Long) row[2]));
+        }
+
+        if (!seeded) {
+            logger.info("Book analytics seeded with {} genres, {} authors and {} years",
+                    genres.size(), authors.size(), years.size());
+        }
+        seeded = true;
+    }
+
+    /**
+     * Apply committed book changes
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onBookChanged(BookChangedEvent event) {
+        apply(event.getPrevious(), -1);
+        apply(event.getCurrent(), 1);
+    }
+
+    /**
+     * Genres with their book count, most books first
+     */
+    public synchronized List<Object[]> getMostPopularGenres(int limit) {
+        return toRows(genres.top(limit));
+    }
+
+    /**
+     * Authors with their book count, most books first
+     */
+    public synchronized List<Object[]> getMostProlificAuthors(int limit) {
+        return toRows(authors.top(limit));
+    }
+
+    /**
+     * Publication years with their book count, latest year first
+     */
+    public synchronized List<Object[]> getBooksCountByYear() {
+        List<Object[]> rows = new ArrayList<>(years.size());
+        years.forEach((year, count) -> rows.add(new Object[]{year, count}));
+        return rows;
+    }
+
+    /**
+     * Genres with the average page count of their books, highest average first
+     */
+    public synchronized List<Object[]> getAveragePageCountByGenre() {
+        List<Object[]> rows = new ArrayList<>(pagesByGenre.size());
+        pagesByGenre.forEach((genre, totals) -> rows.add(new Object[]{genre, totals.average()}));
+        rows.sort(Comparator.comparing((Object[] row) -> (Double) row[1]).reversed());
+        return rows;
+    }
+
+    // ========== PRIVATE HELPER METHODS ==========
+
+    private void apply(Book book, int sign) {
+        if (book == null) {
+            return;
+        }
+        genres.add(book.getGenre(), sign);
+        authors.add(book.getAuthor(), sign);
+        if (book.getPublicationYear() != null) {
+            long count = years.getOrDefault(book.getPublicationYear(), 0L) + sign;
+            if (count > 0) {
+                years.put(book.getPublicationYear(), count);
+            } else {
+                years.remove(book.getPublicationYear());
+            }
+        }
+        if (book.getGenre() != null && book.getPageCount() != null) {
+            PageTotals totals = pagesByGenre.computeIfAbsent(book.getGenre(), genre -> new PageTotals(0, 0));
+            totals.add(book.getPageCount(), sign);
+            if (totals.books <= 0) {
+                pagesByGenre.remove(book.getGenre());
+            }
+        }
+    }
+
+    private static List<Object[]> toRows(List<Map.Entry<String, Long>> entries) {
+        List<Object[]> rows = new ArrayList<>(entries.size());
+        entries.forEach(entry -> rows.add(new Object[]{entry.getKey(), entry.getValue()}));
+        return rows;
+    }
+
+    private static final class PageTotals {
+
+        private long pages;
+        private long books;
+
+        private PageTotals(long pages, long books) {
+            this.pages = pages;
+            this.books = books;
+        }
+
+        private void add(int pageCount, int sign) {
+            pages += (long) sign * pageCount;
+            books += sign;
+        }
+
+        private double average() {
+            return (double) pages / books;
+        }
+    }
+}
@@ -0,0 +1,266 @@
+package com.letrasvivas.bookapi.service.stats;
+
+import com.letrasvivas.bookapi.dto.response.YearRangeStatsDTO;
+import com.letrasvivas.bookapi.repository.BookRepository;
+import com.letrasvivas.bookapi.service.cache.CollectionVersions;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * Columnar in-memory snapshot of the catalog for analytics scans.
+ *
+ * Year and page count are kept as primitive arrays, genre and author as ids into
+ * per-snapshot dictionaries, so range counts and group-bys are tight loops over
+ * a few arrays instead of database scans. The snapshot is immutable and swapped
+ * whole: it is rebuilt at startup and then, on a short interval, only when a
+ * book write has been committed since the last load.
+ */
+@Component
+public class BookColumnStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(BookColumnStore.class);
+
+    // Books per parallel scan task
+    private static final int SCAN_CHUNK_SIZE = 1 << 16;
+
+    private final BookRepository bookRepository;
+    private final CollectionVersions collectionVersions;
+    private final TransactionTemplate transactionTemplate;
+
+    private volatile Snapshot snapshot;
+    private volatile long loadedVersion = -1;
+
+    public BookColumnStore(BookRepository bookRepository, CollectionVersions collectionVersions,
+                           PlatformTransactionManager transactionManager) {
+        this.bookRepository = bookRepository;
+        this.collectionVersions = collectionVersions;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+    }
+
+    /**
+     * Whether a snapshot has been loaded and can answer queries
+     */
+    public boolean isReady() {
+        return snapshot != null;
+    }
+
+    /**
+     * The current snapshot, or null before the first load
+     */
+    public Snapshot getSnapshot() {
+        return snapshot;
+    }
+
+    /**
+     * Load the snapshot at startup
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        refresh();
+    }
+
+    /**
+     * Rebuild the snapshot if books changed since the last load
+     */
+    @Scheduled(initialDelayString = "${app.analytics.snapshot-refresh-ms:60000}",
+            fixedDelayString = "${app.analytics.snapshot-refresh-ms:60000}")
+    public void refreshIfStale() {
+        if (collectionVersions.getVersion(CollectionVersions.Collection.BOOKS) != loadedVersion) {
+            refresh();
+        }
+    }
+
+    /**
+     * Rebuild the snapshot from the database and swap it in
+     */
+    public synchronized void refresh() {
+        // Read first: changes committed while reading make the new snapshot stale.
+        // A failed load keeps the old snapshot and version, so it is retried.
+        long version = collectionVersions.getVersion(CollectionVersions.Collection.BOOKS);
+        long start = System.nanoTime();
+        Snapshot loaded = transactionTemplate.execute(status -> {
+            try (Stream<Object[]> rows = bookRepository.streamAnalyticsColumns()) {
+                return Snapshot.of(rows.iterator());
+            }
+        });
+        snapshot = loaded;
+        loadedVersion = version;
+        logger.debug("Book column snapshot loaded with {} books in {} ms",
+                loaded.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Immutable column arrays of every book at the time of the load. Index i of
+     * each array describes the same book. Missing page counts are stored as 0 and
+     * missing genres as -1.
+     */
+    public static final class Snapshot {
+
+        private final int size;
+        private final int[] years;
+        private final short[] pageCounts;
+        private final int[] genreIds;
+        private final int[] authorIds;
+        private final boolean[] available;
+        private final String[] genres;
+        private final String[] authors;
+
+        private Snapshot(int size, int[] years, short[] pageCounts, int[] genreIds, int[] authorIds,
+                         boolean[] available, String[] genres, String[] authors) {
+            this.size = size;
+            this.years = years;
+            this.pageCounts = pageCounts;
+            this.genreIds = genreIds;
+            this.authorIds = authorIds;
+            this.available = available;
+            this.genres = genres;
+            this.authors = authors;
+        }
+
+        /**
+         * Build a snapshot from (publicationYear, pageCount, genre, author, isAvailable) rows
+         */
+        public static Snapshot of(Iterator<Object[]> rows) {
+            int capacity = 1024;
+            int[] years = new int[capacity];
+            short[] pageCounts = new short[capacity];
+            int[] genreIds = new int[capacity];
+            int[] authorIds = new int[capacity];
+            boolean[] available = new boolean[capacity];
+            Map<String, Integer> genreDictionary = new HashMap<>();
+            Map<String, Integer> authorDictionary = new HashMap<>();
+
+            int size = 0;
+            while (rows.hasNext()) {
+                Object[] row = rows.next();
+                if (size == capacity) {
+                    capacity *= 2;
+                    years = Arrays.copyOf(years, capacity);
+                    pageCounts = Arrays.copyOf(pageCounts, capacity);
+                    genreIds = Arrays.copyOf(genreIds, capacity);
+                    authorIds = Arrays.copyOf(authorIds, capacity);
+                    available = Arrays.copyOf(available, capacity);
+                }
+                years[size] = (Integer) row[0];
+                pageCounts[size] = row[1] != null ? (short) (int) (Integer) row[1] : 0;
+                genreIds[size] = row[2] != null ? encode(genreDictionary, (String) row[2]) : -1;
+                authorIds[size] = encode(authorDictionary, (String) row[3]);
+                available[size] = Boolean.TRUE.equals(row[4]);
+                size++;
+            }
+            return new Snapshot(size, years, pageCounts, genreIds, authorIds, available,
+                    decode(genreDictionary), decode(authorDictionary));
+        }
+
+        public int size() {
+            return size;
+        }
+
+        /**
+         * Statistics of the books published between the two years (inclusive).
+         * Large snapshots are scanned in chunks on parallel streams.
+         */
+        public YearRangeStatsDTO yearRange(int startYear, int endYear) {
+            int chunks = Math.max(1, size / SCAN_CHUNK_SIZE);
+            RangeTotals totals = IntStream.range(0, chunks)
+                    .parallel()
+                    .mapToObj(chunk -> scan(startYear, endYear,
+                            (int) ((long) size * chunk / chunks), (int) ((long) size * (chunk + 1) / chunks)))
+                    .reduce(RangeTotals::merge)
+                    .orElseGet(() -> new RangeTotals(genres.length));
+
+            Map<String, Long> booksByGenre = new LinkedHashMap<>();
+            Integer[] order = new Integer[genres.length];
+            for (int g = 0; g < order.length; g++) {
+                order[g] = g;
+            }
+            Arrays.sort(order, (a, b) -> Long.compare(totals.perGenre[b], totals.perGenre[a]));
+            for (int g : order) {
+                if (totals.perGenre[g] > 0) {
+                    booksByGenre.put(genres[g], totals.perGenre[g]);
+                }
+            }
+            Double averagePageCount = totals.booksWithPages > 0
+                    ? (double) totals.pages / totals.booksWithPages : null;
+            return new YearRangeStatsDTO(startYear, endYear, totals.books, totals.availableBooks,
+                    totals.authors.cardinality(), averagePageCount, booksByGenre);
+        }
+
+        private RangeTotals scan(int startYear, int endYear, int from, int to) {
+            RangeTotals totals = new RangeTotals(genres.length);
+            for (int i = from; i < to; i++) {
+                int year = years[i];
+                if (year < startYear || year > endYear) {
+                    continue;
+                }
+                totals.books++;
+                if (available[i]) {
+                    totals.availableBooks++;
+                }
+                if (pageCounts[i] > 0) {
+                    totals.pages += pageCounts[i];
+                    totals.booksWithPages++;
+                }
+                if (genreIds[i] >= 0) {
+                    totals.perGenre[genreIds[i]]++;
+                }
+                totals.authors.set(authorIds[i]);
+            }
+            return totals;
+        }
+
+        private static int encode(Map<String, Integer> dictionary, String value) {
+            return dictionary.computeIfAbsent(value, key -> dictionary.size());
+        }
+
+        private static String[] decode(Map<String, Integer> dictionary) {
+            String[] values = new String[dictionary.size()];
+            dictionary.forEach((value, id) -> values[id] = value);
+            return values;
+        }
+    }
+
+    /**
+     * Partial year-range aggregates of one chunk of a snapshot
+     */
+    private static final class RangeTotals {
+        private long books;
+        private long availableBooks;
+        private long pages;
+        private long booksWithPages;
+        private final long[] perGenre;
+        private final BitSet authors = new BitSet();
+
+        private RangeTotals(int genreCount) {
+            this.perGenre = new long[genreCount];
+        }
+
+        private RangeTotals merge(RangeTotals other) {
+            books += other.books;
+            availableBooks += other.availableBooks;
+            pages += other.pages;
+            booksWithPages += other.booksWithPages;
+            for (int g = 0; g < perGenre.length; g++) {
+                perGenre[g] += other.perGenre[g];
+            }
+            authors.or(other.authors);
+            return this;
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.letrasvivas.bookapi.service.stats;
+
+import com.letrasvivas.bookapi.entity.Book;
+import com.letrasvivas.bookapi.event.BookChangedEvent;
+import com.letrasvivas.bookapi.repository.BookRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Live total/available book counters.
+ *
+ * Seeded from the database at startup, then moved by committed book changes.
+ * A periodic reconciliation re-reads the real counts and corrects any drift
+ * (for example from writes that raced with the previous reconciliation).
+ */
+@Component
+public class BookCounters {
+
+    private static final Logger logger = LoggerFactory.getLogger(BookCounters.class);
+
+    private final BookRepository bookRepository;
+
+    private final LongAdder total = new LongAdder();
+    private final LongAdder available = new LongAdder();
+
+    private volatile boolean seeded = false;
+
+    public BookCounters(BookRepository bookRepository) {
+        this.bookRepository = bookRepository;
+    }
+
+    /**
+     * Whether the counters have been seeded and can be trusted
+     */
+    public boolean isSeeded() {
+        return seeded;
+    }
+
+    public long getTotal() {
+        return total.sum();
+    }
+
+    public long getAvailable() {
+        return available.sum();
+    }
+
+    /**
+     * Seed the counters at startup and re-align them with the database periodically
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${app.counters.reconcile-interval-ms:300000}",
+            fixedDelayString = "${app.counters.reconcile-interval-ms:300000}")
+    public void reconcile() {
+        long totalDrift = align(total, bookRepository.count());
+        long availableDrift = align(available, bookRepository.countByIsAvailableTrue());
+        if (seeded && (totalDrift != 0 || availableDrift != 0)) {
+            logger.info("Book counters reconciled (total drift {}, available drift {})", totalDrift, availableDrift);
+        }
+        seeded = true;
+    }
+
+    /**
+     * Apply committed book changes
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookChanged(BookChangedEvent event) {
+        Book previous = event.getPrevious();
+        Book current = event.getCurrent();
+
+        if (previous == null) {
+            total.increment();
+        } else if (current == null) {
+            total.decrement();
+        }
+        int availableDelta = (isAvailable(current) ? 1 : 0) - (isAvailable(previous) ? 1 : 0);
+        if (availableDelta != 0) {
+            available.add(availableDelta);
+        }
+    }
+
+    private static boolean isAvailable(Book book) {
+        return book != null && Boolean.TRUE.equals(book.getIsAvailable());
+    }
+
+    private static long align(LongAdder counter, long actual) {
+        long drift = actual - counter.sum();
+        counter.add(drift);
+        return drift;
+    }
+}
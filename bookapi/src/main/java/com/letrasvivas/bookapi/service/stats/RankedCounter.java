@@ -0,0 +1,79 @@
+package com.letrasvivas.bookapi.service.stats;
+
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.NavigableSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Per-key counts kept ordered by count, so the top k keys are read in O(k)
+ * instead of sorting every key on each request.
+ *
+ * Keys with the same count are ordered by key. Updates cost O(log n).
+ * Not thread-safe: the owner is expected to serialize access.
+ */
+class RankedCounter<K extends Comparable<K>> {
+
+    private final Map<K, Long> counts = new HashMap<>();
+    private final NavigableMap<Long, NavigableSet<K>> keysByCount = new TreeMap<>(Comparator.reverseOrder());
+
+    /**
+     * Move the count of a key by delta; keys dropping to zero or below are removed
+     */
+    void add(K key, long delta) {
+        if (key == null || delta == 0) {
+            return;
+        }
+        long previous = counts.getOrDefault(key, 0L);
+        long current = previous + delta;
+
+        if (previous > 0) {
+            NavigableSet<K> keys = keysByCount.get(previous);
+            keys.remove(key);
+            if (keys.isEmpty()) {
+                keysByCount.remove(previous);
+            }
+        }
+        if (current > 0) {
+            counts.put(key, current);
+            keysByCount.computeIfAbsent(current, count -> new TreeSet<>()).add(key);
+        } else {
+            counts.remove(key);
+        }
+    }
+
+    long get(K key) {
+        return counts.getOrDefault(key, 0L);
+    }
+
+    int size() {
+        return counts.size();
+    }
+
+    void clear() {
+        counts.clear();
+        keysByCount.clear();
+    }
+
+    /**
+     * The limit keys with the highest counts, highest first
+     */
+    List<Map.Entry<K, Long>> top(int limit) {
+        List<Map.Entry<K, Long>> top = new ArrayList<>(Math.min(limit, counts.size()));
+        for (Map.Entry<Long, NavigableSet<K>> entry : keysByCount.entrySet()) {
+            for (K key : entry.getValue()) {
+                if (top.size() >= limit) {
+                    return top;
+                }
+                top.add(new AbstractMap.SimpleImmutableEntry<>(key, entry.getKey()));
+            }
+        }
+        return top;
+    }
+}
@@ -0,0 +1,227 @@
+package com.letrasvivas.bookapi.service.stats;
+
+import com.letrasvivas.bookapi.dto.response.UserAnalyticsDTO;
+import com.letrasvivas.bookapi.repository.UserRepository;
+import com.letrasvivas.bookapi.service.cache.CollectionVersions;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * User analytics computed in one streaming pass over the users table.
+ *
+ * Each row (age, active flag, signup time, subscription count) lands in a few
+ * primitive histograms, from which the age ranges, monthly signups and
+ * subscription percentiles are read off; no per-dimension GROUP BY is run. The
+ * result is kept and recomputed on a short interval, only when a user or
+ * subscription change has been committed since the last pass.
+ */
+@Component
+public class UserAnalyticsStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserAnalyticsStore.class);
+
+    // Width of the age ranges, in years
+    private static final int AGE_RANGE_WIDTH = 10;
+
+    // Ages above this share the last histogram slot
+    private static final int MAX_AGE = 150;
+
+    private static final int[] PERCENTILES = {50, 75, 90, 95, 99};
+
+    private final UserRepository userRepository;
+    private final CollectionVersions collectionVersions;
+    private final TransactionTemplate transactionTemplate;
+
+    private volatile UserAnalyticsDTO analytics;
+    private volatile long loadedVersion = -1;
+
+    public UserAnalyticsStore(UserRepository userRepository, CollectionVersions collectionVersions,
+                              PlatformTransactionManager transactionManager) {
+        this.userRepository = userRepository;
+        this.collectionVersions = collectionVersions;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+    }
+
+    /**
+     * The latest analytics, computed now if none have been loaded yet
+     */
+    public UserAnalyticsDTO getAnalytics() {
+        UserAnalyticsDTO current = analytics;
+        return current != null ? current : refresh();
+    }
+
+    /**
+     * Compute the analytics at startup
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        refresh();
+    }
+
+    /**
+     * Recompute the analytics if users or subscriptions changed since the last pass
+     */
+    @Scheduled(initialDelayString = "${app.analytics.snapshot-refresh-ms:60000}",
+            fixedDelayString = "${app.analytics.snapshot-refresh-ms:60000}")
+    public void refreshIfStale() {
+        if (collectionVersions.getVersion(CollectionVersions.Collection.USERS) != loadedVersion) {
+            refresh();
+        }
+    }
+
+    /**
+     * Recompute the analytics from the database and swap them in
+     */
+    public synchronized UserAnalyticsDTO refresh() {
+        // Read first: changes committed during the pass make the result stale
+        long version = collectionVersions.getVersion(CollectionVersions.Collection.USERS);
+        long start = System.nanoTime();
+        UserAnalyticsDTO computed = transactionTemplate.execute(status -> {
+            try (Stream<Object[]> rows = userRepository.streamAnalyticsColumns()) {
+                return summarize(rows.iterator(), LocalDateTime.now());
+            }
+        });
+        analytics = computed;
+        loadedVersion = version;
+        logger.debug("User analytics computed over {} users in {} ms",
+                computed.getTotalUsers(), (System.nanoTime() - start) / 1_000_000);
+        return computed;
+    }
+
+    /**
+     * Summarize (age, isActive, createdAt, subscriptionCount) rows
+     */
+    public static UserAnalyticsDTO summarize(Iterator<Object[]> rows, LocalDateTime computedAt) {
+        long total = 0;
+        long active = 0;
+        long ageTotal = 0;
+        long usersWithAge = 0;
+        long subscriptionTotal = 0;
+        long[] ages = new long[MAX_AGE + 1];
+        long[] subscriptionCounts = new long[16];
+        MonthHistogram signups = new MonthHistogram();
+
+        while (rows.hasNext()) {
+            Object[] row = rows.next();
+            total++;
+            if (row[0] != null) {
+                int age = (Integer) row[0];
+                ages[Math.max(0, Math.min(age, MAX_AGE))]++;
+                ageTotal += age;
+                usersWithAge++;
+            }
+            if (Boolean.TRUE.equals(row[1])) {
+                active++;
+            }
+            if (row[2] != null) {
+                LocalDateTime createdAt = (LocalDateTime) row[2];
+                signups.add(createdAt.getYear() * 12 + createdAt.getMonthValue() - 1);
+            }
+            int subscriptions = ((Number) row[3]).intValue();
+            if (subscriptions >= subscriptionCounts.length) {
+                subscriptionCounts = Arrays.copyOf(subscriptionCounts,
+                        Math.max(subscriptions + 1, subscriptionCounts.length * 2));
+            }
+            subscriptionCounts[subscriptions]++;
+            subscriptionTotal += subscriptions;
+        }
+
+        return new UserAnalyticsDTO(total, active, total - active,
+                usersWithAge > 0 ? (double) ageTotal / usersWithAge : null,
+                ageRanges(ages), signups.toMap(),
+                total > 0 ? (double) subscriptionTotal / total : null,
+                percentiles(subscriptionCounts, total), computedAt);
+    }
+
+    // ========== PRIVATE HELPER METHODS ==========
+
+    private static Map<String, Long> ageRanges(long[] ages) {
+        Map<String, Long> ranges = new LinkedHashMap<>();
+        for (int from = 0; from <= MAX_AGE; from += AGE_RANGE_WIDTH) {
+            int to = Math.min(from + AGE_RANGE_WIDTH - 1, MAX_AGE);
+            long count = 0;
+            for (int age = from; age <= to; age++) {
+                count += ages[age];
+            }
+            if (count > 0) {
+                ranges.put(from + "-" + to, count);
+            }
+        }
+        return ranges;
+    }
+
+    /**
+     * Nearest-rank percentiles of the subscription counts, plus the maximum
+     */
+    private static Map<String, Integer> percentiles(long[] counts, long total) {
+        Map<String, Integer> percentiles = new LinkedHashMap<>();
+        if (total == 0) {
+            return percentiles;
+        }
+        int value = 0;
+        long seen = counts[0];
+        for (int percentile : PERCENTILES) {
+            long rank = Math.max(1, (long) Math.ceil(percentile / 100.0 * total));
+            while (seen < rank) {
+                seen += counts[++value];
+            }
+            percentiles.put("p" + percentile, value);
+        }
+        int max = counts.length - 1;
+        while (counts[max] == 0) {
+            max--;
+        }
+        percentiles.put("max", max);
+        return percentiles;
+    }
+
+    /**
+     * Counts per month (year * 12 + month - 1), in an array that grows to cover
+     * the months seen
+     */
+    private static final class MonthHistogram {
+        private long[] counts = new long[0];
+        private int first;
+
+        private void add(int month) {
+            if (counts.length == 0) {
+                counts = new long[12];
+                first = month;
+            } else if (month < first) {
+                long[] grown = new long[counts.length + (first - month)];
+                System.arraycopy(counts, 0, grown, first - month, counts.length);
+                counts = grown;
+                first = month;
+            } else if (month - first >= counts.length) {
+                counts = Arrays.copyOf(counts, Math.max(month - first + 1, counts.length * 2));
+            }
+            counts[month - first]++;
+        }
+
+        private Map<String, Long> toMap() {
+            Map<String, Long> months = new LinkedHashMap<>();
+            for (int i = 0; i < counts.length; i++) {
+                if (counts[i] > 0) {
+                    int month = first + i;
+                    months.put(YearMonth.of(month / 12, month % 12 + 1).toString(), counts[i]);
+                }
+            }
+            return months;
+        }
+    }
+}
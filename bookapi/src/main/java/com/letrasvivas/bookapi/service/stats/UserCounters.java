@@ -0,0 +1,116 @@
+package com.letrasvivas.bookapi.service.stats;
+
+import com.letrasvivas.bookapi.entity.User;
+import com.letrasvivas.bookapi.event.UserChangedEvent;
+import com.letrasvivas.bookapi.event.UsersActivationChangedEvent;
+import com.letrasvivas.bookapi.event.UsersPurgedEvent;
+import com.letrasvivas.bookapi.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Live total/active user counters, maintained the same way as {@link BookCounters}.
+ */
+@Component
+public class UserCounters {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserCounters.class);
+
+    private final UserRepository userRepository;
+
+    private final LongAdder total = new LongAdder();
+    private final LongAdder active = new LongAdder();
+
+    private volatile boolean seeded = false;
+
+    public UserCounters(UserRepository userRepository) {
+        this.userRepository = userRepository;
+    }
+
+    /**
+     * Whether the counters have been seeded and can be trusted
+     */
+    public boolean isSeeded() {
+        return seeded;
+    }
+
+    public long getTotal() {
+        return total.sum();
+    }
+
+    public long getActive() {
+        return active.sum();
+    }
+
+    /**
+     * Seed the counters at startup and re-align them with the database periodically
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${app.counters.reconcile-interval-ms:300000}",
+            fixedDelayString = "${app.counters.reconcile-interval-ms:300000}")
+    public void reconcile() {
+        long totalDrift = align(total, userRepository.count());
+        long activeDrift = align(active, userRepository.countByIsActiveTrue());
+        if (seeded && (totalDrift != 0 || activeDrift != 0)) {
+            logger.info("User counters reconciled (total drift {}, active drift {})", totalDrift, activeDrift);
+        }
+        seeded = true;
+    }
+
+    /**
+     * Apply committed user changes
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        User previous = event.getPrevious();
+        User current = event.getCurrent();
+
+        if (previous == null) {
+            total.increment();
+        } else if (current == null) {
+            total.decrement();
+        }
+        int activeDelta = (isActive(current) ? 1 : 0) - (isActive(previous) ? 1 : 0);
+        if (activeDelta != 0) {
+            active.add(activeDelta);
+        }
+    }
+
+    /**
+     * Apply committed bulk activation changes
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUsersActivationChanged(UsersActivationChangedEvent event) {
+        active.add(event.isActive() ? event.getCount() : -event.getCount());
+    }
+
+    /**
+     * Apply committed bulk deletions
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUsersPurged(UsersPurgedEvent event) {
+        for (User user : event.getUsers()) {
+            total.decrement();
+            if (isActive(user)) {
+                active.decrement();
+            }
+        }
+    }
+
+    private static boolean isActive(User user) {
+        return user != null && Boolean.TRUE.equals(user.getIsActive());
+    }
+
+    private static long align(LongAdder counter, long actual) {
+        long drift = actual - counter.sum();
+        counter.add(drift);
+        return drift;
+    }
+}
@@ -0,0 +1,126 @@
+package com.letrasvivas.bookapi.util;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.ObjIntConsumer;
+
+/**
+ * BK-tree of words under Levenshtein distance, for bounded typo-tolerant lookup.
+ *
+ * Each child hangs off its parent by its distance to the parent's word, so by the
+ * triangle inequality a search within distance d of a query only has to descend into
+ * the children whose edge lies within d of the query's distance to the parent.
+ *
+ * Words cannot be removed; rebuild the tree instead. Searches are safe while a
+ * single writer adds words.
+ */
+public class BkTree {
+
+    private volatile Node root;
+    private volatile int size;
+
+    /**
+     * Add a word, returning false if it was already present
+     */
+    public boolean add(String word) {
+        if (root == null) {
+            root = new Node(word);
+            size++;
+            return true;
+        }
+        Node node = root;
+        while (true) {
+            int distance = distance(word, node.word, Integer.MAX_VALUE);
+            if (distance == 0) {
+                return false;
+            }
+            Node child = node.children.get(distance);
+            if (child == null) {
+                node.children.put(distance, new Node(word));
+                size++;
+                return true;
+            }
+            node = child;
+        }
+    }
+
+    /**
+     * Visit every word within maxDistance edits of the query, with its distance
+     */
+    public void search(String query, int maxDistance, ObjIntConsumer<String> action) {
+        Node start = root;
+        if (start == null) {
+            return;
+        }
+        Deque<Node> pending = new ArrayDeque<>();
+        pending.push(start);
+        while (!pending.isEmpty()) {
+            Node node = pending.pop();
+            // Bounded by the widest edge we may need to follow, so the distance is exact
+            int distance = distance(query, node.word, maxDistance + node.maxEdge());
+            if (distance <= maxDistance) {
+                action.accept(node.word, distance);
+            }
+            for (Map.Entry<Integer, Node> child : node.children.entrySet()) {
+                if (Math.abs(child.getKey() - distance) <= maxDistance) {
+                    pending.push(child.getValue());
+                }
+            }
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Levenshtein distance between two words, or any value above max once it is
+     * known to exceed max
+     */
+    public static int distance(String a, String b, int max) {
+        if (Math.abs(a.length() - b.length()) > max) {
+            return max + 1;
+        }
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            int rowMin = i;
+            char ca = a.charAt(i - 1);
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = ca == b.charAt(j - 1) ? 0 : 1;
+                current[j] = Math.min(Math.min(current[j - 1] + 1, previous[j] + 1), previous[j - 1] + cost);
+                rowMin = Math.min(rowMin, current[j]);
+            }
+            if (rowMin > max) {
+                return max + 1;
+            }
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return previous[b.length()];
+    }
+
+    private static final class Node {
+        private final String word;
+        private final Map<Integer, Node> children = new ConcurrentHashMap<>();
+
+        private Node(String word) {
+            this.word = word;
+        }
+
+        private int maxEdge() {
+            int max = 0;
+            for (Integer edge : children.keySet()) {
+                max = Math.max(max, edge);
+            }
+            return max;
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.letrasvivas.bookapi.util;
+
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.util.Locale;
+
+/**
+ * Tells which database constraint a write broke, so that only a unique key
+ * violation is reported as a duplicate and NOT NULL, length or foreign key
+ * violations are not.
+ */
+public final class ConstraintViolations {
+
+    private ConstraintViolations() {
+    }
+
+    /**
+     * Whether the exception was raised by the named constraint. Databases report the
+     * name differently (H2 gives the backing index, e.g. UK_USERS_EMAIL_INDEX_4 ON ...),
+     * so the reported name only has to contain it, ignoring case.
+     */
+    public static boolean isViolationOf(DataIntegrityViolationException e, String constraintName) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException violation) {
+                String violated = violation.getConstraintName();
+                return violated != null && violated.toLowerCase(Locale.ROOT)
+                        .contains(constraintName.toLowerCase(Locale.ROOT));
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,37 @@
+package com.letrasvivas.bookapi.util;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Fast non-cryptographic 64-bit hashing shared by the probabilistic structures
+ * (Bloom filters, MinHash signatures)
+ */
+public final class Hashing {
+
+    private Hashing() {
+    }
+
+    /**
+     * 64-bit FNV-1a over the UTF-8 bytes, finished with the {@link #mix} avalanche
+     */
+    public static long hash64(String value) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= (b & 0xff);
+            hash *= 0x100000001b3L;
+        }
+        return mix(hash);
+    }
+
+    /**
+     * MurmurHash3 fmix64 finalizer: every input bit affects every output bit
+     */
+    public static long mix(long value) {
+        value ^= value >>> 33;
+        value *= 0xff51afd7ed558ccdL;
+        value ^= value >>> 33;
+        value *= 0xc4ceb53fe1a85ec3L;
+        value ^= value >>> 33;
+        return value;
+    }
+}
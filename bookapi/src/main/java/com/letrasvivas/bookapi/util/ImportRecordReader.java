@@ -0,0 +1,167 @@
+package com.letrasvivas.bookapi.util;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Reads import records one at a time from NDJSON (one JSON object per line) or
+ * CSV (a header row naming the target properties, then one record per line).
+ *
+ * Only the current line is held in memory. A malformed record does not stop the
+ * import: it is returned as a row carrying the parse error. Blank lines are skipped,
+ * and CSV values may be double-quoted but cannot span lines.
+ */
+public class ImportRecordReader<T> implements Closeable {
+
+    public enum Format {
+        NDJSON,
+        CSV;
+
+        /**
+         * Resolve the format from a request content type (application/x-ndjson or text/csv)
+         */
+        public static Format fromContentType(String contentType) {
+            String type = contentType != null ? contentType.toLowerCase(Locale.ROOT) : "";
+            if (type.startsWith("text/csv")) {
+                return CSV;
+            }
+            return NDJSON;
+        }
+    }
+
+    /**
+     * One record with its 1-based line number; exactly one of value and error is set
+     */
+    public static class Row<T> {
+
+        private final long line;
+        private final T value;
+        private final String error;
+
+        private Row(long line, T value, String error) {
+            this.line = line;
+            this.value = value;
+            this.error = error;
+        }
+
+        public long getLine() {
+            return line;
+        }
+
+        public T getValue() {
+            return value;
+        }
+
+        public String getError() {
+            return error;
+        }
+    }
+
+    private final BufferedReader reader;
+    private final Format format;
+    private final Class<T> type;
+    private final ObjectMapper objectMapper;
+
+    private long lineNumber = 0;
+    private List<String> header;
+
+    public ImportRecordReader(Reader reader, Format format, Class<T> type, ObjectMapper objectMapper) {
+        this.reader = reader instanceof BufferedReader ? (BufferedReader) reader : new BufferedReader(reader);
+        this.format = format;
+        this.type = type;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Next record, or null at the end of the input
+     */
+    public Row<T> next() throws IOException {
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            if (format == Format.CSV && header == null) {
+                header = parseCsvLine(line);
+                continue;
+            }
+            return format == Format.CSV ? readCsv(line) : readJson(line);
+        }
+        return null;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    private Row<T> readJson(String line) {
+        try {
+            return new Row<>(lineNumber, objectMapper.readValue(line, type), null);
+        } catch (JsonProcessingException e) {
+            return new Row<>(lineNumber, null, "Malformed record: " + e.getOriginalMessage());
+        }
+    }
+
+    private Row<T> readCsv(String line) {
+        List<String> values = parseCsvLine(line);
+        if (values.size() != header.size()) {
+            return new Row<>(lineNumber, null,
+                    "Expected " + header.size() + " columns but found " + values.size());
+        }
+
+        Map<String, String> fields = new LinkedHashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            String value = values.get(i);
+            fields.put(header.get(i), value.isEmpty() ? null : value);
+        }
+        try {
+            return new Row<>(lineNumber, objectMapper.convertValue(fields, type), null);
+        } catch (IllegalArgumentException e) {
+            return new Row<>(lineNumber, null, "Malformed record: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Split a CSV line on commas, honouring double quotes ("" is an escaped quote)
+     */
+    private static List<String> parseCsvLine(String line) {
+        List<String> values = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    current.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                values.add(current.toString().trim());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        values.add(current.toString().trim());
+        return values;
+    }
+}
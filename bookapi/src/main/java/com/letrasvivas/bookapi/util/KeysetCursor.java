@@ -0,0 +1,77 @@
+package com.letrasvivas.bookapi.util;
+
+import com.letrasvivas.bookapi.exception.BusinessValidationException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Opaque cursor for keyset (seek) pagination.
+ *
+ * Holds the sort field, the sort key of the last returned row and its id,
+ * encoded as URL-safe Base64 so clients treat it as an opaque token.
+ */
+public final class KeysetCursor {
+
+    private static final String SEPARATOR = "|";
+
+    private final String sortField;
+    private final String sortKey;
+    private final long id;
+
+    private KeysetCursor(String sortField, String sortKey, long id) {
+        this.sortField = sortField;
+        this.sortKey = sortKey;
+        this.id = id;
+    }
+
+    public static KeysetCursor of(String sortField, String sortKey, long id) {
+        return new KeysetCursor(sortField, sortKey != null ? sortKey : "", id);
+    }
+
+    /**
+     * Encode the cursor as an opaque token
+     */
+    public String encode() {
+        String raw = sortField + SEPARATOR + id + SEPARATOR + sortKey;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decode a token produced by {@link #encode()}, checking it was issued for the same sort field
+     */
+    public static KeysetCursor decode(String token, String expectedSortField) {
+        String raw;
+        try {
+            raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException ex) {
+            throw new BusinessValidationException("Invalid pagination cursor", "after", token);
+        }
+
+        // The sort key is last so it may itself contain the separator
+        String[] parts = raw.split("\\" + SEPARATOR, 3);
+        if (parts.length != 3) {
+            throw new BusinessValidationException("Invalid pagination cursor", "after", token);
+        }
+        if (!parts[0].equals(expectedSortField)) {
+            throw new BusinessValidationException("Pagination cursor was issued for a different sort", "after", token);
+        }
+        try {
+            return new KeysetCursor(parts[0], parts[2], Long.parseLong(parts[1]));
+        } catch (NumberFormatException ex) {
+            throw new BusinessValidationException("Invalid pagination cursor", "after", token);
+        }
+    }
+
+    public String getSortField() {
+        return sortField;
+    }
+
+    public String getSortKey() {
+        return sortKey;
+    }
+
+    public long getId() {
+        return id;
+    }
+}
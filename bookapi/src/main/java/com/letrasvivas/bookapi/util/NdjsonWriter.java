@@ -0,0 +1,96 @@
+package com.letrasvivas.bookapi.util;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.function.Consumer;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Writes objects as newline-delimited JSON, optionally gzip-compressed.
+ *
+ * Each object is serialized straight to the output stream; nothing is buffered
+ * beyond the stream's own buffers. Closing the writer finishes the gzip trailer
+ * but leaves the underlying stream open for the container to close.
+ */
+public class NdjsonWriter implements Closeable {
+
+    private final ObjectWriter objectWriter;
+    private final GZIPOutputStream gzip;
+    private final JsonGenerator generator;
+
+    private long count = 0;
+
+    public NdjsonWriter(OutputStream output, boolean compress, ObjectMapper objectMapper) throws IOException {
+        // Let the stream buffers decide when to flush instead of flushing after every line
+        this.objectWriter = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        this.gzip = compress ? new GZIPOutputStream(output, 8192) : null;
+        this.generator = objectMapper.getFactory()
+                .createGenerator(compress ? gzip : output)
+                .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        this.generator.setRootValueSeparator(null);
+    }
+
+    /**
+     * Build an NDJSON download whose body is written by the exporter once the
+     * request thread has been released; gzip is applied as the content encoding
+     */
+    public static ResponseEntity<StreamingResponseBody> attachment(String fileName, boolean compress,
+                                                                   ObjectMapper objectMapper,
+                                                                   Consumer<NdjsonWriter> exporter) {
+        StreamingResponseBody body = output -> {
+            try (NdjsonWriter writer = new NdjsonWriter(output, compress, objectMapper)) {
+                exporter.accept(writer);
+            }
+        };
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        ContentDisposition.attachment().filename(fileName).build().toString());
+        if (compress) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(body);
+    }
+
+    /**
+     * Write one object as a line; I/O failures (e.g. the client went away) are rethrown unchecked
+     */
+    public void write(Object value) {
+        try {
+            objectWriter.writeValue(generator, value);
+            generator.writeRaw('\n');
+            count++;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Number of lines written so far
+     */
+    public long getCount() {
+        return count;
+    }
+
+    @Override
+    public void close() throws IOException {
+        generator.flush();
+        generator.close();
+        if (gzip != null) {
+            gzip.finish();
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.letrasvivas.bookapi.util;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.StringJoiner;
+
+/**
+ * Validators of a resource representation for HTTP conditional requests: a strong
+ * ETag and a Last-Modified time. Two versions with the same ETag promise
+ * byte-identical bodies, so the tag is built from everything the body depends on.
+ */
+public final class ResourceVersion {
+
+    private final String eTag;
+    private final long lastModified;
+
+    private ResourceVersion(String eTag, long lastModified) {
+        this.eTag = eTag;
+        this.lastModified = lastModified;
+    }
+
+    /**
+     * Version tagged with the given parts (joined in order) and last modified at the given time
+     */
+    public static ResourceVersion of(long lastModified, Object... parts) {
+        StringJoiner tag = new StringJoiner("-", "\"", "\"");
+        for (Object part : parts) {
+            tag.add(String.valueOf(part instanceof LocalDateTime time ? toTagPart(time) : part));
+        }
+        return new ResourceVersion(tag.toString(), lastModified);
+    }
+
+    /**
+     * Epoch milliseconds of an entity timestamp (stored in the server's time zone)
+     */
+    public static long toEpochMillis(LocalDateTime time) {
+        return time != null ? time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli() : -1;
+    }
+
+    /**
+     * The quoted strong ETag
+     */
+    public String getETag() {
+        return eTag;
+    }
+
+    /**
+     * Last modification time in epoch milliseconds, or -1 if unknown
+     */
+    public long getLastModified() {
+        return lastModified;
+    }
+
+    // Microseconds: the precision timestamps survive a database round trip with
+    private static String toTagPart(LocalDateTime time) {
+        return Long.toString(ChronoUnit.MICROS.between(LocalDateTime.of(1970, 1, 1, 0, 0), time), 36);
+    }
+}
@@ -0,0 +1,63 @@
+package com.letrasvivas.bookapi;
+
+import com.letrasvivas.bookapi.entity.Book;
+import com.letrasvivas.bookapi.repository.BookRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks that saveAll inserts are sent as JDBC batches: with sequence ids and
+ * hibernate.jdbc.batch_size=20, 1000 books must take a few dozen statements
+ * (inserts plus sequence calls) rather than one per row.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class BatchInsertBenchmarkTest {
+
+    private static final int BOOK_COUNT = 1000;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void saveAll_ShouldBatchInserts() {
+        List<Book> books = new ArrayList<>(BOOK_COUNT);
+        for (int i = 0; i < BOOK_COUNT; i++) {
+            books.add(new Book("Book " + i, "Author " + (i % 50), 1900 + (i % 120)));
+        }
+
+        bookRepository.saveAll(books);
+        entityManager.flush();
+
+        long statements = statistics.getPrepareStatementCount();
+
+        assertEquals(BOOK_COUNT, statistics.getEntityInsertCount());
+        // 1000 / 20 insert batches + 1000 / 50 sequence calls (+1 for the initial block)
+        assertTrue(statements <= BOOK_COUNT / 20 + BOOK_COUNT / 50 + 1,
+                "Expected batched inserts but got " + statements + " statements");
+    }
+}
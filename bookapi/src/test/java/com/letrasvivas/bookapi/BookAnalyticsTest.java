@@ -0,0 +1,86 @@
+package com.letrasvivas.bookapi;
+
+import com.letrasvivas.bookapi.entity.Book;
+import com.letrasvivas.bookapi.event.BookChangedEvent;
+import com.letrasvivas.bookapi.repository.BookRepository;
+import com.letrasvivas.bookapi.service.stats.BookAnalytics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BookAnalyticsTest {
+
+    @Mock
+    private BookRepository bookRepository;
+
+    @InjectMocks
+    private BookAnalytics bookAnalytics;
+
+    @BeforeEach
+    void setUp() {
+        when(bookRepository.findMostPopularGenres()).thenReturn(List.of(
+                new Object[]{"Novela", 2L}, new Object[]{"Poesía", 1L}));
+        when(bookRepository.findMostProlificAuthors()).thenReturn(List.of(
+                new Object[]{"Gabriel García Márquez", 2L}, new Object[]{"Pablo Neruda", 1L}));
+        when(bookRepository.findBooksCountByYear()).thenReturn(List.of(
+                new Object[]{1967, 1L}, new Object[]{1924, 1L}, new Object[]{1985, 1L}));
+        when(bookRepository.findPageCountTotalsByGenre()).thenReturn(List.of(
+                new Object[]{"Novela", 800L, 2L}, new Object[]{"Poesía", 100L, 1L}));
+        bookAnalytics.reconcile();
+    }
+
+    @Test
+    void reconcile_ShouldSeedAggregatesFromDatabase() {
+        assertTrue(bookAnalytics.isSeeded());
+        assertRow(bookAnalytics.getMostPopularGenres(10).get(0), "Novela", 2L);
+        assertEquals(List.of(1985, 1967, 1924), bookAnalytics.getBooksCountByYear()
+                .stream().map(row -> row[0]).toList());
+        assertRow(bookAnalytics.getAveragePageCountByGenre().get(0), "Novela", 400.0);
+    }
+
+    @Test
+    void onBookChanged_ShouldMoveCountsOnCreateUpdateAndDelete() {
+        Book created = book("Pablo Neruda", "Poesía", 1950, 300);
+        bookAnalytics.onBookChanged(BookChangedEvent.created(created));
+        bookAnalytics.onBookChanged(BookChangedEvent.created(book("Pablo Neruda", "Poesía", 1924, 200)));
+
+        assertRow(bookAnalytics.getMostProlificAuthors(1).get(0), "Pablo Neruda", 3L);
+        assertRow(bookAnalytics.getMostPopularGenres(1).get(0), "Poesía", 3L);
+        assertRow(bookAnalytics.getAveragePageCountByGenre().get(0), "Novela", 400.0);
+
+        Book moved = book("Pablo Neruda", "Ensayo", 1950, 300);
+        bookAnalytics.onBookChanged(BookChangedEvent.updated(created, moved));
+        bookAnalytics.onBookChanged(BookChangedEvent.deleted(moved));
+
+        assertRow(bookAnalytics.getMostPopularGenres(10).get(1), "Poesía", 2L);
+        assertEquals(2, bookAnalytics.getMostPopularGenres(10).size());
+        assertFalse(bookAnalytics.getBooksCountByYear().stream().anyMatch(row -> row[0].equals(1950)));
+        assertRow(bookAnalytics.getAveragePageCountByGenre().get(1), "Poesía", 150.0);
+    }
+
+    @Test
+    void getMostProlificAuthors_ShouldHonourLimit() {
+        assertEquals(1, bookAnalytics.getMostProlificAuthors(1).size());
+        assertEquals(2, bookAnalytics.getMostProlificAuthors(100).size());
+    }
+
+    private static void assertRow(Object[] row, Object key, Object value) {
+        assertEquals(key, row[0]);
+        assertEquals(value, row[1]);
+    }
+
+    private static Book book(String author, String genre, int year, int pages) {
+        Book book = new Book("Título", author, year, genre, null, null, pages);
+        book.setId(100L + year);
+        return book;
+    }
+}
@@ -0,0 +1,94 @@
+package com.letrasvivas.bookapi;
+
+import com.letrasvivas.bookapi.entity.Book;
+import com.letrasvivas.bookapi.repository.BookRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureWebMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.util.List;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureWebMvc
+@ActiveProfiles("test")
+class BookBatchIntegrationTest {
+
+    @Autowired
+    private WebApplicationContext webApplicationContext;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    private MockMvc mockMvc;
+    private List<Book> books;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.webAppContextSetup(webApplicationContext).build();
+        bookRepository.deleteAll();
+        books = bookRepository.saveAll(List.of(
+                new Book("Ficciones", "Jorge Luis Borges", 1944),
+                new Book("Rayuela", "Julio Cortázar", 1963)));
+    }
+
+    @AfterEach
+    void tearDown() {
+        bookRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Should return books in request order and report missing ids")
+    void shouldReturnBooksInRequestOrder() throws Exception {
+        Long ficciones = books.get(0).getId();
+        Long rayuela = books.get(1).getId();
+
+        mockMvc.perform(get("/api/v1/books/batch")
+                        .param("ids", rayuela + "," + ficciones + ",999999," + rayuela))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.books.length()").value(2))
+                .andExpect(jsonPath("$.books[0].title").value("Rayuela"))
+                .andExpect(jsonPath("$.books[1].title").value("Ficciones"))
+                .andExpect(jsonPath("$.missingIds[0]").value(999999));
+    }
+
+    @Test
+    @DisplayName("Should accept the id list as a JSON body")
+    void shouldAcceptIdsInBody() throws Exception {
+        mockMvc.perform(post("/api/v1/books/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[" + books.get(0).getId() + ", 999999]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.books[0].title").value("Ficciones"))
+                .andExpect(jsonPath("$.missingIds.length()").value(1));
+    }
+
+    @Test
+    @DisplayName("Should reject an empty id list")
+    void shouldRejectEmptyIdList() throws Exception {
+        mockMvc.perform(post("/api/v1/books/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[]"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @DisplayName("Should reject an empty element in the query string id list")
+    void shouldRejectEmptyIdInQueryString() throws Exception {
+        mockMvc.perform(get("/api/v1/books/batch")
+                        .param("ids", books.get(0).getId() + ",," + books.get(1).getId()))
+                .andExpect(status().isBadRequest());
+    }
+}
@@ -0,0 +1,94 @@
+package com.letrasvivas.bookapi;
+
+import com.letrasvivas.bookapi.dto.response.BookResponseDTO;
+import com.letrasvivas.bookapi.entity.Book;
+import com.letrasvivas.bookapi.event.BookChangedEvent;
+import com.letrasvivas.bookapi.service.cache.BookCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BookCacheTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private BookCache bookCache;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        bookCache = new BookCache(100, 30, meterRegistry);
+    }
+
+    @Test
+    void put_ShouldServeBookByIdAndIsbn() {
+        bookCache.put(response(1L, "978-0307474728"), bookCache.stamp());
+
+        assertEquals(1L, bookCache.getById(1L).getId());
+        assertEquals(1L, bookCache.getByIsbn("978-0307474728").getId());
+        assertNull(bookCache.getById(2L));
+    }
+
+    @Test
+    void getById_ShouldNotExposeCachedInstanceToCallers() {
+        BookResponseDTO loaded = response(1L, "978-0307474728");
+        bookCache.put(loaded, bookCache.stamp());
+        loaded.setTitle("Changed after put");
+
+        bookCache.getById(1L).setTitle("Changed by caller");
+        bookCache.getByIsbn("978-0307474728").setIsAvailable(false);
+
+        BookResponseDTO cached = bookCache.getById(1L);
+        assertEquals("Cien Años de Soledad", cached.getTitle());
+        assertTrue(cached.getIsAvailable());
+        assertNotSame(bookCache.getById(1L), bookCache.getById(1L));
+    }
+
+    @Test
+    void onBookChanged_ShouldEvictOldIsbnOnUpdate() {
+        bookCache.put(response(1L, "978-0307474728"), bookCache.stamp());
+
+        Book previous = book(1L, "978-0307474728");
+        Book current = book(1L, "978-0307474735");
+        bookCache.onBookChanged(BookChangedEvent.updated(previous, current));
+
+        assertNull(bookCache.getById(1L));
+        assertNull(bookCache.getByIsbn("978-0307474728"));
+    }
+
+    @Test
+    void put_WithStaleStamp_ShouldNotCache() {
+        long stamp = bookCache.stamp();
+        bookCache.onBookChanged(BookChangedEvent.deleted(book(1L, "978-0307474728")));
+
+        bookCache.put(response(1L, "978-0307474728"), stamp);
+
+        assertNull(bookCache.getById(1L));
+    }
+
+    @Test
+    void monitor_ShouldExposeHitAndMissMeters() {
+        bookCache.put(response(1L, null), bookCache.stamp());
+        bookCache.getById(1L);
+        bookCache.getById(2L);
+
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("cache", "books.byId").tag("result", "hit")
+                .functionCounter().count());
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("cache", "books.byId").tag("result", "miss")
+                .functionCounter().count());
+    }
+
+    private BookResponseDTO response(Long id, String isbn) {
+        BookResponseDTO response = new BookResponseDTO(id, "Cien Años de Soledad", "Gabriel García Márquez", 1967, true);
+        response.setIsbn(isbn);
+        return response;
+    }
+
+    private Book book(Long id, String isbn) {
+        Book book = new Book("Cien Años de Soledad", "Gabriel García Márquez", 1967);
+        book.setId(id);
+        book.setIsbn(isbn);
+        return book;
+    }
+}
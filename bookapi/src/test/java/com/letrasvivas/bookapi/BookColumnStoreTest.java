@@ -0,0 +1,111 @@
+package com.letrasvivas.bookapi;
+
+import com.letrasvivas.bookapi.dto.response.YearRangeStatsDTO;
+import com.letrasvivas.bookapi.repository.BookRepository;
+import com.letrasvivas.bookapi.service.cache.CollectionVersions;
+import com.letrasvivas.bookapi.service.cache.CollectionVersions.Collection;
+import com.letrasvivas.bookapi.service.stats.BookColumnStore;
+import com.letrasvivas.bookapi.service.stats.BookColumnStore.Snapshot;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class BookColumnStoreTest {
+
+    @Test
+    void yearRange_ShouldAggregateOnlyBooksInRange() {
+        Snapshot snapshot = Snapshot.of(List.of(
+                new Object[]{1967, 417, "Novela", "Gabriel García Márquez", true},
+                new Object[]{1985, 368, "Novela", "Gabriel García Márquez", false},
+                new Object[]{1944, 174, "Cuento", "Jorge Luis Borges", true},
+                new Object[]{1963, null, null, "Julio Cortázar", true}
+        ).iterator());
+
+        YearRangeStatsDTO stats = snapshot.yearRange(1960, 1990);
+
+        assertEquals(3, stats.getTotalBooks());
+        assertEquals(2, stats.getAvailableBooks());
+        assertEquals(2, stats.getDistinctAuthors());
+        assertEquals(392.5, stats.getAveragePageCount());
+        assertEquals(Map.of("Novela", 2L), stats.getBooksByGenre());
+    }
+
+    @Test
+    void of_ShouldGrowColumnsPastInitialCapacity() {
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 0; i < 5_000; i++) {
+            rows.add(new Object[]{1900 + i % 100, 100 + i % 50, "Genre" + i % 7, "Author" + i % 300, i % 2 == 0});
+        }
+
+        Snapshot snapshot = Snapshot.of(rows.iterator());
+
+        assertEquals(5_000, snapshot.size());
+        assertEquals(500, snapshot.yearRange(1950, 1959).getTotalBooks());
+        assertEquals(300, snapshot.yearRange(1900, 1999).getDistinctAuthors());
+    }
+
+    @Test
+    void yearRange_WithNoBooks_ShouldLeaveAverageEmpty() {
+        Snapshot snapshot = Snapshot.of(List.<Object[]>of().iterator());
+
+        YearRangeStatsDTO stats = snapshot.yearRange(1900, 2000);
+
+        assertEquals(0, stats.getTotalBooks());
+        assertNull(stats.getAveragePageCount());
+        assertTrue(stats.getBooksByGenre().isEmpty());
+    }
+
+    @Test
+    void refresh_WhenLoadFails_ShouldStayStaleAndRetry() {
+        BookRepository bookRepository = mock(BookRepository.class);
+        CollectionVersions collectionVersions = mock(CollectionVersions.class);
+        PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        when(bookRepository.streamAnalyticsColumns())
+                .thenThrow(new DataAccessResourceFailureException("Connection refused"))
+                .thenReturn(Stream.<Object[]>of(new Object[]{1944, 174, "Cuento", "Jorge Luis Borges", true}));
+        BookColumnStore store = new BookColumnStore(bookRepository, collectionVersions, transactionManager);
+
+        assertThrows(DataAccessResourceFailureException.class, store::refresh);
+        assertNull(store.getSnapshot());
+
+        store.refreshIfStale();
+
+        assertEquals(1, store.getSnapshot().size());
+        verify(bookRepository, times(2)).streamAnalyticsColumns();
+    }
+
+    @Test
+    void refreshIfStale_ShouldReloadOnlyAfterBooksVersionMoves() {
+        BookRepository bookRepository = mock(BookRepository.class);
+        CollectionVersions collectionVersions = mock(CollectionVersions.class);
+        PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        when(collectionVersions.getVersion(Collection.BOOKS)).thenReturn(3L);
+        when(bookRepository.streamAnalyticsColumns())
+                .thenReturn(Stream.<Object[]>of(new Object[]{1944, 174, "Cuento", "Jorge Luis Borges", true}))
+                .thenReturn(Stream.<Object[]>of(new Object[]{1944, 174, "Cuento", "Jorge Luis Borges", true},
+                        new Object[]{1963, 600, "Novela", "Julio Cortázar", true}));
+        BookColumnStore store = new BookColumnStore(bookRepository, collectionVersions, transactionManager);
+        store.load();
+
+        store.refreshIfStale();
+        assertEquals(1, store.getSnapshot().size());
+
+        when(collectionVersions.getVersion(Collection.BOOKS)).thenReturn(4L);
+        store.refreshIfStale();
+
+        assertEquals(2, store.getSnapshot().size());
+        verify(bookRepository, times(2)).streamAnalyticsColumns();
+    }
+}
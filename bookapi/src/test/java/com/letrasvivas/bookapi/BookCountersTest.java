@@ -0,0 +1,116 @@
+package com.letrasvivas.bookapi;
+
+import com.letrasvivas.bookapi.entity.Book;
+import com.letrasvivas.bookapi.event.BookChangedEvent;
+import com.letrasvivas.bookapi.repository.BookRepository;
+import com.letrasvivas.bookapi.service.stats.BookCounters;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class BookCountersTest {
+
+    private BookRepository bookRepository;
+    private BookCounters bookCounters;
+
+    @BeforeEach
+    void setUp() {
+        bookRepository = mock(BookRepository.class);
+        when(bookRepository.count()).thenReturn(3L);
+        when(bookRepository.countByIsAvailableTrue()).thenReturn(2L);
+        bookCounters = new BookCounters(bookRepository);
+        bookCounters.reconcile();
+    }
+
+    @Test
+    void onBookChanged_WhenAvailableBookCreated_ShouldIncrementTotalAndAvailable() {
+        // When
+        bookCounters.onBookChanged(BookChangedEvent.created(book(4L, true)));
+
+        // Then
+        assertEquals(4, bookCounters.getTotal());
+        assertEquals(3, bookCounters.getAvailable());
+    }
+
+    @Test
+    void onBookChanged_WhenUnavailableBookCreated_ShouldIncrementTotalOnly() {
+        // When
+        bookCounters.onBookChanged(BookChangedEvent.created(book(4L, false)));
+
+        // Then
+        assertEquals(4, bookCounters.getTotal());
+        assertEquals(2, bookCounters.getAvailable());
+    }
+
+    @Test
+    void onBookChanged_WhenAvailabilityToggled_ShouldMoveAvailableOnly() {
+        // When
+        bookCounters.onBookChanged(BookChangedEvent.updated(book(1L, true), book(1L, false)));
+
+        // Then
+        assertEquals(3, bookCounters.getTotal());
+        assertEquals(1, bookCounters.getAvailable());
+
+        // When
+        bookCounters.onBookChanged(BookChangedEvent.updated(book(1L, false), book(1L, true)));
+
+        // Then
+        assertEquals(3, bookCounters.getTotal());
+        assertEquals(2, bookCounters.getAvailable());
+    }
+
+    @Test
+    void onBookChanged_WhenAvailabilityUnchanged_ShouldLeaveCountersAlone() {
+        // When
+        bookCounters.onBookChanged(BookChangedEvent.updated(book(1L, true), book(1L, true)));
+
+        // Then
+        assertEquals(3, bookCounters.getTotal());
+        assertEquals(2, bookCounters.getAvailable());
+    }
+
+    @Test
+    void onBookChanged_WhenAvailableBookDeleted_ShouldDecrementTotalAndAvailable() {
+        // When
+        bookCounters.onBookChanged(BookChangedEvent.deleted(book(1L, true)));
+
+        // Then
+        assertEquals(2, bookCounters.getTotal());
+        assertEquals(1, bookCounters.getAvailable());
+    }
+
+    @Test
+    void onBookChanged_WhenUnavailableBookDeleted_ShouldDecrementTotalOnly() {
+        // When
+        bookCounters.onBookChanged(BookChangedEvent.deleted(book(3L, false)));
+
+        // Then
+        assertEquals(2, bookCounters.getTotal());
+        assertEquals(2, bookCounters.getAvailable());
+    }
+
+    @Test
+    void reconcile_ShouldCorrectDrift() {
+        // Given
+        bookCounters.onBookChanged(BookChangedEvent.created(book(4L, true)));
+        when(bookRepository.count()).thenReturn(5L);
+        when(bookRepository.countByIsAvailableTrue()).thenReturn(1L);
+
+        // When
+        bookCounters.reconcile();
+
+        // Then
+        assertTrue(bookCounters.isSeeded());
+        assertEquals(5, bookCounters.getTotal());
+        assertEquals(1, bookCounters.getAvailable());
+    }
+
+    private static Book book(Long id, boolean available) {
+        Book book = new Book("Ficciones", "Jorge Luis Borges", 1944);
+        book.setId(id);
+        book.setIsAvailable(available);
+        return book;
+    }
+}
@@ -0,0 +1,114 @@
+package com.letrasvivas.bookapi;
+
+import com.letrasvivas.bookapi.entity.Book;
+import com.letrasvivas.bookapi.event.BookChangedEvent;
+import com.letrasvivas.bookapi.repository.BookRepository;
+import com.letrasvivas.bookapi.service.index.BookFacetIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BookFacetIndexTest {
+
+    @Mock
+    private BookRepository bookRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @InjectMocks
+    private BookFacetIndex bookFacetIndex;
+
+    @BeforeEach
+    void setUp() {
+        when(bookRepository.streamFacetColumns()).thenReturn(Stream.of(
+                new Object[]{3L, "Rayuela", "Autor", "Novela", 1963, 600, true},
+                new Object[]{1L, "Cien Años de Soledad", "Autor", "Novela", 1967, 417, true},
+                new Object[]{2L, "Ficciones", "Autor", "Cuento", 1944, 174, false}));
+        bookFacetIndex.rebuild();
+    }
+
+    @Test
+    void rebuild_ShouldMarkIndexReady() {
+        assertTrue(bookFacetIndex.isReady());
+        assertEquals(3, bookFacetIndex.size());
+    }
+
+    @Test
+    void search_ShouldCombineFiltersAndSort() {
+        BookFacetIndex.Result result = bookFacetIndex.search(null, "Novela", true, null, null,
+                null, null, Sort.by("title"));
+
+        assertEquals(List.of(1L, 3L), result.getIds());
+    }
+
+    @Test
+    void search_WithRangeInsideBucket_ShouldCheckExactValues() {
+        BookFacetIndex.Result byYear = bookFacetIndex.search(null, null, null, 1965, 1969,
+                null, null, Sort.by("id"));
+        BookFacetIndex.Result byPages = bookFacetIndex.search(null, null, null, null, null,
+                400, 599, Sort.by("id"));
+
+        assertEquals(List.of(1L), byYear.getIds());
+        assertEquals(List.of(1L), byPages.getIds());
+    }
+
+    @Test
+    void search_ShouldCountFacetsIgnoringOwnDimension() {
+        BookFacetIndex.Result result = bookFacetIndex.search(List.of(1L, 2L), "Novela", null, null, null,
+                null, null, Sort.by("id"));
+
+        Map<String, Map<String, Long>> facets = result.getFacets();
+        assertEquals(Map.of("Novela", 1L, "Cuento", 1L), facets.get("genre"));
+        assertEquals(Map.of("1960s", 1L), facets.get("decade"));
+        assertEquals(Map.of("300-499", 1L), facets.get("pages"));
+        assertEquals(List.of(1L), result.getIds());
+    }
+
+    @Test
+    void search_WithTextMatchNotIndexed_ShouldSkipIt() {
+        BookFacetIndex.Result result = bookFacetIndex.search(List.of(1L, 99L), null, null, null, null,
+                null, null, Sort.by("title"));
+
+        assertEquals(List.of(1L), result.getIds());
+        assertEquals(Map.of("Novela", 1L), result.getFacets().get("genre"));
+    }
+
+    @Test
+    void onBookChanged_ShouldMoveBookBetweenBitmaps() {
+        Book before = book(2L, "Ficciones", "Cuento", 1944, 174, false);
+        Book after = book(2L, "Ficciones", "Cuento", 1944, 174, true);
+        bookFacetIndex.onBookChanged(BookChangedEvent.updated(before, after));
+
+        BookFacetIndex.Result result = bookFacetIndex.search(null, null, true, null, null,
+                null, null, Sort.by(Sort.Direction.DESC, "publicationYear"));
+        assertEquals(List.of(1L, 3L, 2L), result.getIds());
+        assertEquals(Map.of("true", 3L), result.getFacets().get("isAvailable"));
+    }
+
+    @Test
+    void supportsSort_ShouldRejectUnknownProperties() {
+        assertTrue(bookFacetIndex.supportsSort(Sort.by("title", "author")));
+        assertFalse(bookFacetIndex.supportsSort(Sort.by("createdAt")));
+    }
+
+    private static Book book(Long id, String title, String genre, int year, int pages, boolean available) {
+        Book book = new Book(title, "Autor", year, genre, null, null, pages);
+        book.setId(id);
+        book.setIsAvailable(available);
+        return book;
+    }
+}
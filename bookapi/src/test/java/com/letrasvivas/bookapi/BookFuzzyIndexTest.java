@@ -0,0 +1,81 @@
+package com.letrasvivas.bookapi;
+
+import com.letrasvivas.bookapi.entity.Book;
+import com.letrasvivas.bookapi.event.BookChangedEvent;
+import com.letrasvivas.bookapi.repository.BookRepository;
+import com.letrasvivas.bookapi.service.index.BookFuzzyIndex;
+import com.letrasvivas.bookapi.service.index.BookSearchIndex.Field;
+import com.letrasvivas.bookapi.util.BkTree;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BookFuzzyIndexTest {
+
+    @Mock
+    private BookRepository bookRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @InjectMocks
+    private BookFuzzyIndex bookFuzzyIndex;
+
+    @BeforeEach
+    void setUp() {
+        when(bookRepository.streamSearchText()).thenReturn(Stream.of(
+                new Object[]{1L, "Cien Años de Soledad", "Gabriel García Márquez"},
+                new Object[]{2L, "Ficciones", "Jorge Luis Borges"},
+                new Object[]{3L, "El Aleph", "Jorge Luis Borges"},
+                new Object[]{4L, "Rayuela", "Julio Cortázar"}));
+        bookFuzzyIndex.rebuild();
+    }
+
+    @Test
+    void search_ShouldTolerateTyposAndAccents() {
+        assertEquals(List.of(1L), bookFuzzyIndex.search("Garcia Marques", Field.ANY, 2, 10));
+        assertEquals(List.of(2L, 3L), bookFuzzyIndex.search("Borjes", Field.AUTHOR, 2, 10));
+        assertEquals(List.of(2L), bookFuzzyIndex.search("fiziones", Field.TITLE, 2, 10));
+    }
+
+    @Test
+    void search_ShouldRespectFieldDistanceAndLimit() {
+        assertTrue(bookFuzzyIndex.search("Borjes", Field.TITLE, 2, 10).isEmpty());
+        assertTrue(bookFuzzyIndex.search("Borjes", Field.ANY, 0, 10).isEmpty());
+        assertEquals(List.of(2L), bookFuzzyIndex.search("Borjes", Field.ANY, 2, 1));
+    }
+
+    @Test
+    void search_AnyField_ShouldMatchWordsAcrossTitleAndAuthor() {
+        assertEquals(List.of(3L), bookFuzzyIndex.search("alph borjes", Field.ANY, 2, 10));
+    }
+
+    @Test
+    void onBookChanged_ShouldDropDeletedBooks() {
+        Book aleph = new Book("El Aleph", "Jorge Luis Borges", 1949);
+        aleph.setId(3L);
+        bookFuzzyIndex.onBookChanged(BookChangedEvent.deleted(aleph));
+
+        assertEquals(List.of(2L), bookFuzzyIndex.search("Borjes", Field.ANY, 2, 10));
+        assertTrue(bookFuzzyIndex.search("aleph", Field.ANY, 2, 10).isEmpty());
+        assertEquals(3, bookFuzzyIndex.size());
+    }
+
+    @Test
+    void distance_ShouldStopOnceBoundIsExceeded() {
+        assertEquals(1, BkTree.distance("borjes", "borges", 2));
+        assertEquals(2, BkTree.distance("fiziones", "ficciones", 2));
+        assertTrue(BkTree.distance("rayuela", "ficciones", 2) > 2);
+    }
+}
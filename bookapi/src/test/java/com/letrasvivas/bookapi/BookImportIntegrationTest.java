@@ -0,0 +1,142 @@
+package com.letrasvivas.bookapi;
+
+import com.letrasvivas.bookapi.entity.Book;
+import com.letrasvivas.bookapi.repository.BookRepository;
+import com.letrasvivas.bookapi.service.stats.BookCounters;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureWebMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Each import chunk commits in its own transaction and publishes its changes after
+ * commit, which a surrounding test transaction would hide: this test is deliberately
+ * not @Transactional and cleans up after itself. Small chunks make a feed of a few
+ * rows span several of them.
+ */
+@SpringBootTest(properties = "app.import.chunk-size=2")
+@AutoConfigureWebMvc
+@ActiveProfiles("test")
+class BookImportIntegrationTest {
+
+    @Autowired
+    private WebApplicationContext webApplicationContext;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private BookCounters bookCounters;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.webAppContextSetup(webApplicationContext).build();
+        bookRepository.deleteAll();
+        bookCounters.reconcile();
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.execute("ALTER TABLE books DROP CONSTRAINT IF EXISTS chk_import_test");
+        bookRepository.deleteAll();
+        // Rows were removed straight through the repository, so re-align the live counters
+        bookCounters.reconcile();
+    }
+
+    @Test
+    @DisplayName("Should import NDJSON rows and report invalid and duplicate ones")
+    void shouldImportNdjsonAndReportRejectedRows() throws Exception {
+        Book existing = new Book("Rayuela", "Julio Cortázar", 1963);
+        existing.setIsbn("9788437604572");
+        bookRepository.saveAndFlush(existing);
+
+        String feed = String.join("\n",
+                "{\"title\":\"Ficciones\",\"author\":\"Jorge Luis Borges\",\"publicationYear\":1944,\"isbn\":\"9780802130303\"}",
+                "{\"title\":\"Rayuela\",\"author\":\"Julio Cortázar\",\"publicationYear\":1963,\"isbn\":\"9788437604572\"}",
+                "",
+                "{\"title\":\"\",\"author\":\"Anónimo\",\"publicationYear\":1554}",
+                "{\"title\":\"Ficciones\",\"author\":\"Jorge Luis Borges\",\"publicationYear\":1944,\"isbn\":\"9780802130303\"}",
+                "{not json");
+
+        mockMvc.perform(post("/api/v1/books/import")
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .content(feed))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalRows").value(5))
+                .andExpect(jsonPath("$.imported").value(1))
+                .andExpect(jsonPath("$.duplicates").value(2))
+                .andExpect(jsonPath("$.invalid").value(2))
+                .andExpect(jsonPath("$.rejectedRows[0].line").value(2))
+                .andExpect(jsonPath("$.rejectedRows[0].status").value("DUPLICATE"));
+
+        assertTrue(bookRepository.existsByIsbn("9780802130303"));
+    }
+
+    @Test
+    @DisplayName("Should import CSV rows with a header")
+    void shouldImportCsvWithHeader() throws Exception {
+        String feed = String.join("\n",
+                "title,author,publicationYear,isbn,pageCount",
+                "\"Cien años de soledad, edición conmemorativa\",Gabriel García Márquez,1967,9788497592208,471",
+                "Pedro Páramo,Juan Rulfo,1955,,124");
+
+        mockMvc.perform(post("/api/v1/books/import")
+                        .contentType("text/csv")
+                        .content(feed))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalRows").value(2))
+                .andExpect(jsonPath("$.imported").value(2));
+
+        assertEquals("Cien años de soledad, edición conmemorativa",
+                bookRepository.findByIsbn("9788497592208").orElseThrow().getTitle());
+    }
+
+    @Test
+    @DisplayName("Should keep the chunks committed before a failing chunk")
+    void shouldKeepEarlierChunksWhenAChunkFails() throws Exception {
+        // Rows that pass validation but that the database rejects
+        jdbcTemplate.execute("ALTER TABLE books ADD CONSTRAINT chk_import_test CHECK (title <> 'Rejected')");
+
+        String feed = String.join("\n",
+                "{\"title\":\"Ficciones\",\"author\":\"Jorge Luis Borges\",\"publicationYear\":1944}",
+                "{\"title\":\"Rayuela\",\"author\":\"Julio Cortázar\",\"publicationYear\":1963}",
+                "{\"title\":\"Pedro Páramo\",\"author\":\"Juan Rulfo\",\"publicationYear\":1955}",
+                "{\"title\":\"Rejected\",\"author\":\"Anónimo\",\"publicationYear\":1554}",
+                "{\"title\":\"Aura\",\"author\":\"Carlos Fuentes\",\"publicationYear\":1962}");
+
+        mockMvc.perform(post("/api/v1/books/import")
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .content(feed))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalRows").value(5))
+                .andExpect(jsonPath("$.imported").value(3))
+                .andExpect(jsonPath("$.failed").value(2))
+                .andExpect(jsonPath("$.rejectedRows[0].line").value(3))
+                .andExpect(jsonPath("$.rejectedRows[0].status").value("FAILED"))
+                .andExpect(jsonPath("$.rejectedRows[1].line").value(4));
+
+        // The whole second chunk was rolled back, the first and third stay committed
+        assertEquals(3, bookRepository.count());
+        assertTrue(bookRepository.findAll().stream().noneMatch(book -> book.getTitle().equals("Pedro Páramo")));
+        // Only committed books reach the live counters
+        assertEquals(3, bookCounters.getTotal());
+    }
+}
@@ -0,0 +1,91 @@
+package com.letrasvivas.bookapi;
+
+import com.letrasvivas.bookapi.entity.Book;
+import com.letrasvivas.bookapi.event.BookChangedEvent;
+import com.letrasvivas.bookapi.repository.BookRepository;
+import com.letrasvivas.bookapi.service.index.BookSearchIndex;
+import com.letrasvivas.bookapi.service.index.BookSearchIndex.Field;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BookSearchIndexTest {
+
+    @Mock
+    private BookRepository bookRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @InjectMocks
+    private BookSearchIndex bookSearchIndex;
+
+    @BeforeEach
+    void setUp() {
+        when(bookRepository.streamSearchText()).thenReturn(Stream.of(
+                new Object[]{1L, "Cien Años de Soledad", "Gabriel García Márquez"},
+                new Object[]{2L, "Ficciones", "Jorge Luis Borges"}));
+        bookSearchIndex.rebuild();
+    }
+
+    @Test
+    void rebuild_ShouldMarkIndexReady() {
+        assertTrue(bookSearchIndex.isReady());
+        assertEquals(2, bookSearchIndex.size());
+    }
+
+    @Test
+    void search_ByTitle_ShouldMatchSubstringIgnoringCase() {
+        assertEquals(List.of(1L), bookSearchIndex.search("SOLEDAD", Field.TITLE));
+        assertEquals(List.of(1L), bookSearchIndex.search("años de", Field.TITLE));
+        assertTrue(bookSearchIndex.search("borges", Field.TITLE).isEmpty());
+    }
+
+    @Test
+    void search_ByAuthor_ShouldNotMatchTitles() {
+        assertEquals(List.of(2L), bookSearchIndex.search("borges", Field.AUTHOR));
+        assertTrue(bookSearchIndex.search("ficciones", Field.AUTHOR).isEmpty());
+    }
+
+    @Test
+    void search_AnyField_WithShortTerm_ShouldScanAllDocuments() {
+        assertEquals(List.of(1L, 2L), bookSearchIndex.search("o", Field.ANY));
+    }
+
+    @Test
+    void search_WithTrigramsInDifferentOrder_ShouldVerifyCandidates() {
+        // "sol" and "ole" both occur in "soledad", but "olesol" does not
+        assertTrue(bookSearchIndex.search("olesol", Field.TITLE).isEmpty());
+    }
+
+    @Test
+    void onBookChanged_ShouldReindexUpdatedAndDeletedBooks() {
+        Book renamed = book(2L, "El Aleph", "Jorge Luis Borges");
+        bookSearchIndex.onBookChanged(BookChangedEvent.updated(book(2L, "Ficciones", "Jorge Luis Borges"), renamed));
+
+        assertTrue(bookSearchIndex.search("ficciones", Field.TITLE).isEmpty());
+        assertEquals(List.of(2L), bookSearchIndex.search("aleph", Field.TITLE));
+
+        bookSearchIndex.onBookChanged(BookChangedEvent.deleted(renamed));
+
+        assertTrue(bookSearchIndex.search("aleph", Field.ANY).isEmpty());
+        assertEquals(1, bookSearchIndex.size());
+    }
+
+    private Book book(Long id, String title, String author) {
+        Book book = new Book(title, author, 1967);
+        book.setId(id);
+        return book;
+    }
+}
@@ -0,0 +1,195 @@
+package com.letrasvivas.bookapi;
+
+import com.letrasvivas.bookapi.dto.request.CreateBookRequestDTO;
+import com.letrasvivas.bookapi.dto.response.BookResponseDTO;
+import com.letrasvivas.bookapi.entity.Book;
+import com.letrasvivas.bookapi.exception.DuplicateResourceException;
+import com.letrasvivas.bookapi.repository.BookRepository;
+import com.letrasvivas.bookapi.service.BookService;
+import com.letrasvivas.bookapi.service.cache.BookCache;
+import com.letrasvivas.bookapi.service.cache.CollectionVersions;
+import com.letrasvivas.bookapi.service.index.BookFacetIndex;
+import com.letrasvivas.bookapi.service.index.BookFuzzyIndex;
+import com.letrasvivas.bookapi.service.index.BookSearchIndex;
+import com.letrasvivas.bookapi.service.index.BookSimilarityIndex;
+import com.letrasvivas.bookapi.service.index.BookSuggestIndex;
+import com.letrasvivas.bookapi.service.index.IsbnFilter;
+import com.letrasvivas.bookapi.service.stats.BookAnalytics;
+import com.letrasvivas.bookapi.service.stats.BookColumnStore;
+import com.letrasvivas.bookapi.service.stats.BookCounters;
+import com.letrasvivas.bookapi.util.ResourceVersion;
+import org.hibernate.exception.ConstraintViolationException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.time.Year;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BookServiceTest {
+
+    @Mock
+    private BookRepository bookRepository;
+
+    @Mock
+    private BookSearchIndex bookSearchIndex;
+
+    @Mock
+    private BookSimilarityIndex bookSimilarityIndex;
+
+    @Mock
+    private BookFacetIndex bookFacetIndex;
+
+    @Mock
+    private BookSuggestIndex bookSuggestIndex;
+
+    @Mock
+    private BookFuzzyIndex bookFuzzyIndex;
+
+    @Mock
+    private BookCounters bookCounters;
+
+    @Mock
+    private BookAnalytics bookAnalytics;
+
+    @Mock
+    private BookColumnStore bookColumnStore;
+
+    @Mock
+    private BookCache bookCache;
+
+    @Mock
+    private CollectionVersions collectionVersions;
+
+    @Mock
+    private IsbnFilter isbnFilter;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @InjectMocks
+    private BookService bookService;
+
+    private Book testBook;
+    private CreateBookRequestDTO createBookRequestDTO;
+
+    @BeforeEach
+    void setUp() {
+        testBook = new Book("Ficciones", "Jorge Luis Borges", 1944);
+        testBook.setId(1L);
+        testBook.setIsbn("9780802130303");
+
+        createBookRequestDTO = new CreateBookRequestDTO("Ficciones", "Jorge Luis Borges", 1944);
+        createBookRequestDTO.setIsbn("9780802130303");
+    }
+
+    @Test
+    void createBook_WhenFilterRulesIsbnOut_ShouldSkipExistenceQuery() {
+        // Given
+        when(isbnFilter.isDefinitelyAbsent("9780802130303")).thenReturn(true);
+        when(bookRepository.save(any(Book.class))).thenReturn(testBook);
+
+        // When
+        BookResponseDTO result = bookService.createBook(createBookRequestDTO);
+
+        // Then
+        assertEquals(1L, result.getId());
+        verify(bookRepository, never()).existsByIsbn(anyString());
+        verify(bookRepository).save(any(Book.class));
+    }
+
+    @Test
+    void createBook_WhenFilterMightContainIsbn_ShouldQueryRepository() {
+        // Given
+        when(isbnFilter.isDefinitelyAbsent("9780802130303")).thenReturn(false);
+        when(bookRepository.existsByIsbn("9780802130303")).thenReturn(true);
+
+        // When & Then
+        assertThrows(DuplicateResourceException.class, () -> {
+            bookService.createBook(createBookRequestDTO);
+        });
+        verify(bookRepository, never()).save(any(Book.class));
+    }
+
+    @Test
+    void createBook_WhenSaveBreaksIsbnConstraint_ShouldThrowDuplicateResourceException() {
+        // Given: another request took the ISBN between the check and the insert
+        when(isbnFilter.isDefinitelyAbsent("9780802130303")).thenReturn(true);
+        when(bookRepository.save(any(Book.class))).thenThrow(violationOf(
+                "PUBLIC.UK_BOOKS_ISBN_INDEX_3 ON PUBLIC.BOOKS(ISBN NULLS FIRST)"));
+
+        // When & Then
+        assertThrows(DuplicateResourceException.class, () -> {
+            bookService.createBook(createBookRequestDTO);
+        });
+    }
+
+    @Test
+    void createBook_WhenSaveBreaksAnotherConstraint_ShouldRethrow() {
+        // Given
+        when(isbnFilter.isDefinitelyAbsent("9780802130303")).thenReturn(true);
+        when(bookRepository.save(any(Book.class))).thenThrow(violationOf(null));
+
+        // When & Then
+        assertThrows(DataIntegrityViolationException.class, () -> {
+            bookService.createBook(createBookRequestDTO);
+        });
+    }
+
+    @Test
+    void searchBooks_WithManyIndexMatches_ShouldLoadSummariesInChunksAndKeepOrder() {
+        // Given
+        List<Long> ids = LongStream.rangeClosed(1, 2500).map(id -> 2501 - id).boxed().collect(Collectors.toList());
+        when(bookSearchIndex.isReady()).thenReturn(true);
+        when(bookSearchIndex.search("a", BookSearchIndex.Field.ANY)).thenReturn(ids);
+        when(bookRepository.findSummariesByIdIn(anyList())).thenAnswer(invocation -> {
+            List<Long> chunk = invocation.getArgument(0);
+            List<BookResponseDTO> summaries = new ArrayList<>();
+            chunk.forEach(id -> summaries.add(new BookResponseDTO(id, "Title " + id, "Author", 1950, true)));
+            return summaries;
+        });
+
+        // When
+        List<BookResponseDTO> books = bookService.searchBooks("a", false);
+
+        // Then
+        verify(bookRepository, times(3)).findSummariesByIdIn(anyList());
+        assertEquals(2500, books.size());
+        assertEquals(2500L, books.get(0).getId());
+        assertEquals(1L, books.get(2499).getId());
+    }
+
+    @Test
+    void getBookVersion_ShouldChangeWithTheYearBecauseOfBookAge() {
+        // Given
+        when(bookRepository.findUpdatedAtById(1L)).thenReturn(Optional.of(LocalDateTime.of(2001, 5, 1, 12, 0)));
+
+        // When
+        ResourceVersion version = bookService.getBookVersion(1L);
+
+        // Then
+        assertTrue(version.getETag().contains("-" + Year.now() + "\""));
+        assertEquals(ResourceVersion.toEpochMillis(Year.now().atDay(1).atStartOfDay()), version.getLastModified());
+    }
+
+    private static DataIntegrityViolationException violationOf(String constraintName) {
+        return new DataIntegrityViolationException("could not execute statement",
+                new ConstraintViolationException("could not execute statement", new SQLException(), constraintName));
+    }
+}
@@ -0,0 +1,82 @@
+package com.letrasvivas.bookapi;
+
+import com.letrasvivas.bookapi.entity.Book;
+import com.letrasvivas.bookapi.event.BookChangedEvent;
+import com.letrasvivas.bookapi.repository.BookRepository;
+import com.letrasvivas.bookapi.service.index.BookSimilarityIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BookSimilarityIndexTest {
+
+    @Mock
+    private BookRepository bookRepository;
+
+    @InjectMocks
+    private BookSimilarityIndex bookSimilarityIndex;
+
+    @BeforeEach
+    void setUp() {
+        when(bookRepository.findAll()).thenReturn(Arrays.asList(
+                book(1L, "Cien Años de Soledad", "Gabriel García Márquez", "Realismo mágico",
+                        "La historia de la familia Buendía en Macondo"),
+                book(2L, "El Amor en los Tiempos del Cólera", "Gabriel García Márquez", "Realismo mágico",
+                        "Florentino Ariza espera a Fermina Daza durante medio siglo"),
+                book(3L, "Crónica de una Muerte Anunciada", "Gabriel Garcia Marquez", "Realismo mágico",
+                        "Santiago Nasar y la muerte anunciada en un pueblo del Caribe"),
+                book(4L, "Dune", "Frank Herbert", "Ciencia ficción",
+                        "Paul Atreides en el planeta desértico Arrakis")
+        ));
+        bookSimilarityIndex.rebuild();
+    }
+
+    @Test
+    void rebuild_ShouldMarkIndexReady() {
+        assertTrue(bookSimilarityIndex.isReady());
+        assertEquals(4, bookSimilarityIndex.size());
+    }
+
+    @Test
+    void findSimilar_ShouldRankSameAuthorAndGenreAboveUnrelatedBooks() {
+        List<Long> similar = bookSimilarityIndex.findSimilar(1L, 10);
+
+        assertFalse(similar.contains(1L));
+        assertTrue(similar.containsAll(List.of(2L, 3L)));
+        assertFalse(similar.contains(4L));
+        assertTrue(bookSimilarityIndex.similarity(1L, 2L) > bookSimilarityIndex.similarity(1L, 4L));
+    }
+
+    @Test
+    void findSimilar_ShouldRespectLimit() {
+        assertEquals(1, bookSimilarityIndex.findSimilar(1L, 1).size());
+    }
+
+    @Test
+    void onBookChanged_ShouldDropDeletedBooksFromResults() {
+        Book deleted = book(2L, "El Amor en los Tiempos del Cólera", "Gabriel García Márquez", "Realismo mágico",
+                "Florentino Ariza espera a Fermina Daza durante medio siglo");
+        bookSimilarityIndex.onBookChanged(BookChangedEvent.deleted(deleted));
+
+        assertFalse(bookSimilarityIndex.contains(2L));
+        assertFalse(bookSimilarityIndex.findSimilar(1L, 10).contains(2L));
+    }
+
+    private Book book(Long id, String title, String author, String genre, String description) {
+        Book book = new Book(title, author, 1967);
+        book.setId(id);
+        book.setGenre(genre);
+        book.setDescription(description);
+        return book;
+    }
+}
@@ -0,0 +1,99 @@
+package com.letrasvivas.bookapi;
+
+import com.letrasvivas.bookapi.entity.Book;
+import com.letrasvivas.bookapi.event.BookChangedEvent;
+import com.letrasvivas.bookapi.repository.BookRepository;
+import com.letrasvivas.bookapi.service.index.BookSuggestIndex;
+import com.letrasvivas.bookapi.service.index.BookSuggestIndex.Completion;
+import com.letrasvivas.bookapi.service.index.BookSuggestIndex.Source;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BookSuggestIndexTest {
+
+    @Mock
+    private BookRepository bookRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @InjectMocks
+    private BookSuggestIndex bookSuggestIndex;
+
+    @BeforeEach
+    void setUp() {
+        when(bookRepository.streamTitlesAndAuthors()).thenReturn(Stream.of(
+                new Object[]{"Cien Años de Soledad", "Gabriel García Márquez"},
+                new Object[]{"El Amor en los Tiempos del Cólera", "Gabriel García Márquez"},
+                new Object[]{"Memoria de mis Putas Tristes", "Gabriel García Márquez"},
+                new Object[]{"Rayuela", "Julio Cortázar"},
+                new Object[]{"Residencia en la Tierra", "Pablo Neruda"}));
+        bookSuggestIndex.rebuild();
+    }
+
+    @Test
+    void rebuild_ShouldIndexDistinctTitlesAndAuthors() {
+        assertTrue(bookSuggestIndex.isReady());
+        assertEquals(8, bookSuggestIndex.size());
+    }
+
+    @Test
+    void suggest_ShouldIgnoreCaseAndAccentsAndMatchWordStarts() {
+        assertEquals(List.of("Julio Cortázar"), texts("CORTA"));
+        assertEquals(List.of("Cien Años de Soledad"), texts("anos d"));
+        assertTrue(texts("azar").isEmpty());
+    }
+
+    @Test
+    void suggest_ShouldRankByBookCount() {
+        List<Completion> completions = bookSuggestIndex.suggest("m", 10);
+
+        assertEquals("Gabriel García Márquez", completions.get(0).getText());
+        assertEquals(Source.AUTHOR, completions.get(0).getSource());
+        assertEquals(3, completions.get(0).getWeight());
+        assertEquals(List.of("Gabriel García Márquez", "Memoria de mis Putas Tristes"), texts("m"));
+        assertEquals(List.of("Rayuela", "Residencia en la Tierra"), texts("r"));
+        assertEquals(1, bookSuggestIndex.suggest("r", 1).size());
+    }
+
+    @Test
+    void onBookChanged_ShouldApplyRenamesAndDeletes() {
+        Book rayuela = book(3L, "Rayuela", "Julio Cortázar");
+        Book renamed = book(3L, "Final del Juego", "Julio Cortázar");
+        bookSuggestIndex.onBookChanged(BookChangedEvent.updated(rayuela, renamed));
+
+        assertTrue(texts("rayu").isEmpty());
+        assertEquals(List.of("Final del Juego"), texts("jueg"));
+
+        bookSuggestIndex.onBookChanged(BookChangedEvent.deleted(book(1L, "Cien Años de Soledad",
+                "Gabriel García Márquez")));
+
+        assertTrue(texts("soledad").isEmpty());
+        assertEquals(2, bookSuggestIndex.suggest("gabriel", 10).get(0).getWeight());
+    }
+
+    private List<String> texts(String prefix) {
+        return bookSuggestIndex.suggest(prefix, 10).stream()
+                .map(Completion::getText)
+                .collect(Collectors.toList());
+    }
+
+    private Book book(Long id, String title, String author) {
+        Book book = new Book(title, author, 1967);
+        book.setId(id);
+        return book;
+    }
+}
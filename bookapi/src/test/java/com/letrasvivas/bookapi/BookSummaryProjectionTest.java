@@ -0,0 +1,85 @@
+package com.letrasvivas.bookapi;
+
+import com.letrasvivas.bookapi.dto.response.BookResponseDTO;
+import com.letrasvivas.bookapi.entity.Book;
+import com.letrasvivas.bookapi.repository.BookRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class BookSummaryProjectionTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    private Book rayuela;
+
+    @BeforeEach
+    void setUp() {
+        rayuela = new Book("Rayuela", "Julio Cortázar", 1963);
+        rayuela.setGenre("Novela");
+        rayuela.setDescription("Una antinovela que puede leerse en varios órdenes");
+        Book ficciones = new Book("Ficciones", "Jorge Luis Borges", 1944);
+        ficciones.setGenre("Cuento");
+        entityManager.persist(rayuela);
+        entityManager.persist(ficciones);
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void findAllSummaries_ShouldSortAndSkipEntityLoading() {
+        Page<BookResponseDTO> page = bookRepository.findAllSummaries(PageRequest.of(0, 10, Sort.by("title")));
+
+        assertEquals(2, page.getTotalElements());
+        assertEquals("Ficciones", page.getContent().get(0).getTitle());
+        assertEquals("Ficciones (1944)", page.getContent().get(0).getDisplayTitle());
+        assertNull(page.getContent().get(1).getDescription());
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+    @Test
+    void findSummariesWithCriteria_ShouldApplyFilters() {
+        Page<BookResponseDTO> page = bookRepository.findSummariesWithCriteria(
+                null, "cortázar", null, 1950, null, null, null, null, PageRequest.of(0, 10));
+
+        assertEquals(1, page.getTotalElements());
+        assertEquals(rayuela.getId(), page.getContent().get(0).getId());
+        assertEquals("Novela", page.getContent().get(0).getGenre());
+    }
+
+    @Test
+    void findDescriptionsByIdIn_ShouldReturnOnlyBooksWithDescriptions() {
+        List<BookResponseDTO> summaries = bookRepository.findSummariesByTitleOrAuthorContaining("o");
+        List<Object[]> descriptions = bookRepository.findDescriptionsByIdIn(
+                summaries.stream().map(BookResponseDTO::getId).toList());
+
+        assertEquals(2, summaries.size());
+        assertEquals(1, descriptions.size());
+        assertEquals(rayuela.getId(), descriptions.get(0)[0]);
+    }
+}
@@ -0,0 +1,154 @@
+package com.letrasvivas.bookapi;
+
+import com.letrasvivas.bookapi.entity.Book;
+import com.letrasvivas.bookapi.entity.User;
+import com.letrasvivas.bookapi.repository.BookRepository;
+import com.letrasvivas.bookapi.repository.SubscriptionRepository;
+import com.letrasvivas.bookapi.repository.UserRepository;
+import com.letrasvivas.bookapi.service.stats.BookCounters;
+import com.letrasvivas.bookapi.service.stats.UserCounters;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureWebMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Listing ETags are moved by collection versions bumped in after-commit listeners,
+ * which never run inside a rolled-back test transaction: this test is deliberately
+ * not @Transactional and cleans up after itself.
+ */
+@SpringBootTest
+@AutoConfigureWebMvc
+@ActiveProfiles("test")
+class ConditionalRequestIntegrationTest {
+
+    @Autowired
+    private WebApplicationContext webApplicationContext;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private SubscriptionRepository subscriptionRepository;
+
+    @Autowired
+    private BookCounters bookCounters;
+
+    @Autowired
+    private UserCounters userCounters;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.webAppContextSetup(webApplicationContext).build();
+        deleteAll();
+    }
+
+    @AfterEach
+    void tearDown() {
+        deleteAll();
+    }
+
+    @Test
+    @DisplayName("Should answer 304 for an unchanged book and a new ETag after an update")
+    void shouldRevalidateBookById() throws Exception {
+        Book book = bookRepository.saveAndFlush(new Book("Ficciones", "Jorge Luis Borges", 1944));
+        String eTag = eTagOf("/api/v1/books/" + book.getId());
+
+        mockMvc.perform(get("/api/v1/books/{id}", book.getId()).header("If-None-Match", eTag))
+                .andExpect(status().isNotModified());
+
+        mockMvc.perform(put("/api/v1/books/{id}", book.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\":\"Ficciones (edición revisada)\"}"))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/v1/books/{id}", book.getId()).header("If-None-Match", eTag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.title").value("Ficciones (edición revisada)"));
+        assertNotEquals(eTag, eTagOf("/api/v1/books/" + book.getId()));
+    }
+
+    @Test
+    @DisplayName("Should answer 304 for an unchanged book listing and a new ETag after a create or update")
+    void shouldRevalidateBookListing() throws Exception {
+        Book book = bookRepository.saveAndFlush(new Book("Rayuela", "Julio Cortázar", 1963));
+        String eTag = eTagOf("/api/v1/books");
+
+        mockMvc.perform(get("/api/v1/books").header("If-None-Match", eTag))
+                .andExpect(status().isNotModified());
+
+        mockMvc.perform(post("/api/v1/books")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\":\"Pedro Páramo\",\"author\":\"Juan Rulfo\",\"publicationYear\":1955}"))
+                .andExpect(status().isCreated());
+
+        mockMvc.perform(get("/api/v1/books").header("If-None-Match", eTag))
+                .andExpect(status().isOk());
+        String afterCreate = eTagOf("/api/v1/books");
+        assertNotEquals(eTag, afterCreate);
+
+        mockMvc.perform(put("/api/v1/books/{id}", book.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"genre\":\"Novela\"}"))
+                .andExpect(status().isOk());
+
+        assertNotEquals(afterCreate, eTagOf("/api/v1/books"));
+    }
+
+    @Test
+    @DisplayName("Should answer 304 for an unchanged user listing and a new ETag after an update")
+    void shouldRevalidateUserListing() throws Exception {
+        User user = userRepository.saveAndFlush(new User("Ana", "García", "ana@example.com", "+1111111111", 30));
+        userCounters.reconcile();
+        String listETag = eTagOf("/api/v1/users");
+        String userETag = eTagOf("/api/v1/users/" + user.getId());
+
+        mockMvc.perform(get("/api/v1/users").header("If-None-Match", listETag))
+                .andExpect(status().isNotModified());
+
+        mockMvc.perform(put("/api/v1/users/{id}", user.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"lastName\":\"García López\"}"))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/v1/users").header("If-None-Match", listETag))
+                .andExpect(status().isOk());
+        assertNotEquals(listETag, eTagOf("/api/v1/users"));
+        assertNotEquals(userETag, eTagOf("/api/v1/users/" + user.getId()));
+    }
+
+    private String eTagOf(String uri) throws Exception {
+        return mockMvc.perform(get(uri))
+                .andExpect(status().isOk())
+                .andExpect(header().exists("ETag"))
+                .andExpect(header().exists("Last-Modified"))
+                .andReturn().getResponse().getHeader("ETag");
+    }
+
+    private void deleteAll() {
+        subscriptionRepository.deleteAll();
+        userRepository.deleteAll();
+        bookRepository.deleteAll();
+        userCounters.reconcile();
+        bookCounters.reconcile();
+    }
+}
@@ -0,0 +1,123 @@
+package com.letrasvivas.bookapi;
+
+import com.letrasvivas.bookapi.entity.Book;
+import com.letrasvivas.bookapi.entity.Subscription.SubscriptionStatus;
+import com.letrasvivas.bookapi.repository.BookRepository;
+import com.letrasvivas.bookapi.repository.SubscriptionRepository;
+import com.letrasvivas.bookapi.repository.UserRepository;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the advanced searches, captures the SQL Hibernate generates and asks H2 for
+ * its plan: each filter that is supplied must be answered from an index, and the
+ * filters that are not supplied must not appear in the query at all.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "com.letrasvivas.bookapi.CriteriaQueryPlanTest$CapturedSql")
+class CriteriaQueryPlanTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private SubscriptionRepository subscriptionRepository;
+
+    @BeforeEach
+    void setUp() {
+        Book rayuela = new Book("Rayuela", "Julio Cortázar", 1963);
+        rayuela.setGenre("Novela");
+        entityManager.persistAndFlush(rayuela);
+        CapturedSql.STATEMENTS.clear();
+    }
+
+    @Test
+    void bookSearchByGenre_ShouldUseGenreIndex() throws Exception {
+        bookRepository.findSummariesWithCriteria(null, null, "Novela", null, null, null, null, null,
+                PageRequest.of(0, 10));
+
+        String sql = lastSelectFrom("books");
+        assertFalse(sql.contains("is null"));
+        assertTrue(plan(sql).contains("IDX_BOOKS_GENRE_YEAR"));
+    }
+
+    @Test
+    void bookSearchByYearRange_ShouldUseYearIndex() throws Exception {
+        bookRepository.findBooksWithCriteria(null, null, null, 1950, 1970, null, null, null,
+                PageRequest.of(0, 10));
+
+        assertTrue(plan(lastSelectFrom("books")).contains("IDX_BOOKS_PUBLICATION_YEAR"));
+    }
+
+    @Test
+    void userSearchByActivityAndAge_ShouldUseCompositeIndex() throws Exception {
+        userRepository.findUsersWithCriteria(null, null, null, true, 18, 30, PageRequest.of(0, 10));
+
+        assertTrue(plan(lastSelectFrom("users")).contains("IDX_USERS_ACTIVE_AGE"));
+    }
+
+    @Test
+    void subscriptionSearchByStatus_ShouldUseStatusIndex() throws Exception {
+        subscriptionRepository.findSubscriptionsWithCriteria(null, SubscriptionStatus.ACTIVE, null, null,
+                null, null, null, PageRequest.of(0, 10));
+
+        assertTrue(plan(lastSelectFrom("subscriptions")).contains("IDX_SUBSCRIPTIONS_STATUS_END_DATE"));
+    }
+
+    private String lastSelectFrom(String table) {
+        for (int i = CapturedSql.STATEMENTS.size() - 1; i >= 0; i--) {
+            String sql = CapturedSql.STATEMENTS.get(i).toLowerCase(Locale.ROOT);
+            if (sql.contains(" from " + table + " ")) {
+                return sql;
+            }
+        }
+        return fail("No query against " + table + " was captured");
+    }
+
+    private String plan(String sql) throws Exception {
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet plan = statement.executeQuery("EXPLAIN " + sql)) {
+            assertTrue(plan.next());
+            return plan.getString(1).toUpperCase(Locale.ROOT);
+        }
+    }
+
+    /**
+     * Records every SQL statement Hibernate prepares
+     */
+    public static class CapturedSql implements StatementInspector {
+
+        static final List<String> STATEMENTS = new ArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            STATEMENTS.add(sql);
+            return sql;
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.letrasvivas.bookapi;
+
+import com.letrasvivas.bookapi.util.RoaringBitmap;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RoaringBitmapTest {
+
+    @Test
+    void andOr_ShouldMatchBitSetAcrossSparseAndDenseChunks() {
+        Random random = new Random(42);
+        RoaringBitmap left = new RoaringBitmap();
+        RoaringBitmap right = new RoaringBitmap();
+        BitSet expectedLeft = new BitSet();
+        BitSet expectedRight = new BitSet();
+        for (int i = 0; i < 20_000; i++) {
+            // Dense in the first chunk, sparse in the following ones
+            int value = i % 2 == 0 ? random.nextInt(65_536) : random.nextInt(1_000_000);
+            left.add(value);
+            expectedLeft.set(value);
+            int other = random.nextInt(200_000);
+            right.add(other);
+            expectedRight.set(other);
+        }
+
+        BitSet and = (BitSet) expectedLeft.clone();
+        and.and(expectedRight);
+        BitSet or = (BitSet) expectedLeft.clone();
+        or.or(expectedRight);
+
+        assertEquals(values(and), values(left.and(right)));
+        assertEquals(values(or), values(left.or(right)));
+        assertEquals(and.cardinality(), left.andCardinality(right));
+    }
+
+    @Test
+    void remove_ShouldShrinkDenseChunkBackToArray() {
+        RoaringBitmap bitmap = new RoaringBitmap();
+        for (int i = 0; i < 5_000; i++) {
+            bitmap.add(i);
+        }
+        for (int i = 0; i < 4_990; i++) {
+            bitmap.remove(i);
+        }
+
+        assertEquals(10, bitmap.cardinality());
+        assertTrue(bitmap.contains(4_995));
+        assertFalse(bitmap.contains(10));
+    }
+
+    @Test
+    void add_WithNegativeValue_ShouldThrow() {
+        assertThrows(IllegalArgumentException.class, () -> new RoaringBitmap().add(-1));
+    }
+
+    private static List<Integer> values(BitSet bits) {
+        List<Integer> values = new ArrayList<>();
+        bits.stream().forEach(values::add);
+        return values;
+    }
+
+    private static List<Integer> values(RoaringBitmap bitmap) {
+        List<Integer> values = new ArrayList<>();
+        bitmap.forEach(values::add);
+        return values;
+    }
+}
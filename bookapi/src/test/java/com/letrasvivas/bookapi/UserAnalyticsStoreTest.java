@@ -0,0 +1,61 @@
+package com.letrasvivas.bookapi;
+
+import com.letrasvivas.bookapi.dto.response.UserAnalyticsDTO;
+import com.letrasvivas.bookapi.service.stats.UserAnalyticsStore;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UserAnalyticsStoreTest {
+
+    @Test
+    void summarize_ShouldBuildSplitAgeRangesAndMonthlySignups() {
+        UserAnalyticsDTO analytics = UserAnalyticsStore.summarize(List.of(
+                new Object[]{25, true, LocalDateTime.of(2024, 1, 15, 10, 0), 2L},
+                new Object[]{29, true, LocalDateTime.of(2024, 3, 2, 9, 30), 0L},
+                new Object[]{41, false, LocalDateTime.of(2023, 11, 20, 18, 0), 1L},
+                new Object[]{null, true, LocalDateTime.of(2024, 1, 31, 23, 59), 0L}
+        ).iterator(), LocalDateTime.now());
+
+        assertEquals(4, analytics.getTotalUsers());
+        assertEquals(3, analytics.getActiveUsers());
+        assertEquals(1, analytics.getInactiveUsers());
+        assertEquals(95.0 / 3, analytics.getAverageAge(), 1e-9);
+        assertEquals(Map.of("20-29", 2L, "40-49", 1L), analytics.getUsersByAgeRange());
+        assertEquals(List.of("2023-11", "2024-01", "2024-03"), new ArrayList<>(analytics.getSignupsByMonth().keySet()));
+        assertEquals(2L, analytics.getSignupsByMonth().get("2024-01"));
+        assertEquals(0.75, analytics.getAverageSubscriptions());
+    }
+
+    @Test
+    void summarize_ShouldComputeNearestRankSubscriptionPercentiles() {
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            rows.add(new Object[]{30, true, LocalDateTime.of(2024, 1, 1, 0, 0), i < 95 ? (long) (i % 3) : 40L});
+        }
+
+        Map<String, Integer> percentiles = UserAnalyticsStore.summarize(rows.iterator(), LocalDateTime.now())
+                .getSubscriptionPercentiles();
+
+        assertEquals(1, percentiles.get("p50"));
+        assertEquals(2, percentiles.get("p90"));
+        assertEquals(2, percentiles.get("p95"));
+        assertEquals(40, percentiles.get("p99"));
+        assertEquals(40, percentiles.get("max"));
+    }
+
+    @Test
+    void summarize_WithNoUsers_ShouldLeaveAveragesEmpty() {
+        UserAnalyticsDTO analytics = UserAnalyticsStore.summarize(List.<Object[]>of().iterator(), LocalDateTime.now());
+
+        assertEquals(0, analytics.getTotalUsers());
+        assertNull(analytics.getAverageAge());
+        assertNull(analytics.getAverageSubscriptions());
+        assertTrue(analytics.getSubscriptionPercentiles().isEmpty());
+    }
+}
@@ -0,0 +1,174 @@
+package com.letrasvivas.bookapi;
+
+import com.letrasvivas.bookapi.entity.Subscription;
+import com.letrasvivas.bookapi.entity.Subscription.SubscriptionStatus;
+import com.letrasvivas.bookapi.entity.User;
+import com.letrasvivas.bookapi.repository.SubscriptionRepository;
+import com.letrasvivas.bookapi.repository.UserRepository;
+import com.letrasvivas.bookapi.service.stats.UserCounters;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureWebMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import static org.hamcrest.Matchers.contains;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Bulk user operations keep the live counters and collection versions current in
+ * after-commit listeners, which never run inside a rolled-back test transaction:
+ * this test is deliberately not @Transactional and cleans up after itself.
+ */
+@SpringBootTest
+@AutoConfigureWebMvc
+@ActiveProfiles("test")
+class UserBulkOperationsIntegrationTest {
+
+    @Autowired
+    private WebApplicationContext webApplicationContext;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private SubscriptionRepository subscriptionRepository;
+
+    @Autowired
+    private UserCounters userCounters;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.webAppContextSetup(webApplicationContext).build();
+        deleteAllUsers();
+    }
+
+    @AfterEach
+    void tearDown() {
+        deleteAllUsers();
+    }
+
+    @Test
+    @DisplayName("Should deactivate users matching filters and update the counters and ETag")
+    void shouldDeactivateUsersByFiltersInBulk() throws Exception {
+        userRepository.saveAndFlush(new User("Dormant", "Older", "older@example.com", "+1111111111", 70));
+        userRepository.saveAndFlush(new User("Dormant", "Young", "young@example.com", "+2222222222", 20));
+        userRepository.saveAndFlush(new User("Recent", "Older", "recent@example.com", "+3333333333", 75));
+        userCounters.reconcile();
+        String eTag = usersETag();
+
+        mockMvc.perform(post("/api/v1/users/bulk/deactivate")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"firstName\":\"dormant\",\"minAge\":60}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.affectedUsers").value(1));
+
+        assertEquals(3, userCounters.getTotal());
+        assertEquals(2, userCounters.getActive());
+        String deactivatedETag = usersETag();
+        assertNotEquals(eTag, deactivatedETag);
+
+        // Already inactive users are not counted again
+        mockMvc.perform(post("/api/v1/users/bulk/deactivate")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"firstName\":\"dormant\",\"minAge\":60}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.affectedUsers").value(0));
+
+        assertEquals(2, userCounters.getActive());
+        assertEquals(2, userRepository.countByIsActiveTrue());
+    }
+
+    @Test
+    @DisplayName("Should reactivate users by id and update the counters and ETag")
+    void shouldReactivateUsersByIdInBulk() throws Exception {
+        User first = new User("First", "Inactive", "first@example.com", "+1111111111", 30);
+        first.setIsActive(false);
+        User second = new User("Second", "Active", "second@example.com", "+2222222222", 40);
+        Long firstId = userRepository.saveAndFlush(first).getId();
+        Long secondId = userRepository.saveAndFlush(second).getId();
+        userCounters.reconcile();
+        String eTag = usersETag();
+
+        mockMvc.perform(post("/api/v1/users/bulk/reactivate")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"ids\":[" + firstId + "," + secondId + "]}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.affectedUsers").value(1));
+
+        assertEquals(2, userCounters.getActive());
+        assertEquals(2, userRepository.countByIsActiveTrue());
+        assertNotEquals(eTag, usersETag());
+    }
+
+    @Test
+    @DisplayName("Should permanently delete users with their subscriptions and update counters and caches")
+    void shouldPurgeUsersWithSubscriptionsInBulk() throws Exception {
+        User subscriber = userRepository.saveAndFlush(
+                new User("Long", "Subscriber", "subscriber@example.com", "+1111111111", 50));
+        User kept = userRepository.saveAndFlush(
+                new User("Kept", "User", "kept@example.com", "+2222222222", 35));
+        for (int i = 0; i < 3; i++) {
+            subscriptionRepository.saveAndFlush(new Subscription("Plan " + i, new BigDecimal("9.99"),
+                    LocalDate.now().minusYears(3 - i), 12, SubscriptionStatus.EXPIRED, subscriber));
+        }
+        subscriptionRepository.saveAndFlush(new Subscription("Kept plan", new BigDecimal("9.99"),
+                LocalDate.now(), 12, SubscriptionStatus.ACTIVE, kept));
+        userCounters.reconcile();
+        String eTag = usersETag();
+
+        // Load the email cache with the user about to be purged
+        mockMvc.perform(get("/api/v1/users/email/{email}", "subscriber@example.com"))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/api/v1/users/email/{email}/exists", "subscriber@example.com"))
+                .andExpect(jsonPath("$.exists").value(true));
+
+        mockMvc.perform(post("/api/v1/users/bulk/purge")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"ids\":[" + subscriber.getId() + ",999999]}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.deletedUsers").value(1))
+                .andExpect(jsonPath("$.deletedSubscriptions").value(3))
+                .andExpect(jsonPath("$.missingIds", contains(999999)));
+
+        assertEquals(1, userRepository.count());
+        assertEquals(1, subscriptionRepository.count());
+        assertEquals(1, userCounters.getTotal());
+        assertEquals(1, userCounters.getActive());
+        assertNotEquals(eTag, usersETag());
+        mockMvc.perform(get("/api/v1/users/email/{email}", "subscriber@example.com"))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(get("/api/v1/users/email/{email}/exists", "subscriber@example.com"))
+                .andExpect(jsonPath("$.exists").value(false));
+    }
+
+    private String usersETag() throws Exception {
+        String eTag = mockMvc.perform(get("/api/v1/users"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+        assertNotNull(eTag);
+        return eTag;
+    }
+
+    private void deleteAllUsers() {
+        subscriptionRepository.deleteAll();
+        userRepository.deleteAll();
+        // Rows were removed straight through the repositories, so re-align the live counters
+        userCounters.reconcile();
+    }
+}
@@ -5,6 +5,7 @@ import com.letrasvivas.bookapi.dto.request.CreateUserRequestDTO;
 import com.letrasvivas.bookapi.dto.request.UpdateUserRequestDTO;
 import com.letrasvivas.bookapi.entity.User;
 import com.letrasvivas.bookapi.repository.UserRepository;
+import com.letrasvivas.bookapi.service.stats.UserCounters;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.DisplayName;
@@ -19,6 +20,7 @@ import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.context.WebApplicationContext;
 
 import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.hamcrest.Matchers.containsString; // ← Importación específica agregada
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -35,6 +37,9 @@ class UserControllerIntegrationTest {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private UserCounters userCounters;
+
     @Autowired
     private ObjectMapper objectMapper;
 
@@ -126,6 +131,26 @@ class UserControllerIntegrationTest {
                 .andExpect(jsonPath("$.fullName").value("Alice Johnson"));
     }
 
+    @Test
+    @DisplayName("Should answer 304 when the client's copy of the user is current")
+    void shouldReturn304WhenUserNotModified() throws Exception {
+        User savedUser = userRepository.save(new User("Alice", "Johnson", "alice@example.com", "+3333333333", 32));
+
+        String eTag = mockMvc.perform(get("/api/v1/users/{id}", savedUser.getId()))
+                .andExpect(status().isOk())
+                .andExpect(header().exists("ETag"))
+                .andExpect(header().exists("Last-Modified"))
+                .andReturn().getResponse().getHeader("ETag");
+
+        mockMvc.perform(get("/api/v1/users/{id}", savedUser.getId()).header("If-None-Match", eTag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+
+        mockMvc.perform(get("/api/v1/users/{id}", savedUser.getId()).header("If-None-Match", "\"stale\""))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(savedUser.getId()));
+    }
+
     @Test
     @DisplayName("Should return 404 when user not found")
     void shouldReturn404WhenUserNotFound() throws Exception {
@@ -179,6 +204,30 @@ class UserControllerIntegrationTest {
                 .andExpect(jsonPath("$.last").value(false));
     }
 
+    @Test
+    @DisplayName("Should reject an out-of-range keyset page size")
+    void shouldRejectOutOfRangeScrollPageSize() throws Exception {
+        mockMvc.perform(get("/api/v1/users/scroll")
+                        .param("size", "0"))
+                .andExpect(status().isBadRequest());
+
+        mockMvc.perform(get("/api/v1/users/scroll")
+                        .param("size", "101"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @DisplayName("Should reject an out-of-range active subscriber page size")
+    void shouldRejectOutOfRangeActiveSubscriberPageSize() throws Exception {
+        mockMvc.perform(get("/api/v1/users/with-subscriptions")
+                        .param("size", "0"))
+                .andExpect(status().isBadRequest());
+
+        mockMvc.perform(get("/api/v1/users/with-subscriptions")
+                        .param("size", "501"))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     @DisplayName("Should search users by name")
     void shouldSearchUsersByName() throws Exception {
@@ -233,6 +282,37 @@ class UserControllerIntegrationTest {
                 .andExpect(jsonPath("$.isActive").value(false));
     }
 
+    @Test
+    @DisplayName("Should reject bulk deactivation without a selection")
+    void shouldRejectBulkDeactivationWithoutSelection() throws Exception {
+        mockMvc.perform(post("/api/v1/users/bulk/deactivate")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{}"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @DisplayName("Should reject bulk deactivation with a blank filter")
+    void shouldRejectBulkDeactivationWithBlankFilter() throws Exception {
+        userRepository.saveAndFlush(new User("Still", "Active", "still@example.com", "+1111111111", 30));
+
+        mockMvc.perform(post("/api/v1/users/bulk/deactivate")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"firstName\":\"\"}"))
+                .andExpect(status().isBadRequest());
+
+        assertEquals(1, userRepository.countByIsActiveTrue());
+    }
+
+    @Test
+    @DisplayName("Should reject bulk purge without ids")
+    void shouldRejectBulkPurgeWithoutIds() throws Exception {
+        mockMvc.perform(post("/api/v1/users/bulk/purge")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"ids\":[]}"))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     @DisplayName("Should get user statistics")
     void shouldGetUserStatistics() throws Exception {
@@ -242,6 +322,8 @@ class UserControllerIntegrationTest {
 
         userRepository.save(activeUser);
         userRepository.save(inactiveUser);
+        // Users were written straight through the repository, so re-align the live counters
+        userCounters.reconcile();
 
         mockMvc.perform(get("/api/v1/users/statistics"))
                 .andExpect(status().isOk())
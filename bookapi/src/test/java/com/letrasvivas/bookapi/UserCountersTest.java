@@ -0,0 +1,146 @@
+package com.letrasvivas.bookapi;
+
+import com.letrasvivas.bookapi.entity.User;
+import com.letrasvivas.bookapi.event.UserChangedEvent;
+import com.letrasvivas.bookapi.event.UsersActivationChangedEvent;
+import com.letrasvivas.bookapi.event.UsersPurgedEvent;
+import com.letrasvivas.bookapi.repository.UserRepository;
+import com.letrasvivas.bookapi.service.stats.UserCounters;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class UserCountersTest {
+
+    private UserRepository userRepository;
+    private UserCounters userCounters;
+
+    @BeforeEach
+    void setUp() {
+        userRepository = mock(UserRepository.class);
+        when(userRepository.count()).thenReturn(3L);
+        when(userRepository.countByIsActiveTrue()).thenReturn(2L);
+        userCounters = new UserCounters(userRepository);
+        userCounters.reconcile();
+    }
+
+    @Test
+    void onUserChanged_WhenActiveUserCreated_ShouldIncrementTotalAndActive() {
+        // When
+        userCounters.onUserChanged(UserChangedEvent.created(user(4L, true)));
+
+        // Then
+        assertEquals(4, userCounters.getTotal());
+        assertEquals(3, userCounters.getActive());
+    }
+
+    @Test
+    void onUserChanged_WhenInactiveUserCreated_ShouldIncrementTotalOnly() {
+        // When
+        userCounters.onUserChanged(UserChangedEvent.created(user(4L, false)));
+
+        // Then
+        assertEquals(4, userCounters.getTotal());
+        assertEquals(2, userCounters.getActive());
+    }
+
+    @Test
+    void onUserChanged_WhenActivationToggled_ShouldMoveActiveOnly() {
+        // When
+        userCounters.onUserChanged(UserChangedEvent.updated(user(1L, true), user(1L, false)));
+
+        // Then
+        assertEquals(3, userCounters.getTotal());
+        assertEquals(1, userCounters.getActive());
+
+        // When
+        userCounters.onUserChanged(UserChangedEvent.updated(user(1L, false), user(1L, true)));
+
+        // Then
+        assertEquals(3, userCounters.getTotal());
+        assertEquals(2, userCounters.getActive());
+    }
+
+    @Test
+    void onUserChanged_WhenActivationUnchanged_ShouldLeaveCountersAlone() {
+        // When
+        userCounters.onUserChanged(UserChangedEvent.updated(user(1L, true), user(1L, true)));
+
+        // Then
+        assertEquals(3, userCounters.getTotal());
+        assertEquals(2, userCounters.getActive());
+    }
+
+    @Test
+    void onUserChanged_WhenActiveUserDeleted_ShouldDecrementTotalAndActive() {
+        // When
+        userCounters.onUserChanged(UserChangedEvent.deleted(user(1L, true)));
+
+        // Then
+        assertEquals(2, userCounters.getTotal());
+        assertEquals(1, userCounters.getActive());
+    }
+
+    @Test
+    void onUserChanged_WhenInactiveUserDeleted_ShouldDecrementTotalOnly() {
+        // When
+        userCounters.onUserChanged(UserChangedEvent.deleted(user(3L, false)));
+
+        // Then
+        assertEquals(2, userCounters.getTotal());
+        assertEquals(2, userCounters.getActive());
+    }
+
+    @Test
+    void onUsersActivationChanged_ShouldMoveActiveByCount() {
+        // When
+        userCounters.onUsersActivationChanged(new UsersActivationChangedEvent(false, 2));
+
+        // Then
+        assertEquals(3, userCounters.getTotal());
+        assertEquals(0, userCounters.getActive());
+
+        // When
+        userCounters.onUsersActivationChanged(new UsersActivationChangedEvent(true, 1));
+
+        // Then
+        assertEquals(1, userCounters.getActive());
+    }
+
+    @Test
+    void onUsersPurged_ShouldDecrementTotalAndActiveOfPurgedUsers() {
+        // When
+        userCounters.onUsersPurged(new UsersPurgedEvent(List.of(user(1L, true), user(3L, false))));
+
+        // Then
+        assertEquals(1, userCounters.getTotal());
+        assertEquals(1, userCounters.getActive());
+    }
+
+    @Test
+    void reconcile_ShouldCorrectDrift() {
+        // Given
+        userCounters.onUserChanged(UserChangedEvent.created(user(4L, true)));
+        when(userRepository.count()).thenReturn(5L);
+        when(userRepository.countByIsActiveTrue()).thenReturn(1L);
+
+        // When
+        userCounters.reconcile();
+
+        // Then
+        assertTrue(userCounters.isSeeded());
+        assertEquals(5, userCounters.getTotal());
+        assertEquals(1, userCounters.getActive());
+    }
+
+    private static User user(Long id, boolean active) {
+        User user = new User("John", "Doe", "john.doe" + id + "@example.com", "+1234567890", 30);
+        user.setId(id);
+        user.setIsActive(active);
+        return user;
+    }
+}
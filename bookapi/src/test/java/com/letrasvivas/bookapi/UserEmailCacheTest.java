@@ -0,0 +1,75 @@
+package com.letrasvivas.bookapi;
+
+import com.letrasvivas.bookapi.entity.User;
+import com.letrasvivas.bookapi.event.UserChangedEvent;
+import com.letrasvivas.bookapi.service.cache.UserEmailCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UserEmailCacheTest {
+
+    private UserEmailCache userEmailCache;
+
+    @BeforeEach
+    void setUp() {
+        userEmailCache = new UserEmailCache(100, 30, 30, new SimpleMeterRegistry());
+    }
+
+    @Test
+    void putPresent_ShouldServeIdForSameSpellingOnly() {
+        userEmailCache.putPresent("John.Doe@example.com", 1L, userEmailCache.stamp());
+
+        assertEquals(Optional.of(1L), userEmailCache.getId("John.Doe@example.com"));
+        assertTrue(userEmailCache.isKnownPresent("John.Doe@example.com"));
+        assertFalse(userEmailCache.isKnownPresent("john.doe@example.com"));
+    }
+
+    @Test
+    void putPresent_WithoutId_ShouldKeepKnownId() {
+        userEmailCache.putPresent("john.doe@example.com", 1L, userEmailCache.stamp());
+        userEmailCache.putPresent("john.doe@example.com", null, userEmailCache.stamp());
+
+        assertEquals(Optional.of(1L), userEmailCache.getId("john.doe@example.com"));
+    }
+
+    @Test
+    void onUserChanged_ShouldEvictAbsentEntryOfAnySpelling() {
+        userEmailCache.putAbsent("Jane.Smith@example.com", userEmailCache.stamp());
+        assertTrue(userEmailCache.isKnownAbsent("Jane.Smith@example.com"));
+
+        userEmailCache.onUserChanged(UserChangedEvent.created(user(2L, "jane.smith@example.com")));
+
+        assertFalse(userEmailCache.isKnownAbsent("Jane.Smith@example.com"));
+    }
+
+    @Test
+    void onUserChanged_ShouldEvictPreviousEmailOnUpdate() {
+        userEmailCache.putPresent("john.doe@example.com", 1L, userEmailCache.stamp());
+
+        userEmailCache.onUserChanged(UserChangedEvent.updated(
+                user(1L, "john.doe@example.com"), user(1L, "johnny@example.com")));
+
+        assertEquals(Optional.empty(), userEmailCache.getId("john.doe@example.com"));
+    }
+
+    @Test
+    void putAbsent_WithStaleStamp_ShouldNotCache() {
+        long stamp = userEmailCache.stamp();
+        userEmailCache.onUserChanged(UserChangedEvent.created(user(2L, "jane.smith@example.com")));
+
+        userEmailCache.putAbsent("jane.smith@example.com", stamp);
+
+        assertFalse(userEmailCache.isKnownAbsent("jane.smith@example.com"));
+    }
+
+    private User user(Long id, String email) {
+        User user = new User("John", "Doe", email, "+1234567890", 25);
+        user.setId(id);
+        return user;
+    }
+}
@@ -0,0 +1,142 @@
+package com.letrasvivas.bookapi;
+
+import com.letrasvivas.bookapi.entity.User;
+import com.letrasvivas.bookapi.repository.UserRepository;
+import com.letrasvivas.bookapi.service.stats.UserCounters;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureWebMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Each import chunk commits in its own transaction and publishes its changes after
+ * commit, which a surrounding test transaction would hide: this test is deliberately
+ * not @Transactional and cleans up after itself. Small chunks make a feed of a few
+ * rows span several of them.
+ */
+@SpringBootTest(properties = "app.import.chunk-size=2")
+@AutoConfigureWebMvc
+@ActiveProfiles("test")
+class UserImportIntegrationTest {
+
+    @Autowired
+    private WebApplicationContext webApplicationContext;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserCounters userCounters;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.webAppContextSetup(webApplicationContext).build();
+        userRepository.deleteAll();
+        userCounters.reconcile();
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.execute("ALTER TABLE users DROP CONSTRAINT IF EXISTS chk_import_test");
+        userRepository.deleteAll();
+        // Rows were removed straight through the repository, so re-align the live counters
+        userCounters.reconcile();
+    }
+
+    @Test
+    @DisplayName("Should import NDJSON rows and report invalid and duplicate ones")
+    void shouldImportNdjsonAndReportRejectedRows() throws Exception {
+        userRepository.saveAndFlush(new User("John", "Doe", "john.doe@example.com", "+1234567890", 25));
+
+        String feed = String.join("\n",
+                "{\"firstName\":\"Jane\",\"lastName\":\"Smith\",\"email\":\"jane.smith@example.com\",\"phoneNumber\":\"+1987654321\",\"age\":30}",
+                "{\"firstName\":\"John\",\"lastName\":\"Doe\",\"email\":\"john.doe@example.com\",\"phoneNumber\":\"+1234567890\",\"age\":25}",
+                "",
+                "{\"firstName\":\"X\",\"lastName\":\"Young\",\"email\":\"not-an-email\",\"phoneNumber\":\"+1555000111\",\"age\":12}",
+                "{\"firstName\":\"Jane\",\"lastName\":\"Smith\",\"email\":\"jane.smith@example.com\",\"phoneNumber\":\"+1987654321\",\"age\":30}",
+                "{not json");
+
+        mockMvc.perform(post("/api/v1/users/import")
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .content(feed))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalRows").value(5))
+                .andExpect(jsonPath("$.imported").value(1))
+                .andExpect(jsonPath("$.duplicates").value(2))
+                .andExpect(jsonPath("$.invalid").value(2))
+                .andExpect(jsonPath("$.rejectedRows[0].line").value(2))
+                .andExpect(jsonPath("$.rejectedRows[0].status").value("DUPLICATE"));
+
+        assertTrue(userRepository.findByEmail("jane.smith@example.com").orElseThrow().getIsActive());
+    }
+
+    @Test
+    @DisplayName("Should import CSV rows with a header")
+    void shouldImportCsvWithHeader() throws Exception {
+        String feed = String.join("\n",
+                "firstName,lastName,email,phoneNumber,age",
+                "María,\"García, hija\",maria.garcia@example.com,+34600111222,41",
+                "Pedro,Páramo,pedro.paramo@example.com,+52551234567,55");
+
+        mockMvc.perform(post("/api/v1/users/import")
+                        .contentType("text/csv")
+                        .content(feed))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalRows").value(2))
+                .andExpect(jsonPath("$.imported").value(2));
+
+        assertEquals("García, hija", userRepository.findByEmail("maria.garcia@example.com").orElseThrow().getLastName());
+    }
+
+    @Test
+    @DisplayName("Should keep the chunks committed before a failing chunk")
+    void shouldKeepEarlierChunksWhenAChunkFails() throws Exception {
+        // Rows that pass validation but that the database rejects
+        jdbcTemplate.execute("ALTER TABLE users ADD CONSTRAINT chk_import_test CHECK (first_name <> 'Rejected')");
+
+        String feed = String.join("\n",
+                "{\"firstName\":\"Ana\",\"lastName\":\"Uno\",\"email\":\"ana@example.com\",\"phoneNumber\":\"+34600000001\",\"age\":30}",
+                "{\"firstName\":\"Blas\",\"lastName\":\"Dos\",\"email\":\"blas@example.com\",\"phoneNumber\":\"+34600000002\",\"age\":31}",
+                "{\"firstName\":\"Carla\",\"lastName\":\"Tres\",\"email\":\"carla@example.com\",\"phoneNumber\":\"+34600000003\",\"age\":32}",
+                "{\"firstName\":\"Rejected\",\"lastName\":\"Cuatro\",\"email\":\"rejected@example.com\",\"phoneNumber\":\"+34600000004\",\"age\":33}",
+                "{\"firstName\":\"Elena\",\"lastName\":\"Cinco\",\"email\":\"elena@example.com\",\"phoneNumber\":\"+34600000005\",\"age\":34}");
+
+        mockMvc.perform(post("/api/v1/users/import")
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .content(feed))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalRows").value(5))
+                .andExpect(jsonPath("$.imported").value(3))
+                .andExpect(jsonPath("$.failed").value(2))
+                .andExpect(jsonPath("$.rejectedRows[0].line").value(3))
+                .andExpect(jsonPath("$.rejectedRows[0].status").value("FAILED"))
+                .andExpect(jsonPath("$.rejectedRows[1].line").value(4));
+
+        // The whole second chunk was rolled back, the first and third stay committed
+        assertTrue(userRepository.findByEmail("ana@example.com").isPresent());
+        assertTrue(userRepository.findByEmail("blas@example.com").isPresent());
+        assertFalse(userRepository.findByEmail("carla@example.com").isPresent());
+        assertTrue(userRepository.findByEmail("elena@example.com").isPresent());
+        // Only committed users reach the live counters
+        assertEquals(3, userCounters.getTotal());
+        assertEquals(3, userCounters.getActive());
+    }
+}
@@ -0,0 +1,128 @@
+package com.letrasvivas.bookapi;
+
+import com.letrasvivas.bookapi.dto.response.UserResponseDTO;
+import com.letrasvivas.bookapi.entity.Subscription;
+import com.letrasvivas.bookapi.entity.Subscription.SubscriptionStatus;
+import com.letrasvivas.bookapi.entity.User;
+import com.letrasvivas.bookapi.repository.UserRepository;
+import com.letrasvivas.bookapi.service.UserService;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * User listings must load subscriptions for a whole page at once: the number of
+ * statements per page may not grow with the number of users on it.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("test")
+@Transactional
+class UserListingQueryCountTest {
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        userRepository.deleteAll();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void getAllUsers_ShouldUseConstantStatementsPerPage() {
+        createUsers(3);
+        long fewUsers = statementsFor(() -> userService.getAllUsers(PageRequest.of(0, 20, Sort.by("id"))));
+
+        createUsers(12);
+        long manyUsers = statementsFor(() -> userService.getAllUsers(PageRequest.of(0, 20, Sort.by("id"))));
+
+        assertEquals(2, fewUsers);
+        assertEquals(fewUsers, manyUsers);
+    }
+
+    @Test
+    void searchUsers_ShouldUseConstantStatementsPerPage() {
+        createUsers(10);
+
+        long statements = statementsFor(() -> userService.searchUsers(null, null, null, true, null, null,
+                PageRequest.of(0, 20)));
+
+        assertEquals(2, statements);
+    }
+
+    @Test
+    void getAllUsers_ShouldSummarizeSubscriptionsFromBatchQuery() {
+        createUsers(2);
+        entityManager.clear();
+
+        Page<UserResponseDTO> page = userService.getAllUsers(PageRequest.of(0, 20, Sort.by("id")));
+
+        UserResponseDTO first = page.getContent().get(0);
+        assertEquals(2, first.getSubscriptionCount());
+        assertEquals(1, first.getActiveSubscriptions().size());
+        assertEquals("Premium", first.getActiveSubscriptions().get(0).getPlanName());
+    }
+
+    private long statementsFor(Runnable listing) {
+        entityManager.flush();
+        entityManager.clear();
+        statistics.clear();
+        listing.run();
+        return statistics.getPrepareStatementCount();
+    }
+
+    private void createUsers(int count) {
+        long existing = userRepository.count();
+        for (int i = 0; i < count; i++) {
+            User user = new User();
+            user.setFirstName("User");
+            user.setLastName("Number" + (existing + i));
+            user.setEmail("user" + (existing + i) + "@example.com");
+            user.setPhoneNumber("+1234567890");
+            user.setAge(30);
+            user.setIsActive(true);
+            entityManager.persist(user);
+            entityManager.persist(subscription(user, "Premium", SubscriptionStatus.ACTIVE));
+            entityManager.persist(subscription(user, "Basic", SubscriptionStatus.CANCELLED));
+        }
+        entityManager.flush();
+    }
+
+    private Subscription subscription(User user, String planName, SubscriptionStatus status) {
+        Subscription subscription = new Subscription();
+        subscription.setPlanName(planName);
+        subscription.setPrice(new BigDecimal("9.99"));
+        subscription.setStartDate(LocalDate.now().minusMonths(1));
+        subscription.setDurationMonths(12);
+        subscription.setStatus(status);
+        subscription.setUser(user);
+        return subscription;
+    }
+}
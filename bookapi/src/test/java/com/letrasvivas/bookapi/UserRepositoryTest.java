@@ -1,5 +1,8 @@
 package com.letrasvivas.bookapi;
 
+import com.letrasvivas.bookapi.dto.response.ActiveSubscriberDTO;
+import com.letrasvivas.bookapi.entity.Subscription;
+import com.letrasvivas.bookapi.entity.Subscription.SubscriptionStatus;
 import com.letrasvivas.bookapi.entity.User;
 import com.letrasvivas.bookapi.repository.UserRepository;
 import org.junit.jupiter.api.BeforeEach;
@@ -9,7 +12,10 @@ import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
 
+import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
 
@@ -160,4 +166,46 @@ class UserRepositoryTest {
         // Then
         assertEquals(2, result.getContent().size());
     }
-}
\ No newline at end of file
+
+    @Test
+    void findByIdGreaterThanOrderByIdAsc_ShouldWalkUsersWithoutCount() {
+        // When
+        Slice<User> firstPage = userRepository.findByIdGreaterThanOrderByIdAsc(0L, PageRequest.of(0, 1));
+        Long lastSeenId = firstPage.getContent().get(0).getId();
+        Slice<User> secondPage = userRepository.findByIdGreaterThanOrderByIdAsc(lastSeenId, PageRequest.of(0, 1));
+
+        // Then
+        assertTrue(firstPage.hasNext());
+        assertEquals("John", firstPage.getContent().get(0).getFirstName());
+        assertFalse(secondPage.hasNext());
+        assertEquals("Jane", secondPage.getContent().get(0).getFirstName());
+    }
+
+    @Test
+    void findActiveSubscribersAfter_ShouldReturnEachActiveSubscriberOnce() {
+        // Given
+        LocalDate today = LocalDate.now();
+        entityManager.persist(new Subscription("Basic", new BigDecimal("9.99"), today.minusMonths(1), 12,
+                SubscriptionStatus.ACTIVE, testUser1));
+        entityManager.persist(new Subscription("Premium", new BigDecimal("19.99"), today.minusMonths(2), 12,
+                SubscriptionStatus.ACTIVE, testUser1));
+        entityManager.persist(new Subscription("Old", new BigDecimal("4.99"), today.minusYears(3), 1,
+                SubscriptionStatus.ACTIVE, testUser1));
+        // Inactive user: excluded even with an active subscription
+        entityManager.persist(new Subscription("Basic", new BigDecimal("9.99"), today, 12,
+                SubscriptionStatus.ACTIVE, testUser2));
+        entityManager.flush();
+
+        // When
+        Slice<ActiveSubscriberDTO> page = userRepository.findActiveSubscribersAfter(0L, today, PageRequest.of(0, 10));
+        List<Object[]> plans = userRepository.findActivePlanNamesByUserIdIn(List.of(testUser1.getId()), today);
+
+        // Then
+        assertEquals(1, page.getContent().size());
+        assertFalse(page.hasNext());
+        assertEquals("john.doe@example.com", page.getContent().get(0).getEmail());
+        assertEquals(List.of("Basic", "Premium"), plans.stream().map(row -> (String) row[1]).toList());
+        assertTrue(userRepository.findActiveSubscribersAfter(testUser1.getId(), today, PageRequest.of(0, 10))
+                .isEmpty());
+    }
+}
@@ -2,23 +2,33 @@ package com.letrasvivas.bookapi;
 
 import com.letrasvivas.bookapi.dto.request.CreateUserRequestDTO;
 import com.letrasvivas.bookapi.dto.request.UpdateUserRequestDTO;
+import com.letrasvivas.bookapi.dto.response.UserPurgeReportDTO;
 import com.letrasvivas.bookapi.dto.response.UserResponseDTO;
 import com.letrasvivas.bookapi.entity.User;
 import com.letrasvivas.bookapi.exception.DuplicateResourceException;
 import com.letrasvivas.bookapi.exception.ResourceNotFoundException;
 import com.letrasvivas.bookapi.repository.UserRepository;
+import com.letrasvivas.bookapi.service.UserPurgeService;
 import com.letrasvivas.bookapi.service.UserService;
+import com.letrasvivas.bookapi.service.cache.UserEmailCache;
+import com.letrasvivas.bookapi.service.index.EmailFilter;
+import com.letrasvivas.bookapi.service.stats.UserAnalyticsStore;
+import com.letrasvivas.bookapi.service.stats.UserCounters;
+import org.hibernate.exception.ConstraintViolationException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 
+import java.sql.SQLException;
 import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
@@ -34,6 +44,24 @@ class UserServiceTest {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private UserCounters userCounters;
+
+    @Mock
+    private UserAnalyticsStore userAnalyticsStore;
+
+    @Mock
+    private EmailFilter emailFilter;
+
+    @Mock
+    private UserEmailCache userEmailCache;
+
+    @Mock
+    private UserPurgeService userPurgeService;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private UserService userService;
 
@@ -142,6 +170,46 @@ class UserServiceTest {
         verify(userRepository, never()).save(any(User.class));
     }
 
+    @Test
+    void createUser_WhenFilterRulesEmailOut_ShouldSkipExistenceQuery() {
+        // Given
+        when(emailFilter.isDefinitelyAbsent(createUserRequestDTO.getEmail())).thenReturn(true);
+        when(userRepository.save(any(User.class))).thenReturn(testUser);
+
+        // When
+        UserResponseDTO result = userService.createUser(createUserRequestDTO);
+
+        // Then
+        assertNotNull(result);
+        verify(userRepository, never()).existsByEmail(anyString());
+        verify(userRepository).save(any(User.class));
+    }
+
+    @Test
+    void createUser_WhenSaveBreaksEmailConstraint_ShouldThrowDuplicateResourceException() {
+        // Given: another request took the email between the check and the insert
+        when(emailFilter.isDefinitelyAbsent(createUserRequestDTO.getEmail())).thenReturn(true);
+        when(userRepository.save(any(User.class))).thenThrow(violationOf(
+                "PUBLIC.UK_USERS_EMAIL_INDEX_4 ON PUBLIC.USERS(EMAIL NULLS FIRST)"));
+
+        // When & Then
+        assertThrows(DuplicateResourceException.class, () -> {
+            userService.createUser(createUserRequestDTO);
+        });
+    }
+
+    @Test
+    void createUser_WhenSaveBreaksAnotherConstraint_ShouldRethrow() {
+        // Given
+        when(emailFilter.isDefinitelyAbsent(createUserRequestDTO.getEmail())).thenReturn(true);
+        when(userRepository.save(any(User.class))).thenThrow(violationOf(null));
+
+        // When & Then
+        assertThrows(DataIntegrityViolationException.class, () -> {
+            userService.createUser(createUserRequestDTO);
+        });
+    }
+
     @Test
     void updateUser_WithValidData_ShouldUpdateUser() {
         // Given
@@ -185,6 +253,19 @@ class UserServiceTest {
         assertFalse(testUser.getIsActive());
     }
 
+    @Test
+    void permanentlyDeleteUser_WithInvalidId_ShouldThrowResourceNotFoundException() {
+        // Given
+        when(userPurgeService.purgeUsers(List.of(999L)))
+                .thenReturn(new UserPurgeReportDTO(0, 0, List.of(999L)));
+
+        // When & Then
+        assertThrows(ResourceNotFoundException.class, () -> {
+            userService.permanentlyDeleteUser(999L);
+        });
+        verify(userRepository, never()).delete(any(User.class));
+    }
+
     @Test
     void searchUsersByName_ShouldReturnMatchingUsers() {
         // Given
@@ -242,4 +323,9 @@ class UserServiceTest {
         assertFalse(result);
         verify(userRepository).existsByEmail("nonexistent@example.com");
     }
-}
\ No newline at end of file
+
+    private static DataIntegrityViolationException violationOf(String constraintName) {
+        return new DataIntegrityViolationException("could not execute statement",
+                new ConstraintViolationException("could not execute statement", new SQLException(), constraintName));
+    }
+}